@@ -0,0 +1,294 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates a synthetic API of {@code packages} &times; {@code classes}
+ * types with Javadoc resembling real libraries: inheritance chains,
+ * generics, {@code {@inheritDoc}}, {@code {@link}} references across
+ * packages and {@code {@snippet}} references into a separate snippet
+ * directory. The output is fully determined by the parameters and
+ * the seed.
+ */
+public final class ApiGenerator {
+    static final String API = "org.example.api";
+    static final String SNIPPETS = "org.example.snippets";
+
+    private final int packages;
+    private final int classes;
+    private final int depth;
+    private final int links;
+    private final Random random;
+
+    /**
+     * @param packages number of packages to generate
+     * @param classes number of classes in each package
+     * @param depth maximal length of an inheritance chain
+     * @param links number of {@code {@link}} tags in each method comment
+     * @param seed seed for the random choices
+     */
+    public ApiGenerator(int packages, int classes, int depth, int links, long seed) {
+        this.packages = packages;
+        this.classes = classes;
+        this.depth = Math.max(1, depth);
+        this.links = links;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the API.
+     *
+     * @param src directory to put the API sources into
+     * @param snippets directory to put the snippet sources into
+     */
+    public void generate(Path src, Path snippets) throws IOException {
+        for (int p = 0; p < packages; p++) {
+            String pkg = "p" + p;
+            Path dir = Files.createDirectories(src.resolve((API + "." + pkg).replace('.', '/')));
+            write(dir.resolve("package-info.java"), packageInfo(pkg));
+            write(dir.resolve("Service.java"), service(pkg));
+            write(dir.resolve("AbstractService.java"), abstractService(pkg));
+            write(dir.resolve("Kind.java"), kind(pkg));
+            for (int c = 0; c < classes; c++) {
+                write(dir.resolve(className(c) + ".java"), clazz(pkg, c));
+            }
+            Path snippetDir = Files.createDirectories(snippets.resolve((SNIPPETS + "." + pkg).replace('.', '/')));
+            write(snippetDir.resolve("Samples.java"), samples(pkg));
+        }
+    }
+
+    /**
+     * @return names of all the generated packages
+     */
+    public String[] packageNames() {
+        String[] names = new String[packages];
+        for (int p = 0; p < packages; p++) {
+            names[p] = API + ".p" + p;
+        }
+        return names;
+    }
+
+    private static void write(Path file, CharSequence content) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.append(content);
+        }
+    }
+
+    private static String className(int c) {
+        return "Element" + c;
+    }
+
+    private String randomLink(String pkg) {
+        int p = random.nextInt(packages);
+        int c = random.nextInt(classes);
+        String target = p == Integer.parseInt(pkg.substring(1)) ? className(c) : API + ".p" + p + "." + className(c);
+        switch (random.nextInt(3)) {
+            case 0:
+                return "{@link " + target + "}";
+            case 1:
+                return "{@link " + target + "#compute(int) compute}";
+            default:
+                return "{@link " + target + "#transform(Comparable)}";
+        }
+    }
+
+    private String packageInfo(String pkg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("/**\n");
+        sb.append(" * Generated package ").append(pkg).append(" with ").append(classes).append(" elements.\n");
+        sb.append(" * The entry point is {@link ").append(API).append('.').append(pkg).append(".Service}.\n");
+        sb.append(" */\n");
+        sb.append("package ").append(API).append('.').append(pkg).append(";\n");
+        return sb.toString();
+    }
+
+    private String service(String pkg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(API).append('.').append(pkg).append(";\n\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Service transforming values of type {@code T}.\n");
+        sb.append(" *\n");
+        sb.append(" * @param <T> the type of transformed values\n");
+        sb.append(" * @since 1.0\n");
+        sb.append(" */\n");
+        sb.append("public interface Service<T extends Comparable<T>> {\n");
+        sb.append("    /**\n");
+        sb.append("     * Transforms the value. Implementations may return the same\n");
+        sb.append("     * instance. See also ").append(randomLink(pkg)).append(".\n");
+        sb.append("     *\n");
+        sb.append("     * @param value the value to transform\n");
+        sb.append("     * @return the transformed value\n");
+        sb.append("     * @throws IllegalArgumentException if the value is not acceptable\n");
+        sb.append("     */\n");
+        sb.append("    T transform(T value) throws IllegalArgumentException;\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Describes the service.\n");
+        sb.append("     *\n");
+        sb.append("     * @return human readable description\n");
+        sb.append("     */\n");
+        sb.append("    String describe();\n\n");
+        sb.append("    /**\n");
+        sb.append("     * All the values known to the service.\n");
+        sb.append("     *\n");
+        sb.append("     * @return list of values, never {@code null}\n");
+        sb.append("     */\n");
+        sb.append("    List<T> values();\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String abstractService(String pkg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(API).append('.').append(pkg).append(";\n\n");
+        sb.append("import java.util.ArrayList;\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Base implementation of {@link Service}.\n");
+        sb.append(" *\n");
+        sb.append(" * @param <T> the type of transformed values\n");
+        sb.append(" */\n");
+        sb.append("public abstract class AbstractService<T extends Comparable<T>> implements Service<T> {\n");
+        sb.append("    /** The name of the service. */\n");
+        sb.append("    protected final String name;\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Creates the service.\n");
+        sb.append("     *\n");
+        sb.append("     * @param name the name of the service\n");
+        sb.append("     */\n");
+        sb.append("    protected AbstractService(String name) {\n");
+        sb.append("        this.name = name;\n");
+        sb.append("    }\n\n");
+        sb.append("    /** {@inheritDoc} */\n");
+        sb.append("    @Override\n");
+        sb.append("    public String describe() {\n");
+        sb.append("        return name;\n");
+        sb.append("    }\n\n");
+        sb.append("    /** {@inheritDoc} */\n");
+        sb.append("    @Override\n");
+        sb.append("    public List<T> values() {\n");
+        sb.append("        return new ArrayList<>();\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String kind(String pkg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(API).append('.').append(pkg).append(";\n\n");
+        sb.append("/** Kinds of elements in this package. */\n");
+        sb.append("public enum Kind {\n");
+        for (int i = 0; i < 5; i++) {
+            sb.append("    /** Kind number ").append(i).append(". */\n");
+            sb.append("    KIND").append(i).append(i == 4 ? ";\n" : ",\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String clazz(String pkg, int c) {
+        String name = className(c);
+        String parent = c % depth == 0 ? "AbstractService" : className(c - 1);
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(API).append('.').append(pkg).append(";\n\n");
+        sb.append("import java.util.List;\n");
+        sb.append("import java.util.Map;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Element number ").append(c).append(" of package {@code ").append(pkg).append("}.\n");
+        sb.append(" * It cooperates with ").append(randomLink(pkg)).append(" and\n");
+        sb.append(" * ").append(randomLink(pkg)).append(". Typical usage:\n");
+        sb.append(" * {@snippet file=\"").append((SNIPPETS + "." + pkg).replace('.', '/'))
+            .append("/Samples.java\" region=\"").append(name).append("\"}\n");
+        sb.append(" *\n");
+        sb.append(" * @param <T> the type of transformed values\n");
+        sb.append(" * @since 1.").append(c % 10).append('\n');
+        sb.append(" * @see Service\n");
+        sb.append(" */\n");
+        sb.append("public class ").append(name).append("<T extends Comparable<T>> extends ")
+            .append(parent).append("<T> {\n");
+        sb.append("    /** Default size of {@link ").append(name).append("}. */\n");
+        sb.append("    public static final int SIZE").append(c).append(" = ").append(c).append(";\n\n");
+        sb.append("    /** The kind of this element. */\n");
+        sb.append("    public static final Kind KIND = Kind.KIND").append(c % 5).append(";\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Creates the element.\n");
+        sb.append("     *\n");
+        sb.append("     * @param name the name, see {@link #describe()}\n");
+        sb.append("     */\n");
+        sb.append("    public ").append(name).append("(String name) {\n");
+        sb.append("        super(name);\n");
+        sb.append("    }\n\n");
+        sb.append("    /** {@inheritDoc} */\n");
+        sb.append("    @Override\n");
+        sb.append("    public T transform(T value) throws IllegalArgumentException {\n");
+        sb.append("        return value;\n");
+        sb.append("    }\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Computes a value. Related to");
+        for (int l = 0; l < links; l++) {
+            sb.append(l == 0 ? " " : ", ").append(randomLink(pkg));
+        }
+        sb.append(".\n");
+        sb.append("     *\n");
+        sb.append("     * @param x the input\n");
+        sb.append("     * @return the computed value\n");
+        sb.append("     * @throws IllegalStateException if not initialized\n");
+        sb.append("     */\n");
+        sb.append("    public int compute(int x) {\n");
+        sb.append("        return x + SIZE").append(c).append(";\n");
+        sb.append("    }\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Entries of this element.\n");
+        sb.append("     *\n");
+        sb.append("     * @param <K> type of the keys\n");
+        sb.append("     * @param keys the keys to look for\n");
+        sb.append("     * @return list of entries, see {@link Map}\n");
+        sb.append("     */\n");
+        sb.append("    public <K> List<Map<K, T>> entries(List<? extends K> keys) {\n");
+        sb.append("        return null;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String samples(String pkg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(SNIPPETS).append('.').append(pkg).append(";\n\n");
+        sb.append("import ").append(API).append('.').append(pkg).append(".*;\n\n");
+        sb.append("final class Samples {\n");
+        for (int c = 0; c < classes; c++) {
+            String name = className(c);
+            sb.append("    void sample").append(c).append("() {\n");
+            sb.append("        // @start region=\"").append(name).append("\"\n");
+            sb.append("        ").append(name).append("<String> e = new ").append(name).append("<>(\"s\");\n");
+            sb.append("        String v = e.transform(\"hello\");\n");
+            sb.append("        int x = e.compute(").append(c).append(");\n");
+            sb.append("        // @end region=\"").append(name).append("\"\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
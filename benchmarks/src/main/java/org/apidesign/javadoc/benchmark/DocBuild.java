@@ -0,0 +1,197 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.DocumentationTool;
+import javax.tools.ToolProvider;
+import org.apidesign.javadoc.codesnippet.Doclet;
+import org.apidesign.javadoc.codesnippet.Fixtures;
+
+/**
+ * Generates a synthetic API with {@link ApiGenerator} and documents it with
+ * the {@link Doclet} through the system {@link DocumentationTool}. Prints
+ * the total time, peak memory and size of the output.
+ * <p>
+ * The doclet keeps static state, so run one build per JVM:
+ * <pre>
+ * java -Xmx8g -cp benchmarks/target/benchmarks.jar \
+ *   org.apidesign.javadoc.benchmark.DocBuild -classes 10000
+ * </pre>
+ * Recognized parameters are {@code -classes} (total number of classes,
+ * defaults to 1000), {@code -perpackage} (classes in a package, defaults
+ * to 50), {@code -depth} (inheritance depth, defaults to 5), {@code -links}
+ * (links per method comment, defaults to 2), {@code -seed}, {@code -work}
+ * (directory to use, defaults to a temporary one), {@code -keep} (don't
+ * delete the temporary directory) and {@code -csv} (file to append the results
+ * to). Everything after {@code --} is passed to javadoc.
+ */
+public final class DocBuild {
+    private DocBuild() {
+    }
+
+    public static void main(String... args) throws Exception {
+        int classes = 1000;
+        int perPackage = 50;
+        int depth = 5;
+        int links = 2;
+        long seed = 0x5EEDL;
+        Path work = null;
+        boolean keep = false;
+        Path csv = null;
+        List<String> extra = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-classes": classes = Integer.parseInt(args[++i]); break;
+                case "-perpackage": perPackage = Integer.parseInt(args[++i]); break;
+                case "-depth": depth = Integer.parseInt(args[++i]); break;
+                case "-links": links = Integer.parseInt(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-work": work = Paths.get(args[++i]); break;
+                case "-keep": keep = true; break;
+                case "-csv": csv = Paths.get(args[++i]); break;
+                case "--":
+                    extra.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                    i = args.length;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter " + args[i]);
+            }
+        }
+        int packages = Math.max(1, (classes + perPackage - 1) / perPackage);
+        Path temp = null;
+        if (work == null) {
+            work = temp = Files.createTempDirectory("docbuild");
+        }
+        Path src = work.resolve("src");
+        Path snippets = work.resolve("snippets");
+        Path out = work.resolve("apidocs");
+
+        long genStart = System.nanoTime();
+        ApiGenerator generator = new ApiGenerator(packages, perPackage, depth, links, seed);
+        generator.generate(src, snippets);
+        long genTime = System.nanoTime() - genStart;
+
+        List<String> javadoc = new ArrayList<>();
+        javadoc.add("-doclet");
+        javadoc.add(Doclet.class.getName());
+        javadoc.add("-quiet");
+        javadoc.add("-d");
+        javadoc.add(out.toString());
+        javadoc.add("-sourcepath");
+        javadoc.add(src.toString());
+        javadoc.add("--snippet-path");
+        javadoc.add(snippets.toString());
+        javadoc.addAll(extra);
+        javadoc.addAll(Arrays.asList(generator.packageNames()));
+
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        long start = System.nanoTime();
+        int exit = tool.run(null, null, null, javadoc.toArray(new String[0]));
+        long time = System.nanoTime() - start;
+
+        long[] size = outputSize(out);
+        String result = String.format(Locale.ENGLISH,
+            "classes=%d packages=%d exit=%d generate_ms=%d javadoc_ms=%d peak_rss_kb=%d peak_heap_kb=%d files=%d bytes=%d",
+            packages * perPackage, packages, exit, genTime / 1000000, time / 1000000,
+            peakRss(), peakHeap() / 1024, size[0], size[1]
+        );
+        PrintStream os = System.out;
+        os.println(result);
+        if (csv != null) {
+            String line = String.format(Locale.ENGLISH, "%d,%d,%d,%d,%d,%d,%d,%d%n",
+                packages * perPackage, exit, genTime / 1000000, time / 1000000,
+                peakRss(), peakHeap() / 1024, size[0], size[1]
+            );
+            Files.write(csv, line.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        if (!keep) {
+            Fixtures.delete(temp);
+        }
+        System.exit(exit);
+    }
+
+    /**
+     * Peak resident set size of this process in kB as reported by Linux,
+     * or {@code -1} if not known.
+     */
+    static long peakRss() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // fall thru
+        }
+        return -1;
+    }
+
+    /**
+     * Sum of peak usage of all heap memory pools in bytes.
+     */
+    static long peakHeap() {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                sum += pool.getPeakUsage().getUsed();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return number of files and their total size in bytes
+     */
+    static long[] outputSize(Path dir) throws IOException {
+        final long[] size = { 0, 0 };
+        if (Files.isDirectory(dir)) {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    size[0]++;
+                    size[1] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return size;
+    }
+}
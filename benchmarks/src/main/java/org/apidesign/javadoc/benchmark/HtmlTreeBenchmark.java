@@ -0,0 +1,115 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.benchmark;
+
+import com.sun.tools.oldlets.formats.html.markup.HtmlStyle;
+import com.sun.tools.oldlets.formats.html.markup.HtmlTag;
+import com.sun.tools.oldlets.formats.html.markup.HtmlTree;
+import com.sun.tools.oldlets.formats.html.markup.RawHtml;
+import com.sun.tools.oldlets.formats.html.markup.StringContent;
+import com.sun.tools.oldlets.internal.toolkit.Content;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds and writes the member details of a class page with the given
+ * number of methods, the way the method writer lays them out. Run with
+ * {@code -prof gc} to see the allocation per page:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar HtmlTreeBenchmark -prof gc
+ * </pre>
+ * The markup classes use javac internals, so the benchmark needs JDK 9 or
+ * newer to open them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED")
+public class HtmlTreeBenchmark {
+    @Param({ "20", "500" })
+    public int methods;
+
+    @Benchmark
+    public int buildAndWrite() throws IOException {
+        HtmlTree details = new HtmlTree(HtmlTag.UL);
+        details.addStyle(HtmlStyle.blockList);
+        for (int i = 0; i < methods; i++) {
+            details.addContent(method(i));
+        }
+        CountingWriter out = new CountingWriter();
+        details.write(out, true);
+        return out.count + details.charCount();
+    }
+
+    private static Content method(int i) {
+        HtmlTree li = new HtmlTree(HtmlTag.LI);
+        li.addStyle(HtmlStyle.blockList);
+        li.addContent(HtmlTree.A_NAME("method" + i + "-java.lang.String-int-"));
+        li.addContent(HtmlTree.HEADING(HtmlTag.H4, new StringContent("method" + i)));
+        HtmlTree pre = new HtmlTree(HtmlTag.PRE);
+        pre.addContent("public ");
+        pre.addContent(HtmlTree.SPAN(HtmlStyle.typeNameLabel, new StringContent("List<String>")));
+        pre.addContent(" ");
+        pre.addContent(HtmlTree.SPAN(HtmlStyle.memberNameLink, new StringContent("method" + i)));
+        pre.addContent("(String value, int count)");
+        li.addContent(pre);
+        li.addContent(HtmlTree.DIV(HtmlStyle.block,
+                new RawHtml("Does the <code>" + i + "</code>th thing &amp; returns.")));
+        HtmlTree dl = new HtmlTree(HtmlTag.DL);
+        dl.addContent(HtmlTree.DT(HtmlTree.SPAN(HtmlStyle.paramLabel, new StringContent("Parameters:"))));
+        dl.addContent(HtmlTree.DD(new RawHtml("<code>value</code> - the value")));
+        dl.addContent(HtmlTree.DD(new RawHtml("<code>count</code> - how many times")));
+        li.addContent(dl);
+        return HtmlTree.UL(HtmlStyle.blockList, li);
+    }
+
+    private static final class CountingWriter extends Writer {
+        int count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str) {
+            count += str.length();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures syntax coloring and linking of identifiers done by
+ * {@link CodeSnippet#boldJavaKeywords} on small and large snippets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoldJavaKeywordsBenchmark {
+    @Param({ "5", "500" })
+    public int lines;
+
+    private String code;
+    private Map<String, String> imports;
+    private Set<String> packages;
+
+    @Setup
+    public void generate() {
+        code = Fixtures.code(new Random(Fixtures.SEED), lines);
+        imports = new TreeMap<>();
+        imports.put("File", "java.io.File");
+        imports.put("List", "java.util.List");
+        packages = new LinkedHashSet<>();
+        packages.add("java.util");
+    }
+
+    @Benchmark
+    public String withImports() {
+        return CodeSnippet.boldJavaKeywords(code, imports, packages);
+    }
+
+    @Benchmark
+    public String inline() {
+        return CodeSnippet.boldJavaKeywords(code, Collections.<String, String>emptyMap(), Collections.<String>emptySet());
+    }
+}
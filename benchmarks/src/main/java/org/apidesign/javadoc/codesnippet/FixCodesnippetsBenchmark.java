@@ -0,0 +1,132 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet;
+
+import com.sun.javadoc.Doc;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Snippets#replaceCodesnippets} on comments with many
+ * {@code @snippet} and {@code @codesnippet} tags.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixCodesnippetsBenchmark {
+    private static final int FILES = 20;
+    private static final int REGIONS = 5;
+
+    @Param({ "1", "10", "100" })
+    public int tags;
+
+    private Path root;
+    private Snippets snippets;
+    private String comment;
+    private Comment handler;
+    private Doc element;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        root = Fixtures.snippetTree(Files.createTempDirectory("fixsnippets"), FILES, REGIONS);
+        snippets = new Snippets(null);
+        snippets.addPath(root, false);
+        Random random = new Random(Fixtures.SEED);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Comment with ").append(tags).append(" snippets.\n");
+        for (int i = 0; i < tags; i++) {
+            sb.append("<p>\nParagraph ").append(i).append(":\n");
+            switch (i % 3) {
+                case 0:
+                    int file = random.nextInt(FILES);
+                    sb.append("{@snippet file=\"pkg").append(file / Fixtures.FILES_PER_PACKAGE)
+                        .append("/Sample").append(file).append(".java\" region=\"r")
+                        .append(random.nextInt(REGIONS)).append("\"}\n");
+                    break;
+                case 1:
+                    sb.append("{@snippet :\n").append(Fixtures.code(random, 5)).append("}\n");
+                    break;
+                default:
+                    sb.append("{@codesnippet r").append(random.nextInt(REGIONS)).append("}\n");
+            }
+        }
+        comment = sb.toString();
+        handler = new Comment();
+        element = (Doc) Proxy.newProxyInstance(Doc.class.getClassLoader(), new Class<?>[] { Doc.class }, handler);
+        // scan the snippet tree outside of the measurement
+        snippets.getSnippet(element);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public String fixCodesnippets() {
+        handler.text = comment;
+        snippets.replaceCodesnippets(element);
+        return handler.text;
+    }
+
+    private static final class Comment implements InvocationHandler {
+        String text;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getRawCommentText":
+                    return text;
+                case "setRawCommentText":
+                    text = (String) args[0];
+                    return null;
+                default:
+                    Class<?> type = method.getReturnType();
+                    if (type == Boolean.TYPE) {
+                        return false;
+                    }
+                    if (type == Integer.TYPE) {
+                        return 0;
+                    }
+                    return null;
+            }
+        }
+    }
+}
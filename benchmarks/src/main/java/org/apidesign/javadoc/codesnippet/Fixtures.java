@@ -0,0 +1,144 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic sources for the benchmarks. The same
+ * seed always produces the same bytes, so results of different commits
+ * can be compared.
+ */
+public final class Fixtures {
+    static final long SEED = 0x5EED_C0DEL;
+    static final int FILES_PER_PACKAGE = 50;
+
+    private static final String[] TYPES = {
+        "String", "Object", "List<String>", "Map<String, Integer>", "File",
+        "Runnable", "StringBuilder", "Integer", "Thread", "Iterable<Object>",
+    };
+    private static final String[] NAMES = {
+        "value", "name", "count", "list", "map", "file", "task", "builder",
+        "index", "result",
+    };
+
+    private Fixtures() {
+    }
+
+    /**
+     * Writes a tree of Java sources with {@code @start}/{@code @end} regions.
+     *
+     * @param root directory to generate the sources into
+     * @param files number of files to generate
+     * @param regions number of regions in each file
+     * @return the root directory
+     */
+    static Path snippetTree(Path root, int files, int regions) throws IOException {
+        Random random = new Random(SEED);
+        for (int i = 0; i < files; i++) {
+            String pkg = "pkg" + (i / FILES_PER_PACKAGE);
+            Path dir = root.resolve(pkg);
+            Files.createDirectories(dir);
+            String name = "Sample" + i;
+            Files.write(dir.resolve(name + ".java"),
+                javaSource(random, pkg, name, regions).getBytes(StandardCharsets.UTF_8));
+        }
+        return root;
+    }
+
+    /**
+     * Generates one Java source with the given number of snippet regions.
+     * Region names are {@code r0}, {@code r1}, ... in each file.
+     */
+    static String javaSource(Random random, String pkg, String name, int regions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import java.io.File;\n");
+        sb.append("import java.util.*;\n\n");
+        sb.append("public class ").append(name).append(" {\n");
+        for (int r = 0; r < regions; r++) {
+            sb.append("    // @start region=\"r").append(r).append("\"\n");
+            sb.append("    public void method").append(r).append("() {\n");
+            int lines = 3 + random.nextInt(12);
+            for (int l = 0; l < lines; l++) {
+                sb.append("        ").append(statement(random)).append('\n');
+            }
+            sb.append("    }\n");
+            sb.append("    // @end region=\"r").append(r).append("\"\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Generates a code snippet with the given number of lines.
+     */
+    static String code(Random random, int lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int l = 0; l < lines; l++) {
+            sb.append(statement(random)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String statement(Random random) {
+        String type = TYPES[random.nextInt(TYPES.length)];
+        String name = NAMES[random.nextInt(NAMES.length)] + random.nextInt(100);
+        switch (random.nextInt(4)) {
+            case 0:
+                return "final " + type + " " + name + " = null;";
+            case 1:
+                return "if (" + name + " != null) { return; } // check";
+            case 2:
+                return "System.out.println(\"" + name + "\");";
+            default:
+                return "for (int i = 0; i < " + random.nextInt(10) + "; i++) { }";
+        }
+    }
+
+    /**
+     * Deletes the directory and everything in it.
+     *
+     * @param root the directory, nothing happens if it is null or missing
+     */
+    public static void delete(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
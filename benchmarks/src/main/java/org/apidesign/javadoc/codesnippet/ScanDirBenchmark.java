@@ -0,0 +1,87 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CodeSnippet#scanDir} over synthetic source trees of
+ * various sizes and region densities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanDirBenchmark {
+    @Param({ "10", "100", "1000" })
+    public int files;
+
+    @Param({ "1", "10" })
+    public int regions;
+
+    private Path root;
+    private Snippets snippets;
+    private Map<String, String> topClasses;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        root = Fixtures.snippetTree(Files.createTempDirectory("scandir"), files, regions);
+        snippets = new Snippets(null);
+        topClasses = new TreeMap<>();
+        CodeSnippet.collectClasses(root, topClasses, snippets);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public SnippetCollection scanDir() throws IOException {
+        SnippetCollection collection = new SnippetCollection(null);
+        CodeSnippet.scanDir(root, topClasses, collection, snippets);
+        return collection;
+    }
+
+    @Benchmark
+    public Map<String, String> collectClasses() throws IOException {
+        Map<String, String> classes = new TreeMap<>();
+        CodeSnippet.collectClasses(root, classes, snippets);
+        return classes;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures registration and lookups of snippets in {@link SnippetCollection}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnippetCollectionBenchmark {
+    private static final int REGIONS = 10;
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "100", "10000" })
+    public int files;
+
+    private SnippetCollection collection;
+    private String[] lookupFiles;
+    private String[] lookupRegions;
+    private int next;
+
+    @Setup
+    public void generate() {
+        collection = register(files);
+        Random random = new Random(Fixtures.SEED);
+        lookupFiles = new String[LOOKUPS];
+        lookupRegions = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupFiles[i] = fileName(random.nextInt(files));
+            lookupRegions[i] = "r" + random.nextInt(REGIONS);
+        }
+    }
+
+    private static String fileName(int i) {
+        return "pkg" + (i / Fixtures.FILES_PER_PACKAGE) + "/Sample" + i + ".java";
+    }
+
+    private static SnippetCollection register(int files) {
+        SnippetCollection c = new SnippetCollection(null);
+        for (int i = 0; i < files; i++) {
+            String file = fileName(i);
+            for (int r = 0; r < REGIONS; r++) {
+                c.registerSnippet(file, "r" + r, file + "#" + r);
+            }
+        }
+        return c;
+    }
+
+    @Benchmark
+    public String findSnippet() {
+        int i = next++ & (LOOKUPS - 1);
+        return collection.findSnippet(null, lookupFiles[i], lookupRegions[i]);
+    }
+
+    @Benchmark
+    public String findGlobalSnippet() {
+        int i = next++ & (LOOKUPS - 1);
+        return collection.findGlobalSnippet(null, lookupRegions[i]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SnippetCollection registerAll() {
+        return register(files);
+    }
+}
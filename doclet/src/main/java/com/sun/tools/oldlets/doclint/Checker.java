@@ -178,24 +178,25 @@ public class Checker extends DocTreePathScanner<Void, Void> {
         scan(new DocTreePath(p, tree), null);
 
         if (!isOverridingMethod) {
-            switch (env.currElement.getKind()) {
+            switch (env.getKind(env.currElement)) {
                 case METHOD:
                 case CONSTRUCTOR: {
                     ExecutableElement ee = (ExecutableElement) env.currElement;
-                    checkParamsDocumented(ee.getTypeParameters());
-                    checkParamsDocumented(ee.getParameters());
-                    switch (ee.getReturnType().getKind()) {
+                    checkParamsDocumented(env.getTypeParameters(ee));
+                    checkParamsDocumented(env.getParameters(ee));
+                    TypeMirror returnType = env.getReturnType(ee);
+                    switch (returnType.getKind()) {
                         case VOID:
                         case NONE:
                             break;
                         default:
                             if (!foundReturn
                                     && !foundInheritDoc
-                                    && !env.types.isSameType(ee.getReturnType(), env.java_lang_Void)) {
+                                    && !env.isSameType(returnType, env.java_lang_Void)) {
                                 reportMissing("dc.missing.return");
                             }
                     }
-                    checkThrowsDocumented(ee.getThrownTypes());
+                    checkThrowsDocumented(env.getThrownTypes(ee));
                 }
             }
         }
@@ -606,14 +607,14 @@ public class Checker extends DocTreePathScanner<Void, Void> {
 
     private Element getEnclosingPackageOrClass(Element e) {
         while (e != null) {
-            switch (e.getKind()) {
+            switch (env.getKind(e)) {
                 case CLASS:
                 case ENUM:
                 case INTERFACE:
                 case PACKAGE:
                     return e;
                 default:
-                    e = e.getEnclosingElement();
+                    e = env.getEnclosingElement(e);
             }
         }
         return e;
@@ -705,10 +706,10 @@ public class Checker extends DocTreePathScanner<Void, Void> {
     public Void visitParam(ParamTree tree, Void ignore) {
         boolean typaram = tree.isTypeParameter();
         IdentifierTree nameTree = tree.getName();
-        Element paramElement = nameTree != null ? env.trees.getElement(new DocTreePath(getCurrentPath(), nameTree)) : null;
+        Element paramElement = nameTree != null ? env.getElement(new DocTreePath(getCurrentPath(), nameTree)) : null;
 
         if (paramElement == null) {
-            switch (env.currElement.getKind()) {
+            switch (env.getKind(env.currElement)) {
                 case CLASS: case INTERFACE: {
                     if (!typaram) {
                         env.messages.error(REFERENCE, tree, "dc.invalid.param");
@@ -738,7 +739,7 @@ public class Checker extends DocTreePathScanner<Void, Void> {
 
         for (Element e: list) {
             if (!foundParams.contains(e)) {
-                CharSequence paramName = (e.getKind() == ElementKind.TYPE_PARAMETER)
+                CharSequence paramName = (env.getKind(e) == ElementKind.TYPE_PARAMETER)
                         ? "<" + e.getSimpleName() + ">"
                         : e.getSimpleName();
                 reportMissing("dc.missing.param", paramName);
@@ -752,7 +753,7 @@ public class Checker extends DocTreePathScanner<Void, Void> {
         if (sig.contains("<") || sig.contains(">"))
             env.messages.error(REFERENCE, tree, "dc.type.arg.not.allowed");
 
-        Element e = env.trees.getElement(getCurrentPath());
+        Element e = env.getElement(getCurrentPath());
         if (e == null)
             env.messages.error(REFERENCE, tree, "dc.ref.not.found");
         return super.visitReference(tree, ignore);
@@ -760,9 +761,9 @@ public class Checker extends DocTreePathScanner<Void, Void> {
 
     @Override
     public Void visitReturn(ReturnTree tree, Void ignore) {
-        Element e = env.trees.getElement(env.currPath);
-        if (e.getKind() != ElementKind.METHOD
-                || ((ExecutableElement) e).getReturnType().getKind() == TypeKind.VOID)
+        Element e = env.getElement(env.currPath);
+        if (env.getKind(e) != ElementKind.METHOD
+                || env.getReturnType((ExecutableElement) e).getKind() == TypeKind.VOID)
             env.messages.error(REFERENCE, tree, "dc.invalid.return");
         foundReturn = true;
         warnIfEmpty(tree, tree.getDescription());
@@ -790,16 +791,17 @@ public class Checker extends DocTreePathScanner<Void, Void> {
     @Override
     public Void visitThrows(ThrowsTree tree, Void ignore) {
         ReferenceTree exName = tree.getExceptionName();
-        Element ex = env.trees.getElement(new DocTreePath(getCurrentPath(), exName));
+        Element ex = env.getElement(new DocTreePath(getCurrentPath(), exName));
         if (ex == null) {
             env.messages.error(REFERENCE, tree, "dc.ref.not.found");
-        } else if (isThrowable(ex.asType())) {
-            switch (env.currElement.getKind()) {
+        } else if (isThrowable(env.asType(ex))) {
+            switch (env.getKind(env.currElement)) {
                 case CONSTRUCTOR:
                 case METHOD:
-                    if (isCheckedException(ex.asType())) {
+                    TypeMirror exType = env.asType(ex);
+                    if (isCheckedException(exType)) {
                         ExecutableElement ee = (ExecutableElement) env.currElement;
-                        checkThrowsDeclared(exName, ex.asType(), ee.getThrownTypes());
+                        checkThrowsDeclared(exName, exType, env.getThrownTypes(ee));
                     }
                     break;
                 default:
@@ -816,7 +818,7 @@ public class Checker extends DocTreePathScanner<Void, Void> {
         switch (tm.getKind()) {
             case DECLARED:
             case TYPEVAR:
-                return env.types.isAssignable(tm, env.java_lang_Throwable);
+                return env.isAssignable(tm, env.java_lang_Throwable);
         }
         return false;
     }
@@ -824,7 +826,7 @@ public class Checker extends DocTreePathScanner<Void, Void> {
     private void checkThrowsDeclared(ReferenceTree tree, TypeMirror t, List<? extends TypeMirror> list) {
         boolean found = false;
         for (TypeMirror tl : list) {
-            if (env.types.isAssignable(t, tl)) {
+            if (env.isAssignable(t, tl)) {
                 foundThrows.add(tl);
                 found = true;
             }
@@ -867,7 +869,7 @@ public class Checker extends DocTreePathScanner<Void, Void> {
             if (!isConstant(env.currElement))
                 env.messages.error(REFERENCE, tree, "dc.value.not.allowed.here");
         } else {
-            Element e = env.trees.getElement(new DocTreePath(getCurrentPath(), ref));
+            Element e = env.getElement(new DocTreePath(getCurrentPath(), ref));
             if (!isConstant(e))
                 env.messages.error(REFERENCE, tree, "dc.value.not.a.constant");
         }
@@ -880,9 +882,9 @@ public class Checker extends DocTreePathScanner<Void, Void> {
         if (e == null)
             return false;
 
-        switch (e.getKind()) {
+        switch (env.getKind(e)) {
             case FIELD:
-                Object value = ((VariableElement) e).getConstantValue();
+                Object value = env.getConstantValue((VariableElement) e);
                 return (value != null); // can't distinguish "not a constant" from "constant is null"
             default:
                 return false;
@@ -905,12 +907,12 @@ public class Checker extends DocTreePathScanner<Void, Void> {
     // <editor-fold defaultstate="collapsed" desc="Utility methods">
 
     private boolean isCheckedException(TypeMirror t) {
-        return !(env.types.isAssignable(t, env.java_lang_Error)
-                || env.types.isAssignable(t, env.java_lang_RuntimeException));
+        return !(env.isAssignable(t, env.java_lang_Error)
+                || env.isAssignable(t, env.java_lang_RuntimeException));
     }
 
     private boolean isSynthetic() {
-        switch (env.currElement.getKind()) {
+        switch (env.getKind(env.currElement)) {
             case CONSTRUCTOR:
                 // A synthetic default constructor has the same pos as the
                 // enclosing class
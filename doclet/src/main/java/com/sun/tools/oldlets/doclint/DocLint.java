@@ -257,6 +257,8 @@ public class DocLint implements Plugin {
     // <editor-fold defaultstate="collapsed" desc="Embedding API">
 
     public void init(JavacTask task, String[] args, boolean addTaskListener) {
+        this.task = task;
+        this.args = args.clone();
         env = new Env();
         for (int i = 0; i < args.length; i++) {
             String arg = args[i];
@@ -318,10 +320,35 @@ public class DocLint implements Plugin {
     }
 
     public void scan(TreePath p) {
-        DocCommentTree dc = env.trees.getDocCommentTree(p);
+        DocCommentTree dc;
+        synchronized (env.lock) {
+            dc = env.trees.getDocCommentTree(p);
+        }
         checker.scan(dc, p);
     }
 
+    /**
+     * Create a doclint with the same options and its own checker and
+     * environment, to check comments on another thread. All the forks of
+     * a doclint enter the compiler under one lock, messages they report on
+     * tasks run by a {@code TaskGraph} are printed in the order of the
+     * tasks.
+     *
+     * @return the new doclint
+     */
+    public DocLint fork() {
+        // HtmlTag and HtmlTag.Attr initialize each other. Threads starting
+        // with different ones deadlock, so every fork starts with HtmlTag
+        HtmlTag.values();
+        DocLint fork = new DocLint();
+        Object lock = env.lock;
+        synchronized (lock) {
+            fork.init(task, args, false);
+        }
+        fork.env.lock = lock;
+        return fork;
+    }
+
     public void reportStats(PrintWriter out) {
         env.messages.reportStats(out);
     }
@@ -330,6 +357,8 @@ public class DocLint implements Plugin {
 
     Env env;
     Checker checker;
+    private JavacTask task;
+    private String[] args;
 
     public static boolean isValidOption(String opt) {
         if (opt.equals(XMSGS_OPTION))
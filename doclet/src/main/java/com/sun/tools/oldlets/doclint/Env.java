@@ -26,6 +26,7 @@
 package com.sun.tools.oldlets.doclint;
 
 
+import java.util.List;
 import java.util.Set;
 import java.util.LinkedHashSet;
 
@@ -33,11 +34,14 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
 import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.util.DocTreePath;
 import com.sun.source.util.DocTrees;
 import com.sun.source.util.JavacTask;
 import com.sun.source.util.SourcePositions;
@@ -116,12 +120,20 @@ public class Env {
     /** The set of methods, if any, that the current declaration overrides. */
     Set<? extends ExecutableElement> currOverriddenMethods;
 
+    /**
+     * The compiler is only entered while holding this lock. Environments
+     * checking comments on different threads share it.
+     */
+    Object lock = this;
+
     Env() {
         messages = new Messages(this);
     }
 
     void init(JavacTask task) {
-        init(DocTrees.instance(task), task.getElements(), task.getTypes());
+        synchronized (lock) {
+            init(DocTrees.instance(task), task.getElements(), task.getTypes());
+        }
     }
 
     void init(DocTrees trees, Elements elements, Types types) {
@@ -148,19 +160,93 @@ public class Env {
 
     /** Set the current declaration and its doc comment. */
     void setCurrent(TreePath path, DocCommentTree comment) {
-        currPath = path;
-        currDocComment = comment;
-        currElement = trees.getElement(currPath);
-        currOverriddenMethods = ((JavacTypes) types).getOverriddenMethods(currElement);
-
-        AccessKind ak = AccessKind.PUBLIC;
-        for (TreePath p = path; p != null; p = p.getParentPath()) {
-            Element e = trees.getElement(p);
-            if (e != null && e.getKind() != ElementKind.PACKAGE) {
-                ak = min(ak, AccessKind.of(e.getModifiers()));
+        synchronized (lock) {
+            currPath = path;
+            currDocComment = comment;
+            currElement = trees.getElement(currPath);
+            currOverriddenMethods = ((JavacTypes) types).getOverriddenMethods(currElement);
+
+            AccessKind ak = AccessKind.PUBLIC;
+            for (TreePath p = path; p != null; p = p.getParentPath()) {
+                Element e = trees.getElement(p);
+                if (e != null && e.getKind() != ElementKind.PACKAGE) {
+                    ak = min(ak, AccessKind.of(e.getModifiers()));
+                }
             }
+            currAccess = ak;
+        }
+    }
+
+    Element getElement(TreePath p) {
+        synchronized (lock) {
+            return trees.getElement(p);
+        }
+    }
+
+    Element getElement(DocTreePath p) {
+        synchronized (lock) {
+            return trees.getElement(p);
+        }
+    }
+
+    ElementKind getKind(Element e) {
+        synchronized (lock) {
+            return e.getKind();
+        }
+    }
+
+    Element getEnclosingElement(Element e) {
+        synchronized (lock) {
+            return e.getEnclosingElement();
+        }
+    }
+
+    TypeMirror asType(Element e) {
+        synchronized (lock) {
+            return e.asType();
+        }
+    }
+
+    Object getConstantValue(VariableElement e) {
+        synchronized (lock) {
+            return e.getConstantValue();
+        }
+    }
+
+    TypeMirror getReturnType(ExecutableElement e) {
+        synchronized (lock) {
+            return e.getReturnType();
+        }
+    }
+
+    List<? extends VariableElement> getParameters(ExecutableElement e) {
+        synchronized (lock) {
+            return e.getParameters();
+        }
+    }
+
+    List<? extends TypeParameterElement> getTypeParameters(ExecutableElement e) {
+        synchronized (lock) {
+            return e.getTypeParameters();
+        }
+    }
+
+    List<? extends TypeMirror> getThrownTypes(ExecutableElement e) {
+        synchronized (lock) {
+            return e.getThrownTypes();
+        }
+    }
+
+    boolean isAssignable(TypeMirror t1, TypeMirror t2) {
+        synchronized (lock) {
+            return types.isAssignable(t1, t2);
+        }
+    }
+
+    boolean isSameType(TypeMirror t1, TypeMirror t2) {
+        synchronized (lock) {
+            return types.isSameType(t1, t2);
         }
-        currAccess = ak;
     }
 
     AccessKind getAccessKind() {
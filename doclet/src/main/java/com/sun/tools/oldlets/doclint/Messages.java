@@ -39,9 +39,12 @@ import java.util.TreeSet;
 
 import javax.tools.Diagnostic;
 
+import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.doctree.DocTree;
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.oldlets.doclint.Env.AccessKind;
+import org.apidesign.javadoc.codesnippet.impl.OrderedMessages;
 
 /**
  * Message reporting for DocLint.
@@ -114,9 +117,12 @@ public class Messages {
 
     protected void report(Group group, Diagnostic.Kind dkind, DocTree tree, String code, Object... args) {
         if (options.isEnabled(group, env.currAccess)) {
-            String msg = (code == null) ? (String) args[0] : localize(code, args);
-            env.trees.printMessage(dkind, msg, tree,
-                    env.currDocComment, env.currPath.getCompilationUnit());
+            DocCommentTree comment = env.currDocComment;
+            CompilationUnitTree unit = env.currPath.getCompilationUnit();
+            print(() -> {
+                String msg = (code == null) ? (String) args[0] : localize(code, args);
+                env.trees.printMessage(dkind, msg, tree, comment, unit);
+            });
 
             stats.record(group, dkind, code);
         }
@@ -124,13 +130,30 @@ public class Messages {
 
     protected void report(Group group, Diagnostic.Kind dkind, Tree tree, String code, Object... args) {
         if (options.isEnabled(group, env.currAccess)) {
-            String msg = localize(code, args);
-            env.trees.printMessage(dkind, msg, tree, env.currPath.getCompilationUnit());
+            CompilationUnitTree unit = env.currPath.getCompilationUnit();
+            print(() -> env.trees.printMessage(dkind, localize(code, args), tree, unit));
 
             stats.record(group, dkind, code);
         }
     }
 
+    /**
+     * Print a message while holding the compiler lock. When checking on
+     * a worker thread the message is printed later, in the order of the
+     * checked compilation units. The arguments may be types or elements,
+     * so they are formatted under the lock too.
+     */
+    private void print(Runnable message) {
+        Runnable locked = () -> {
+            synchronized (env.lock) {
+                message.run();
+            }
+        };
+        if (!OrderedMessages.defer(locked)) {
+            locked.run();
+        }
+    }
+
     String localize(String code, Object... args) {
         String msg = bundle.getString(code);
         if (msg == null) {
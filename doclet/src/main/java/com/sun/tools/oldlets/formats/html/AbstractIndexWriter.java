@@ -106,7 +106,7 @@ public class AbstractIndexWriter extends HtmlDocletWriter {
         int memberListSize = memberlist.size();
         // Display the list only if there are elements to be displayed.
         if (memberListSize > 0) {
-            Content dl = new HtmlTree(HtmlTag.DL);
+            HtmlTree dl = new HtmlTree(HtmlTag.DL);
             for (int i = 0; i < memberListSize; i++) {
                 Doc element = memberlist.get(i);
                 if (element instanceof MemberDoc) {
@@ -117,7 +117,7 @@ public class AbstractIndexWriter extends HtmlDocletWriter {
                     addDescription((PackageDoc)element, dl);
                 }
             }
-            contentTree.addContent(dl);
+            contentTree.addContent(new RenderedHtml(dl));
         }
     }
 
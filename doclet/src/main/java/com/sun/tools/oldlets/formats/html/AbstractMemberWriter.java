@@ -595,7 +595,7 @@ public abstract class AbstractMemberWriter {
             tr.addStyle(HtmlStyle.altColor);
         else
             tr.addStyle(HtmlStyle.rowColor);
-        tableContents.add(tr);
+        tableContents.add(new RenderedHtml(tr));
     }
 
     /**
@@ -683,7 +683,8 @@ public abstract class AbstractMemberWriter {
      * @return a content tree that will be added to the class documentation
      */
     public Content getMemberTree(Content memberTree) {
-        return writer.getMemberTree(memberTree);
+        // the whole summary or details section is complete
+        return new RenderedHtml(HtmlTree.UL(HtmlStyle.blockList, memberTree));
     }
 
     /**
@@ -694,9 +695,10 @@ public abstract class AbstractMemberWriter {
      * @return a content tree that will be added to the class documentation
      */
     public Content getMemberTree(Content memberTree, boolean isLastContent) {
+        // the member is complete, keep just its text
         if (isLastContent)
-            return HtmlTree.UL(HtmlStyle.blockListLast, memberTree);
+            return new RenderedHtml(HtmlTree.UL(HtmlStyle.blockListLast, memberTree));
         else
-            return HtmlTree.UL(HtmlStyle.blockList, memberTree);
+            return new RenderedHtml(HtmlTree.UL(HtmlStyle.blockList, memberTree));
     }
 }
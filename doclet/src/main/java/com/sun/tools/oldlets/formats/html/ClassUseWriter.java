@@ -30,7 +30,6 @@ import com.sun.javadoc.PackageDoc;
 import com.sun.javadoc.ProgramElementDoc;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -42,6 +41,7 @@ import java.util.TreeSet;
 import com.sun.tools.oldlets.formats.html.markup.*;
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
 
 /**
  * Generate class usage information.
@@ -104,37 +104,39 @@ public class ClassUseWriter extends SubWriterHolderWriter {
                           ClassDoc classdoc) throws IOException {
         super(configuration, filename);
         this.classdoc = classdoc;
-        if (mapper.classToPackageAnnotations.containsKey(classdoc.qualifiedName()))
-                pkgToPackageAnnotations = new TreeSet<PackageDoc>(mapper.classToPackageAnnotations.get(classdoc.qualifiedName()));
-        configuration.currentcd = classdoc;
+        List<PackageDoc> annotatedPackages = mapper.get(ClassUseMapper.PACKAGE_ANNOTATIONS, classdoc);
+        if (!annotatedPackages.isEmpty())
+                pkgToPackageAnnotations = new TreeSet<PackageDoc>(annotatedPackages);
+        configuration.setCurrentClass(classdoc);
         this.pkgSet = new TreeSet<PackageDoc>();
-        this.pkgToClassTypeParameter = pkgDivide(mapper.classToClassTypeParam);
-        this.pkgToClassAnnotations = pkgDivide(mapper.classToClassAnnotations);
-        this.pkgToMethodTypeParameter = pkgDivide(mapper.classToExecMemberDocTypeParam);
-        this.pkgToMethodArgTypeParameter = pkgDivide(mapper.classToExecMemberDocArgTypeParam);
-        this.pkgToFieldTypeParameter = pkgDivide(mapper.classToFieldDocTypeParam);
-        this.pkgToFieldAnnotations = pkgDivide(mapper.annotationToFieldDoc);
-        this.pkgToMethodReturnTypeParameter = pkgDivide(mapper.classToExecMemberDocReturnTypeParam);
-        this.pkgToMethodAnnotations = pkgDivide(mapper.classToExecMemberDocAnnotations);
-        this.pkgToMethodParameterAnnotations = pkgDivide(mapper.classToExecMemberDocParamAnnotation);
-        this.pkgToSubclass = pkgDivide(mapper.classToSubclass);
-        this.pkgToSubinterface = pkgDivide(mapper.classToSubinterface);
-        this.pkgToImplementingClass = pkgDivide(mapper.classToImplementingClass);
-        this.pkgToField = pkgDivide(mapper.classToField);
-        this.pkgToMethodReturn = pkgDivide(mapper.classToMethodReturn);
-        this.pkgToMethodArgs = pkgDivide(mapper.classToMethodArgs);
-        this.pkgToMethodThrows = pkgDivide(mapper.classToMethodThrows);
-        this.pkgToConstructorAnnotations = pkgDivide(mapper.classToConstructorAnnotations);
-        this.pkgToConstructorParameterAnnotations = pkgDivide(mapper.classToConstructorParamAnnotation);
-        this.pkgToConstructorArgs = pkgDivide(mapper.classToConstructorArgs);
-        this.pkgToConstructorArgTypeParameter = pkgDivide(mapper.classToConstructorDocArgTypeParam);
-        this.pkgToConstructorThrows = pkgDivide(mapper.classToConstructorThrows);
+        this.pkgToClassTypeParameter = pkgDivide(mapper.get(ClassUseMapper.CLASS_TYPE_PARAMS, classdoc));
+        this.pkgToClassAnnotations = pkgDivide(mapper.get(ClassUseMapper.CLASS_ANNOTATIONS, classdoc));
+        this.pkgToMethodTypeParameter = pkgDivide(mapper.get(ClassUseMapper.METHOD_TYPE_PARAMS, classdoc));
+        this.pkgToMethodArgTypeParameter = pkgDivide(mapper.get(ClassUseMapper.METHOD_ARG_TYPE_PARAMS, classdoc));
+        this.pkgToFieldTypeParameter = pkgDivide(mapper.get(ClassUseMapper.FIELD_TYPE_PARAMS, classdoc));
+        this.pkgToFieldAnnotations = pkgDivide(mapper.get(ClassUseMapper.FIELD_ANNOTATIONS, classdoc));
+        this.pkgToMethodReturnTypeParameter = pkgDivide(mapper.get(ClassUseMapper.METHOD_RETURN_TYPE_PARAMS, classdoc));
+        this.pkgToMethodAnnotations = pkgDivide(mapper.get(ClassUseMapper.METHOD_ANNOTATIONS, classdoc));
+        this.pkgToMethodParameterAnnotations = pkgDivide(mapper.get(ClassUseMapper.METHOD_PARAM_ANNOTATIONS, classdoc));
+        this.pkgToSubclass = pkgDivide(mapper.get(ClassUseMapper.SUBCLASSES, classdoc));
+        this.pkgToSubinterface = pkgDivide(mapper.get(ClassUseMapper.SUBINTERFACES, classdoc));
+        this.pkgToImplementingClass = pkgDivide(mapper.get(ClassUseMapper.IMPLEMENTING_CLASSES, classdoc));
+        this.pkgToField = pkgDivide(mapper.get(ClassUseMapper.FIELDS, classdoc));
+        this.pkgToMethodReturn = pkgDivide(mapper.get(ClassUseMapper.METHOD_RETURNS, classdoc));
+        this.pkgToMethodArgs = pkgDivide(mapper.get(ClassUseMapper.METHOD_ARGS, classdoc));
+        this.pkgToMethodThrows = pkgDivide(mapper.get(ClassUseMapper.METHOD_THROWS, classdoc));
+        this.pkgToConstructorAnnotations = pkgDivide(mapper.get(ClassUseMapper.CONSTRUCTOR_ANNOTATIONS, classdoc));
+        this.pkgToConstructorParameterAnnotations = pkgDivide(mapper.get(ClassUseMapper.CONSTRUCTOR_PARAM_ANNOTATIONS, classdoc));
+        this.pkgToConstructorArgs = pkgDivide(mapper.get(ClassUseMapper.CONSTRUCTOR_ARGS, classdoc));
+        this.pkgToConstructorArgTypeParameter = pkgDivide(mapper.get(ClassUseMapper.CONSTRUCTOR_ARG_TYPE_PARAMS, classdoc));
+        this.pkgToConstructorThrows = pkgDivide(mapper.get(ClassUseMapper.CONSTRUCTOR_THROWS, classdoc));
         //tmp test
+        List<PackageDoc> usingPackages = mapper.get(ClassUseMapper.PACKAGES, classdoc);
         if (pkgSet.size() > 0 &&
-            mapper.classToPackage.containsKey(classdoc.qualifiedName()) &&
-            !pkgSet.equals(mapper.classToPackage.get(classdoc.qualifiedName()))) {
+            !usingPackages.isEmpty() &&
+            !pkgSet.equals(new TreeSet<PackageDoc>(usingPackages))) {
             configuration.root.printWarning("Internal error: package sets don't match: " + pkgSet + " with: " +
-                                   mapper.classToPackage.get(classdoc.qualifiedName()));
+                                   usingPackages);
         }
         methodSubWriter = new MethodWriterImpl(this);
         constrSubWriter = new ConstructorWriterImpl(this);
@@ -155,36 +157,62 @@ public class ClassUseWriter extends SubWriterHolderWriter {
     }
 
     /**
-     * Write out class use pages.
-     * @throws DocletAbortException
+     * The least number of classes scanned for uses by one task.
      */
-    public static void generate(ConfigurationImpl configuration,
-                                ClassTree classtree)  {
-        ClassUseMapper mapper = new ClassUseMapper(configuration.root, classtree);
-        ClassDoc[] classes = configuration.root.classes();
+    private static final int SCAN_CHUNK = 64;
+
+    /**
+     * Add tasks writing out class use pages. All the pages depend on the
+     * task that maps the class usage, but not on each other. The classes
+     * are scanned for uses in parallel, in chunks. Each scan is dropped
+     * as it is merged into the map, the map is dropped once the last page
+     * is written and each page only keeps its own uses while written.
+     *
+     * @param graph the graph to add the tasks to
+     */
+    public static void generate(final ConfigurationImpl configuration,
+                                final ClassTree classtree, TaskGraph graph)  {
+        final ClassDoc[] classes = configuration.root.classes();
+        final List<TaskGraph.Task<ClassUseMapper.Scan>> scans =
+            new ArrayList<TaskGraph.Task<ClassUseMapper.Scan>>();
+        int chunk = Math.max(SCAN_CHUNK, classes.length / (4 * configuration.threads) + 1);
+        for (int i = 0; i < classes.length; i += chunk) {
+            final int from = i;
+            final int to = Math.min(i + chunk, classes.length);
+            scans.add(graph.compute(() -> ClassUseMapper.scan(classes, from, to)));
+        }
+        final TaskGraph.Task<ClassUseMapper> mapper = graph.compute(() -> {
+            List<ClassUseMapper.Scan> found = new ArrayList<ClassUseMapper.Scan>();
+            for (TaskGraph.Task<ClassUseMapper.Scan> scan : scans) {
+                found.add(scan.get());
+            }
+            return new ClassUseMapper(classtree, found);
+        }, scans.toArray(new TaskGraph.Task<?>[scans.size()]));
         for (int i = 0; i < classes.length; i++) {
             // If -nodeprecated option is set and the containing package is marked
             // as deprecated, do not generate the class-use page. We will still generate
             // the class-use page if the class is marked as deprecated but the containing
             // package is not since it could still be linked from that package-use page.
             if (!(configuration.nodeprecated &&
-                    Util.isDeprecated(classes[i].containingPackage())))
-                ClassUseWriter.generate(configuration, mapper, classes[i]);
+                    Util.isDeprecated(classes[i].containingPackage()))) {
+                final ClassDoc cd = classes[i];
+                graph.add(() -> ClassUseWriter.generate(configuration, mapper.get(), cd), mapper);
+            }
         }
         PackageDoc[] pkgs = configuration.packages;
         for (int i = 0; i < pkgs.length; i++) {
             // If -nodeprecated option is set and the package is marked
             // as deprecated, do not generate the package-use page.
-            if (!(configuration.nodeprecated && Util.isDeprecated(pkgs[i])))
-                PackageUseWriter.generate(configuration, mapper, pkgs[i]);
+            if (!(configuration.nodeprecated && Util.isDeprecated(pkgs[i]))) {
+                final PackageDoc pkg = pkgs[i];
+                graph.add(() -> PackageUseWriter.generate(configuration, mapper.get(), pkg), mapper);
+            }
         }
     }
 
-    private Map<String,List<ProgramElementDoc>> pkgDivide(Map<String,? extends List<? extends ProgramElementDoc>> classMap) {
+    private Map<String,List<ProgramElementDoc>> pkgDivide(List<? extends ProgramElementDoc> list) {
         Map<String,List<ProgramElementDoc>> map = new HashMap<String,List<ProgramElementDoc>>();
-        List<? extends ProgramElementDoc> list= classMap.get(classdoc.qualifiedName());
-        if (list != null) {
-            Collections.sort(list);
+        if (!list.isEmpty()) {
             Iterator<? extends ProgramElementDoc> it = list.iterator();
             while (it.hasNext()) {
                 ProgramElementDoc doc = it.next();
@@ -80,7 +80,7 @@ public class ClassWriterImpl extends SubWriterHolderWriter
             throws IOException {
         super(configuration, DocPath.forClass(classDoc));
         this.classDoc = classDoc;
-        configuration.currentcd = classDoc;
+        configuration.setCurrentClass(classDoc);
         this.classtree = classTree;
         this.prev = prevClass;
         this.next = nextClass;
@@ -37,13 +37,17 @@ import java.util.*;
 import javax.tools.JavaFileManager;
 
 import com.sun.tools.oldlets.formats.html.markup.ContentBuilder;
+import com.sun.tools.oldlets.formats.html.markup.Labels;
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
 import com.sun.tools.oldlets.doclint.DocLint;
 import com.sun.tools.javac.util.StringUtils;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apidesign.javadoc.codesnippet.impl.Profiles;
 
 /**
@@ -138,6 +142,19 @@ public class ConfigurationImpl extends Configuration {
      */
     public boolean splitindex = false;
 
+    /**
+     * True if command line option "-searchindex" is used. Default value is
+     * false.
+     */
+    public boolean searchindex = false;
+
+    /**
+     * True if command line option "-doclintonly" is used. The comments are
+     * only checked by doclint and no documentation is generated. Default
+     * value is false.
+     */
+    public boolean doclintonly = false;
+
     /**
      * False if command line option "-noindex" is used. Default value is true.
      */
@@ -203,9 +220,24 @@ public class ConfigurationImpl extends Configuration {
     public DocPath topFile = DocPath.empty;
 
     /**
-     * The classdoc for the class file getting generated.
+     * The classdoc for the class file getting generated. Pages may be
+     * generated on more threads, hence it is kept for each thread.
+     */
+    private final ThreadLocal<ClassDoc> currentcd = new ThreadLocal<ClassDoc>();
+
+    /**
+     * Return the classdoc for the class file getting generated.
+     */
+    public ClassDoc getCurrentClass() {
+        return currentcd.get();
+    }
+
+    /**
+     * Set this classdoc in the ClassWriter.
      */
-    public ClassDoc currentcd = null;  // Set this classdoc in the ClassWriter.
+    public void setCurrentClass(ClassDoc cd) {
+        currentcd.set(cd);
+    }
 
     /**
      * Constructor. Initializes resource for the
@@ -294,6 +326,10 @@ public class ConfigurationImpl extends Configuration {
                 nohelp = true;
             } else if (opt.equals("-splitindex")) {
                 splitindex = true;
+            } else if (opt.equals("-searchindex")) {
+                searchindex = true;
+            } else if (opt.equals("-doclintonly")) {
+                doclintonly = true;
             } else if (opt.equals("-noindex")) {
                 createindex = false;
             } else if (opt.equals("-use")) {
@@ -323,19 +359,7 @@ public class ConfigurationImpl extends Configuration {
     }
 
     public void initDocLint(RootDoc root) {
-        Object realRoot = null;
-        if (java.lang.reflect.Proxy.isProxyClass(root.getClass())) {
-            InvocationHandler handler = java.lang.reflect.Proxy.getInvocationHandler(root);
-            if (handler instanceof Callable<?>) {
-                try {
-                    realRoot = ((Callable<?>) handler).call();
-                } catch (Exception ex) {
-                    throw new IllegalStateException(ex);
-                }
-            }
-        } else {
-            realRoot = root;
-        }
+        Object realRoot = realRoot(root);
         if (realRoot != null) {
             try {
                 Method initDocLint2 = realRoot.getClass().getMethod("initDocLint", Collection.class, Collection.class);
@@ -351,6 +375,52 @@ public class ConfigurationImpl extends Configuration {
         }
     }
 
+    /**
+     * Let doclint check the comments of the documented elements now, on
+     * as many threads as -threads allows, rather than one by one as the
+     * pages use them. Without support for that in the root the comments
+     * stay checked when first used.
+     *
+     * @param root the root of the documented elements
+     */
+    public void checkDocLint(RootDoc root) {
+        Object realRoot = realRoot(root);
+        if (realRoot == null) {
+            return;
+        }
+        Method checkDocLint;
+        try {
+            checkDocLint = realRoot.getClass().getMethod("checkDocLint", int.class);
+        } catch (NoSuchMethodException ex) {
+            return;
+        }
+        try {
+            checkDocLint.invoke(realRoot, threads);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object realRoot(RootDoc root) {
+        if (java.lang.reflect.Proxy.isProxyClass(root.getClass())) {
+            InvocationHandler handler = java.lang.reflect.Proxy.getInvocationHandler(root);
+            if (handler instanceof Callable<?>) {
+                try {
+                    return ((Callable<?>) handler).call();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            return null;
+        }
+        return root;
+    }
+
     /**
      * Returns the "length" of a given option. If an option takes no
      * arguments, its length is one. If it takes one argument, it's
@@ -379,6 +449,8 @@ public class ConfigurationImpl extends Configuration {
             option.equals("-notree") ||
             option.equals("-nohelp") ||
             option.equals("-splitindex") ||
+            option.equals("-searchindex") ||
+            option.equals("-doclintonly") ||
             option.equals("-serialwarn") ||
             option.equals("-use") ||
             option.equals("-nonavbar") ||
@@ -641,6 +713,36 @@ public class ConfigurationImpl extends Configuration {
         return new ContentBuilder();
     }
 
+    /**
+     * Labels without arguments are looked up and escaped only once, all
+     * the pages share the same immutable text node. The node is handed out
+     * wrapped in a new content, so callers can still add to it.
+     */
+    @Override
+    public Content getResource(String key) {
+        Content c = newContent();
+        c.addContent(labels.getLabel(key));
+        return c;
+    }
+
+    /**
+     * Labels and texts shared by all the pages of this run.
+     */
+    public final Labels labels = new Labels(this);
+
+    /**
+     * Rendered fragments of the page chrome, see
+     * {@link HtmlDocletWriter#getChrome}.
+     */
+    final ConcurrentMap<String, Content> pageChrome = new ConcurrentHashMap<String, Content>();
+
+    /**
+     * Rendered links to classes with their default label, keyed by the
+     * class, the kind of link and the depth of the page, see
+     * {@link LinkFactoryImpl}.
+     */
+    final ConcurrentMap<String, Content> classLinks = new ConcurrentHashMap<String, Content>();
+
     /**
      * Returns whether or not to allow JavaScript in comments.
      * Default is off; can be set true from a command line option.
@@ -117,11 +117,15 @@ public class DeprecatedListWriter extends SubWriterHolderWriter {
      */
     public static void generate(ConfigurationImpl configuration) {
         DocPath filename = DocPaths.DEPRECATED_LIST;
+        DeprecatedAPIListBuilder deprapi = configuration.modelPass == null ? null
+                : configuration.modelPass.get(DeprecatedAPIListBuilder.class);
+        if (deprapi == null) {
+            deprapi = new DeprecatedAPIListBuilder(configuration);
+        }
         try {
             DeprecatedListWriter depr =
                    new DeprecatedListWriter(configuration, filename);
-            depr.generateDeprecatedListFile(
-                   new DeprecatedAPIListBuilder(configuration));
+            depr.generateDeprecatedListFile(deprapi);
             depr.close();
         } catch (IOException exc) {
             configuration.standardmessage.error(
@@ -37,6 +37,7 @@ import com.sun.tools.javac.jvm.Profile;
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.builders.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
 
 /**
  * The class with "start" method, calls individual Writers.
@@ -64,6 +65,12 @@ public class HtmlDoclet extends AbstractDoclet {
      */
     public final ConfigurationImpl configuration;
 
+    /**
+     * The index of all packages, classes and members, collected by the
+     * walk over the API when the pages listing the whole API are written.
+     */
+    private IndexBuilder indexbuilder;
+
     /**
      * The "start" method as required by Javadoc.
      *
@@ -93,6 +100,21 @@ public class HtmlDoclet extends AbstractDoclet {
         return configuration;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addCollectors(ApiModelPass pass) {
+        super.addCollectors(pass);
+        if (configuration.fingerprints.surfaceChanged()) {
+            indexbuilder = new IndexBuilder(configuration, configuration.nodeprecated,
+                    false, false, pass);
+        }
+        if (!(configuration.nodeprecatedlist || configuration.nodeprecated)) {
+            new DeprecatedAPIListBuilder(configuration, pass);
+        }
+    }
+
     /**
      * Start the generation of files. Call generate methods in the individual
      * writers, which will in turn genrate the documentation files. Call the
@@ -103,112 +125,163 @@ public class HtmlDoclet extends AbstractDoclet {
      *
      * @see com.sun.javadoc.RootDoc
      */
-    protected void generateOtherFiles(RootDoc root, ClassTree classtree)
-            throws Exception {
-        super.generateOtherFiles(root, classtree);
+    protected void generateOtherFiles(TaskGraph graph, RootDoc root,
+            final ClassTree classtree) throws Exception {
+        super.generateOtherFiles(graph, root, classtree);
         if (configuration.linksource) {
-            SourceToHTMLConverter.convertRoot(configuration,
-                root, DocPaths.SOURCE_OUTPUT);
+            graph.add(() -> SourceToHTMLConverter.convertRoot(configuration,
+                root, DocPaths.SOURCE_OUTPUT));
         }
 
         if (configuration.topFile.isEmpty()) {
-            configuration.standardmessage.
-                error("doclet.No_Non_Deprecated_Classes_To_Document");
+            graph.add(() -> configuration.standardmessage.
+                error("doclet.No_Non_Deprecated_Classes_To_Document"));
             return;
         }
-        boolean nodeprecated = configuration.nodeprecated;
-        performCopy(configuration.helpfile);
-        performCopy(configuration.stylesheetfile);
-        // do early to reduce memory footprint
-        if (configuration.classuse) {
-            ClassUseWriter.generate(configuration, classtree);
+        final boolean nodeprecated = configuration.nodeprecated;
+        graph.add(() -> performCopy(configuration.helpfile));
+        graph.add(() -> performCopy(configuration.stylesheetfile));
+        // The pages listing the whole API show just the signatures and
+        // first sentences, they are up to date unless the surface changed.
+        final boolean surface = configuration.fingerprints.surfaceChanged();
+        if (configuration.classuse && surface) {
+            ClassUseWriter.generate(configuration, classtree, graph);
+        }
+        // One index of everything, each letter sorted by its own task.
+        // The index of all classes is then taken from it.
+        final IndexBuilder indexbuilder = this.indexbuilder;
+        final TaskGraph.Task<?>[] sorted;
+        if (surface) {
+            sorted = new TaskGraph.Task<?>[indexbuilder.elements().length];
+            for (int i = 0; i < sorted.length; i++) {
+                final int letter = i;
+                sorted[i] = graph.add(() -> indexbuilder.sortMemberList(letter));
+            }
+        } else {
+            sorted = null;
         }
-        IndexBuilder indexbuilder = new IndexBuilder(configuration, nodeprecated);
 
-        if (configuration.createtree) {
-            TreeWriter.generate(configuration, classtree);
+        if (configuration.createtree && surface) {
+            graph.add(() -> TreeWriter.generate(configuration, classtree));
         }
-        if (configuration.createindex) {
+        if (configuration.createindex && surface) {
             if (configuration.splitindex) {
-                SplitIndexWriter.generate(configuration, indexbuilder);
+                for (int i = 0; i < indexbuilder.elements().length; i++) {
+                    final int letter = i;
+                    graph.add(() -> SplitIndexWriter.generate(configuration, indexbuilder, letter),
+                            sorted[letter]);
+                }
             } else {
-                SingleIndexWriter.generate(configuration, indexbuilder);
+                graph.add(() -> SingleIndexWriter.generate(configuration, indexbuilder), sorted);
             }
         }
 
+        if (configuration.searchindex && surface) {
+            SearchIndexWriter.generate(configuration, indexbuilder, sorted, graph);
+        }
+
         if (!(configuration.nodeprecatedlist || nodeprecated)) {
-            DeprecatedListWriter.generate(configuration);
+            graph.add(() -> DeprecatedListWriter.generate(configuration));
         }
 
-        AllClassesFrameWriter.generate(configuration,
-            new IndexBuilder(configuration, nodeprecated, true));
+        if (surface) {
+            TaskGraph.Task<IndexBuilder> allClasses = graph.compute(
+                () -> indexbuilder.classesOnly(configuration), sorted);
+            graph.add(() -> AllClassesFrameWriter.generate(configuration, allClasses.get()), allClasses);
+        }
 
-        FrameOutputWriter.generate(configuration);
+        graph.add(() -> FrameOutputWriter.generate(configuration));
 
         if (configuration.createoverview) {
-            PackageIndexWriter.generate(configuration);
+            graph.add(() -> PackageIndexWriter.generate(configuration));
         }
         if (configuration.helpfile.length() == 0 &&
             !configuration.nohelp) {
-            HelpWriter.generate(configuration);
+            graph.add(() -> HelpWriter.generate(configuration));
         }
         // If a stylesheet file is not specified, copy the default stylesheet
         // and replace newline with platform-specific newline.
-        DocFile f;
         if (configuration.stylesheetfile.length() == 0) {
-            f = DocFile.createFileForOutput(configuration, DocPaths.STYLESHEET);
-            f.copyResource(DocPaths.RESOURCES.resolve(DocPaths.STYLESHEET), false, true);
+            graph.add(() -> {
+                DocFile f = DocFile.createFileForOutput(configuration, DocPaths.STYLESHEET);
+                f.copyResource(DocPaths.RESOURCES.resolve(DocPaths.STYLESHEET), false, true);
+            });
         }
-        f = DocFile.createFileForOutput(configuration, DocPaths.JAVASCRIPT);
-        f.copyResource(DocPaths.RESOURCES.resolve(DocPaths.JAVASCRIPT), true, true);
+        graph.add(() -> {
+            DocFile f = DocFile.createFileForOutput(configuration, DocPaths.JAVASCRIPT);
+            f.copyResource(DocPaths.RESOURCES.resolve(DocPaths.JAVASCRIPT), true, true);
+        });
     }
 
     /**
      * {@inheritDoc}
      */
-    protected void generateClassFiles(ClassDoc[] arr, ClassTree classtree) {
+    protected List<Runnable> classFileTasks(ClassDoc[] arr, final ClassTree classtree) {
         Arrays.sort(arr);
+        final BuilderFactory builderFactory = configuration.getBuilderFactory();
+        List<Runnable> tasks = new ArrayList<Runnable>();
         for(int i = 0; i < arr.length; i++) {
             if (!(configuration.isGeneratedDoc(arr[i]) && arr[i].isIncluded())) {
                 continue;
             }
-            ClassDoc prev = (i == 0)?
+            final ClassDoc prev = (i == 0)?
                 null:
                 arr[i-1];
-            ClassDoc curr = arr[i];
-            ClassDoc next = (i+1 == arr.length)?
+            final ClassDoc curr = arr[i];
+            final ClassDoc next = (i+1 == arr.length)?
                 null:
                 arr[i+1];
-            try {
-                if (curr.isAnnotationType()) {
-                    AbstractBuilder annotationTypeBuilder =
-                        configuration.getBuilderFactory()
-                            .getAnnotationTypeBuilder((AnnotationTypeDoc) curr,
-                                prev, next);
-                    annotationTypeBuilder.build();
-                } else {
-                    AbstractBuilder classBuilder =
-                        configuration.getBuilderFactory()
-                            .getClassBuilder(curr, prev, next, classtree);
-                    classBuilder.build();
+            if (!configuration.fingerprints.changed(curr)) {
+                continue;
+            }
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    generateClassFile(builderFactory, prev, curr, next, classtree);
                 }
-            } catch (IOException e) {
-                throw new DocletAbortException(e);
-            } catch (FatalError fe) {
-                throw fe;
-            } catch (DocletAbortException de) {
-                throw de;
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new DocletAbortException(e);
+            });
+        }
+        return tasks;
+    }
+
+    private void generateClassFile(BuilderFactory builderFactory,
+            ClassDoc prev, ClassDoc curr, ClassDoc next, ClassTree classtree) {
+        try {
+            if (curr.isAnnotationType()) {
+                AbstractBuilder annotationTypeBuilder =
+                    builderFactory
+                        .getAnnotationTypeBuilder((AnnotationTypeDoc) curr,
+                            prev, next);
+                annotationTypeBuilder.build();
+            } else {
+                AbstractBuilder classBuilder =
+                    builderFactory
+                        .getClassBuilder(curr, prev, next, classtree);
+                classBuilder.build();
             }
+        } catch (IOException e) {
+            throw new DocletAbortException(e);
+        } catch (FatalError fe) {
+            throw fe;
+        } catch (DocletAbortException de) {
+            throw de;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new DocletAbortException(e);
         }
     }
 
     /**
      * {@inheritDoc}
      */
-    protected void generateProfileFiles() throws Exception {
+    protected void generateProfileFiles(TaskGraph graph) throws Exception {
+        graph.add(this::generateProfileFiles);
+    }
+
+    /**
+     * Generate the profile documentation, one profile after another.
+     */
+    private void generateProfileFiles() throws Exception {
         if (configuration.showProfiles && configuration.profilePackages.size() > 0) {
             ProfileIndexFrameWriter.generate(configuration);
             Profile prevProfile = null, nextProfile;
@@ -253,10 +326,10 @@ public class HtmlDoclet extends AbstractDoclet {
     /**
      * {@inheritDoc}
      */
-    protected void generatePackageFiles(ClassTree classtree) throws Exception {
+    protected void generatePackageFiles(TaskGraph graph, ClassTree classtree) throws Exception {
         PackageDoc[] packages = configuration.packages;
-        if (packages.length > 1) {
-            PackageIndexFrameWriter.generate(configuration);
+        if (packages.length > 1 && configuration.fingerprints.surfaceChanged()) {
+            graph.add(() -> PackageIndexFrameWriter.generate(configuration));
         }
         PackageDoc prev = null, next;
         for (int i = 0; i < packages.length; i++) {
@@ -264,20 +337,28 @@ public class HtmlDoclet extends AbstractDoclet {
             // deprecated, do not generate the package-summary.html, package-frame.html
             // and package-tree.html pages for that package.
             if (!(configuration.nodeprecated && Util.isDeprecated(packages[i]))) {
-                PackageFrameWriter.generate(configuration, packages[i]);
                 next = (i + 1 < packages.length &&
                         packages[i + 1].name().length() > 0) ? packages[i + 1] : null;
                 //If the next package is unnamed package, skip 2 ahead if possible
                 next = (i + 2 < packages.length && next == null) ? packages[i + 2] : next;
-                AbstractBuilder packageSummaryBuilder =
-                        configuration.getBuilderFactory().getPackageSummaryBuilder(
-                        packages[i], prev, next);
-                packageSummaryBuilder.build();
-                if (configuration.createtree) {
-                    PackageTreeWriter.generate(configuration,
-                            packages[i], prev, next,
-                            configuration.nodeprecated);
+                final PackageDoc pkg = packages[i], pkgPrev = prev, pkgNext = next;
+                if (!configuration.fingerprints.changed(pkg)) {
+                    graph.add(() -> Util.copyDocFiles(configuration, pkg));
+                    prev = packages[i];
+                    continue;
                 }
+                graph.add(() -> {
+                    PackageFrameWriter.generate(configuration, pkg);
+                    AbstractBuilder packageSummaryBuilder =
+                            configuration.getBuilderFactory().getPackageSummaryBuilder(
+                            pkg, pkgPrev, pkgNext);
+                    packageSummaryBuilder.build();
+                    if (configuration.createtree) {
+                        PackageTreeWriter.generate(configuration,
+                                pkg, pkgPrev, pkgNext,
+                                configuration.nodeprecated);
+                    }
+                });
                 prev = packages[i];
             }
         }
@@ -43,6 +43,7 @@ import com.sun.javadoc.FieldDoc;
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -405,19 +406,24 @@ public class HtmlDocletWriter extends HtmlDocWriter {
     public void printHtmlDocument(String[] metakeywords, boolean includeScript,
             Content body) throws IOException {
         Content htmlDocType = DocType.TRANSITIONAL;
-        Content htmlComment = new Comment(configuration.getText("doclet.New_Page"));
+        Content htmlComment = getChrome("comment", () ->
+                new Comment(labels.getText("doclet.New_Page")));
         Content head = new HtmlTree(HtmlTag.HEAD);
-        head.addContent(getGeneratedBy(!configuration.notimestamp));
-        if (configuration.charset.length() > 0) {
-            Content meta = HtmlTree.META("Content-Type", CONTENT_TYPE,
-                    configuration.charset);
-            head.addContent(meta);
-        }
+        head.addContent(getChrome("generatedBy", () -> {
+            ContentBuilder generatedBy = new ContentBuilder();
+            generatedBy.addContent(getGeneratedBy(!configuration.notimestamp));
+            if (configuration.charset.length() > 0) {
+                generatedBy.addContent(HtmlTree.META("Content-Type", CONTENT_TYPE,
+                        configuration.charset));
+            }
+            return generatedBy;
+        }));
         head.addContent(getTitle());
         if (!configuration.notimestamp) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-            Content meta = HtmlTree.META("date", dateFormat.format(new Date()));
-            head.addContent(meta);
+            head.addContent(getChrome("date", () -> {
+                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+                return HtmlTree.META("date", dateFormat.format(new Date()));
+            }));
         }
         if (metakeywords != null) {
             for (int i=0; i < metakeywords.length; i++) {
@@ -425,8 +431,12 @@ public class HtmlDocletWriter extends HtmlDocWriter {
                 head.addContent(meta);
             }
         }
-        head.addContent(getStyleSheetProperties());
-        head.addContent(getScriptProperties());
+        head.addContent(getChrome("stylesheet", () -> getStyleSheetProperties()));
+        head.addContent(getChrome("script", () -> getScriptProperties()));
+        if (configuration.searchindex) {
+            head.addContent(getChrome("searchScript", () -> HtmlTree.SCRIPT("text/javascript",
+                    pathToRoot.resolve(DocPaths.SEARCH_JS).getPath())));
+        }
         Content htmlTree = HtmlTree.HTML(configuration.getLocale().getLanguage(),
                 head, body);
         Content htmlDocument = new HtmlDocument(htmlDocType,
@@ -434,6 +444,34 @@ public class HtmlDocletWriter extends HtmlDocWriter {
         write(htmlDocument);
     }
 
+    /**
+     * Get a part of the page chrome which is the same on all the pages at
+     * the same depth, such as the head links or the inactive items of the
+     * navigation bar. The first page that needs the fragment renders it,
+     * all the other pages share the rendered text.
+     *
+     * @param name the name of the fragment
+     * @param fragment creates the fragment for this page
+     * @return the shared content, it cannot be modified
+     */
+    protected Content getChrome(String name, Supplier<Content> fragment) {
+        String key = name + '@' + pathToRoot.getPath();
+        Content chrome = configuration.pageChrome.get(key);
+        if (chrome == null) {
+            chrome = fragment.get();
+            if (chrome instanceof HtmlTree) {
+                chrome = new RenderedHtml((HtmlTree) chrome);
+            } else if (chrome instanceof StringContent) {
+                chrome = ((StringContent) chrome).share();
+            }
+            Content prev = configuration.pageChrome.putIfAbsent(key, chrome);
+            if (prev != null) {
+                chrome = prev;
+            }
+        }
+        return chrome;
+    }
+
     /**
      * Get the window title.
      *
@@ -454,18 +492,20 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * user provided footer.
      */
     public Content getUserHeaderFooter(boolean header) {
-        String content;
-        if (header) {
-            content = replaceDocRootDir(configuration.header);
-        } else {
-            if (configuration.footer.length() != 0) {
-                content = replaceDocRootDir(configuration.footer);
-            } else {
+        return getChrome(header ? "header" : "footer", () -> {
+            String content;
+            if (header) {
                 content = replaceDocRootDir(configuration.header);
+            } else {
+                if (configuration.footer.length() != 0) {
+                    content = replaceDocRootDir(configuration.footer);
+                } else {
+                    content = replaceDocRootDir(configuration.header);
+                }
             }
-        }
-        Content rawContent = new RawHtml(content);
-        return rawContent;
+            Content rawContent = new RawHtml(content);
+            return rawContent;
+        });
     }
 
     /**
@@ -474,7 +514,8 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @param body the content tree to which user specified top will be added
      */
     public void addTop(Content body) {
-        Content top = new RawHtml(replaceDocRootDir(configuration.top));
+        Content top = getChrome("top", () ->
+                new RawHtml(replaceDocRootDir(configuration.top)));
         body.addContent(top);
     }
 
@@ -484,9 +525,11 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @param body the content tree to which user specified bottom will be added
      */
     public void addBottom(Content body) {
-        Content bottom = new RawHtml(replaceDocRootDir(configuration.bottom));
-        Content small = HtmlTree.SMALL(bottom);
-        Content p = HtmlTree.P(HtmlStyle.legalCopy, small);
+        Content p = getChrome("bottom", () -> {
+            Content bottom = new RawHtml(replaceDocRootDir(configuration.bottom));
+            Content small = HtmlTree.SMALL(bottom);
+            return HtmlTree.P(HtmlStyle.legalCopy, small);
+        });
         body.addContent(p);
     }
 
@@ -500,7 +543,7 @@ public class HtmlDocletWriter extends HtmlDocWriter {
         if (!configuration.nonavbar) {
             String allClassesId = "allclasses_";
             HtmlTree navDiv = new HtmlTree(HtmlTag.DIV);
-            Content skipNavLinks = configuration.getResource("doclet.Skip_navigation_links");
+            Content skipNavLinks = labels.getLabel("doclet.Skip_navigation_links");
             if (header) {
                 body.addContent(HtmlConstants.START_OF_TOP_NAVBAR);
                 navDiv.addStyle(HtmlStyle.topNav);
@@ -508,9 +551,10 @@ public class HtmlDocletWriter extends HtmlDocWriter {
                 Content a = getMarkerAnchor(SectionName.NAVBAR_TOP);
                 //WCAG - Hyperlinks should contain text or an image with alt text - for AT tools
                 navDiv.addContent(a);
-                Content skipLinkContent = HtmlTree.DIV(HtmlStyle.skipNav, getHyperLink(
-                    getDocLink(SectionName.SKIP_NAVBAR_TOP), skipNavLinks,
-                    skipNavLinks.toString(), ""));
+                Content skipLinkContent = getChrome("skipNavTop", () ->
+                    HtmlTree.DIV(HtmlStyle.skipNav, getHyperLink(
+                        getDocLink(SectionName.SKIP_NAVBAR_TOP), skipNavLinks,
+                        skipNavLinks.toString(), "")));
                 navDiv.addContent(skipLinkContent);
             } else {
                 body.addContent(HtmlConstants.START_OF_BOTTOM_NAVBAR);
@@ -518,9 +562,10 @@ public class HtmlDocletWriter extends HtmlDocWriter {
                 allClassesId += "navbar_bottom";
                 Content a = getMarkerAnchor(SectionName.NAVBAR_BOTTOM);
                 navDiv.addContent(a);
-                Content skipLinkContent = HtmlTree.DIV(HtmlStyle.skipNav, getHyperLink(
-                    getDocLink(SectionName.SKIP_NAVBAR_BOTTOM), skipNavLinks,
-                    skipNavLinks.toString(), ""));
+                Content skipLinkContent = getChrome("skipNavBottom", () ->
+                    HtmlTree.DIV(HtmlStyle.skipNav, getHyperLink(
+                        getDocLink(SectionName.SKIP_NAVBAR_BOTTOM), skipNavLinks,
+                        skipNavLinks.toString(), "")));
                 navDiv.addContent(skipLinkContent);
             }
             if (header) {
@@ -531,7 +576,7 @@ public class HtmlDocletWriter extends HtmlDocWriter {
             HtmlTree navList = new HtmlTree(HtmlTag.UL);
             navList.addStyle(HtmlStyle.navList);
             navList.addAttr(HtmlAttr.TITLE,
-                            configuration.getText("doclet.Navigation"));
+                            labels.getText("doclet.Navigation"));
             if (configuration.createoverview) {
                 navList.addContent(getNavLinkContents());
             }
@@ -570,7 +615,9 @@ public class HtmlDocletWriter extends HtmlDocWriter {
             HtmlTree ulAllClasses = HtmlTree.UL(HtmlStyle.navList, getNavLinkClassIndex());
             ulAllClasses.addAttr(HtmlAttr.ID, allClassesId.toString());
             subDiv.addContent(ulAllClasses);
-            subDiv.addContent(getAllClassesLinkScript(allClassesId.toString()));
+            String scriptId = allClassesId;
+            subDiv.addContent(getChrome(scriptId, () ->
+                    getAllClassesLinkScript(scriptId)));
             addSummaryDetailLinks(subDiv);
             if (header) {
                 subDiv.addContent(getMarkerAnchor(SectionName.SKIP_NAVBAR_TOP));
@@ -616,10 +663,12 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkContents() {
-        Content linkContent = getHyperLink(pathToRoot.resolve(DocPaths.OVERVIEW_SUMMARY),
-                overviewLabel, "", "");
-        Content li = HtmlTree.LI(linkContent);
-        return li;
+        return getChrome("navOverview", () -> {
+            Content linkContent = getHyperLink(pathToRoot.resolve(DocPaths.OVERVIEW_SUMMARY),
+                    overviewLabel, "", "");
+            Content li = HtmlTree.LI(linkContent);
+            return li;
+        });
     }
 
     /**
@@ -731,18 +780,20 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkTree() {
-        Content treeLinkContent;
-        PackageDoc[] packages = configuration.root.specifiedPackages();
-        if (packages.length == 1 && configuration.root.specifiedClasses().length == 0) {
-            treeLinkContent = getHyperLink(pathString(packages[0],
-                    DocPaths.PACKAGE_TREE), treeLabel,
-                    "", "");
-        } else {
-            treeLinkContent = getHyperLink(pathToRoot.resolve(DocPaths.OVERVIEW_TREE),
-                    treeLabel, "", "");
-        }
-        Content li = HtmlTree.LI(treeLinkContent);
-        return li;
+        return getChrome("navTree", () -> {
+            Content treeLinkContent;
+            PackageDoc[] packages = configuration.root.specifiedPackages();
+            if (packages.length == 1 && configuration.root.specifiedClasses().length == 0) {
+                treeLinkContent = getHyperLink(pathString(packages[0],
+                        DocPaths.PACKAGE_TREE), treeLabel,
+                        "", "");
+            } else {
+                treeLinkContent = getHyperLink(pathToRoot.resolve(DocPaths.OVERVIEW_TREE),
+                        treeLabel, "", "");
+            }
+            Content li = HtmlTree.LI(treeLinkContent);
+            return li;
+        });
     }
 
     /**
@@ -774,10 +825,12 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkDeprecated() {
-        Content linkContent = getHyperLink(pathToRoot.resolve(DocPaths.DEPRECATED_LIST),
-                deprecatedLabel, "", "");
-        Content li = HtmlTree.LI(linkContent);
-        return li;
+        return getChrome("navDeprecated", () -> {
+            Content linkContent = getHyperLink(pathToRoot.resolve(DocPaths.DEPRECATED_LIST),
+                    deprecatedLabel, "", "");
+            Content li = HtmlTree.LI(linkContent);
+            return li;
+        });
     }
 
     /**
@@ -788,11 +841,13 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkClassIndex() {
-        Content allClassesContent = getHyperLink(pathToRoot.resolve(
-                DocPaths.ALLCLASSES_NOFRAME),
-                allclassesLabel, "", "");
-        Content li = HtmlTree.LI(allClassesContent);
-        return li;
+        return getChrome("navAllClasses", () -> {
+            Content allClassesContent = getHyperLink(pathToRoot.resolve(
+                    DocPaths.ALLCLASSES_NOFRAME),
+                    allclassesLabel, "", "");
+            Content li = HtmlTree.LI(allClassesContent);
+            return li;
+        });
     }
 
     /**
@@ -801,13 +856,15 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkIndex() {
-        Content linkContent = getHyperLink(pathToRoot.resolve(
-                (configuration.splitindex
-                    ? DocPaths.INDEX_FILES.resolve(DocPaths.indexN(1))
-                    : DocPaths.INDEX_ALL)),
-            indexLabel, "", "");
-        Content li = HtmlTree.LI(linkContent);
-        return li;
+        return getChrome("navIndex", () -> {
+            Content linkContent = getHyperLink(pathToRoot.resolve(
+                    (configuration.splitindex
+                        ? DocPaths.INDEX_FILES.resolve(DocPaths.indexN(1))
+                        : DocPaths.INDEX_ALL)),
+                indexLabel, "", "");
+            Content li = HtmlTree.LI(linkContent);
+            return li;
+        });
     }
 
     /**
@@ -818,18 +875,20 @@ public class HtmlDocletWriter extends HtmlDocWriter {
      * @return a content tree for the link
      */
     protected Content getNavLinkHelp() {
-        String helpfile = configuration.helpfile;
-        DocPath helpfilenm;
-        if (helpfile.isEmpty()) {
-            helpfilenm = DocPaths.HELP_DOC;
-        } else {
-            DocFile file = DocFile.createFileForInput(configuration, helpfile);
-            helpfilenm = DocPath.create(file.getName());
-        }
-        Content linkContent = getHyperLink(pathToRoot.resolve(helpfilenm),
-                helpLabel, "", "");
-        Content li = HtmlTree.LI(linkContent);
-        return li;
+        return getChrome("navHelp", () -> {
+            String helpfile = configuration.helpfile;
+            DocPath helpfilenm;
+            if (helpfile.isEmpty()) {
+                helpfilenm = DocPaths.HELP_DOC;
+            } else {
+                DocFile file = DocFile.createFileForInput(configuration, helpfile);
+                helpfilenm = DocPath.create(file.getName());
+            }
+            Content linkContent = getHyperLink(pathToRoot.resolve(helpfilenm),
+                    helpLabel, "", "");
+            Content li = HtmlTree.LI(linkContent);
+            return li;
+        });
     }
 
     /**
@@ -1068,7 +1127,7 @@ public class HtmlDocletWriter extends HtmlDocWriter {
         }
         DocPath href = pathToRoot
                 .resolve(DocPaths.SOURCE_OUTPUT)
-                .resolve(DocPath.forClass(cd));
+                .resolve(DocPath.forClass(configuration, cd));
         Content linkContent = getHyperLink(href.fragment(SourceToHTMLConverter.getAnchorName(doc)), label, "", "");
         htmltree.addContent(linkContent);
     }
@@ -1460,7 +1519,7 @@ public class HtmlDocletWriter extends HtmlDocWriter {
                         tagName, seetext);
                 }
             }
-            if (configuration.currentcd != containing) {
+            if (configuration.getCurrentClass() != containing) {
                 refMemName = containing.name() + "." + refMemName;
             }
             if (refMem instanceof ExecutableMemberDoc) {
@@ -31,9 +31,12 @@ import com.sun.javadoc.AnnotationDesc;
 import com.sun.javadoc.TypeVariable;
 import com.sun.javadoc.AnnotatedType;
 import java.util.List;
+import java.util.Map;
 
 import com.sun.tools.oldlets.formats.html.markup.ContentBuilder;
+import com.sun.tools.oldlets.formats.html.markup.HtmlTree;
 import com.sun.tools.oldlets.formats.html.markup.RawHtml;
+import com.sun.tools.oldlets.formats.html.markup.RenderedHtml;
 import com.sun.tools.oldlets.formats.html.markup.StringContent;
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
@@ -71,53 +74,106 @@ public class LinkFactoryImpl extends LinkFactory {
     protected Content getClassLink(LinkInfo linkInfo) {
         LinkInfoImpl classLinkInfo = (LinkInfoImpl) linkInfo;
         boolean noLabel = linkInfo.label == null || linkInfo.label.isEmpty();
+        Content label = classLinkInfo.getClassLinkLabel(m_writer.configuration);
+        Content hyperLink;
+        if (noLabel) {
+            hyperLink = getCachedClassHyperLink(classLinkInfo, label);
+        } else {
+            hyperLink = getClassHyperLink(classLinkInfo, label);
+        }
+        Content link = new ContentBuilder();
+        // Can't link so just write label.
+        link.addContent(hyperLink != null ? hyperLink : label);
+        if (noLabel && !classLinkInfo.excludeTypeParameterLinks) {
+            link.addContent(getTypeParameterLinks(linkInfo));
+        }
+        return link;
+    }
+
+    /**
+     * Return the link to a class with the default label. The same class is
+     * linked in the same way from all the pages at the same depth, so the
+     * rendered link is shared by all of them.
+     *
+     * @param classLinkInfo the information about the link.
+     * @param label the default label of the class.
+     * @return the link, or null if the class cannot be linked.
+     */
+    private Content getCachedClassHyperLink(LinkInfoImpl classLinkInfo, Content label) {
+        ClassDoc classDoc = classLinkInfo.classDoc;
+        boolean self = !classLinkInfo.linkToSelf
+                && DocPath.forName(m_writer.configuration, classDoc).equals(m_writer.filename);
+        StringBuilder sb = new StringBuilder(classDoc.qualifiedName());
+        sb.append('#').append(classLinkInfo.where)
+                .append('|').append(classLinkInfo.isStrong)
+                .append('|').append(classLinkInfo.styleName)
+                .append('|').append(classLinkInfo.target)
+                .append('|').append(isTypeLink(classLinkInfo))
+                .append('|').append(classLinkInfo.context == LinkInfoImpl.Kind.PACKAGE_FRAME)
+                .append('|').append(self)
+                .append('@').append(m_writer.pathToRoot.getPath());
+        String key = sb.toString();
+        Map<String, Content> links = m_writer.configuration.classLinks;
+        Content link = links.get(key);
+        if (link == null) {
+            link = getClassHyperLink(classLinkInfo, label);
+            if (link instanceof HtmlTree) {
+                link = new RenderedHtml((HtmlTree) link);
+            } else if (link == null) {
+                link = NO_LINK;
+            }
+            Content prev = links.putIfAbsent(key, link);
+            if (prev != null) {
+                link = prev;
+            }
+        }
+        return link == NO_LINK ? null : link;
+    }
+
+    /** Marks a class that cannot be linked in {@code classLinks}. */
+    private static final Content NO_LINK = new RawHtml("");
+
+    /**
+     * Return the link to the class described by the link info.
+     *
+     * @param classLinkInfo the information about the link.
+     * @param label the label of the link.
+     * @return the link, or null if the class cannot be linked.
+     */
+    private Content getClassHyperLink(LinkInfoImpl classLinkInfo, Content label) {
         ClassDoc classDoc = classLinkInfo.classDoc;
         //Create a tool tip if we are linking to a class or interface.  Don't
         //create one if we are linking to a member.
         String title =
             (classLinkInfo.where == null || classLinkInfo.where.length() == 0) ?
-                getClassToolTip(classDoc,
-                    classLinkInfo.type != null &&
-                    !classDoc.qualifiedTypeName().equals(classLinkInfo.type.qualifiedTypeName())) :
+                getClassToolTip(classDoc, isTypeLink(classLinkInfo)) :
             "";
-        Content label = classLinkInfo.getClassLinkLabel(m_writer.configuration);
         Configuration configuration = m_writer.configuration;
-        Content link = new ContentBuilder();
         if (classDoc.isIncluded()) {
             if (configuration.isGeneratedDoc(classDoc)) {
                 DocPath filename = getPath(classLinkInfo);
-                if (linkInfo.linkToSelf ||
-                                !(DocPath.forName(classDoc)).equals(m_writer.filename)) {
-                        link.addContent(m_writer.getHyperLink(
+                if (classLinkInfo.linkToSelf ||
+                                !(DocPath.forName(configuration, classDoc)).equals(m_writer.filename)) {
+                        return m_writer.getHyperLink(
                                 filename.fragment(classLinkInfo.where),
                             label,
                             classLinkInfo.isStrong, classLinkInfo.styleName,
-                            title, classLinkInfo.target));
-                        if (noLabel && !classLinkInfo.excludeTypeParameterLinks) {
-                            link.addContent(getTypeParameterLinks(linkInfo));
-                        }
-                        return link;
+                            title, classLinkInfo.target);
                 }
             }
         } else {
-            Content crossLink = m_writer.getCrossClassLink(
+            return m_writer.getCrossClassLink(
                 classDoc.qualifiedName(), classLinkInfo.where,
                 label, classLinkInfo.isStrong, classLinkInfo.styleName,
                 true);
-            if (crossLink != null) {
-                link.addContent(crossLink);
-                if (noLabel && !classLinkInfo.excludeTypeParameterLinks) {
-                    link.addContent(getTypeParameterLinks(linkInfo));
-                }
-                return link;
-            }
-        }
-        // Can't link so just write label.
-        link.addContent(label);
-        if (noLabel && !classLinkInfo.excludeTypeParameterLinks) {
-            link.addContent(getTypeParameterLinks(linkInfo));
         }
-        return link;
+        return null;
+    }
+
+    private static boolean isTypeLink(LinkInfoImpl classLinkInfo) {
+        return classLinkInfo.type != null &&
+            !classLinkInfo.classDoc.qualifiedTypeName().equals(
+                classLinkInfo.type.qualifiedTypeName());
     }
 
     /**
@@ -208,8 +264,8 @@ public class LinkFactoryImpl extends LinkFactory {
         if (linkInfo.context == LinkInfoImpl.Kind.PACKAGE_FRAME) {
             //Not really necessary to do this but we want to be consistent
             //with 1.4.2 output.
-            return DocPath.forName(linkInfo.classDoc);
+            return DocPath.forName(m_writer.configuration, linkInfo.classDoc);
         }
-        return m_writer.pathToRoot.resolve(DocPath.forClass(linkInfo.classDoc));
+        return m_writer.pathToRoot.resolve(DocPath.forClass(m_writer.configuration, linkInfo.classDoc));
     }
 }
@@ -0,0 +1,339 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.formats.html;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.Doc;
+import com.sun.javadoc.ExecutableMemberDoc;
+import com.sun.javadoc.MemberDoc;
+import com.sun.javadoc.PackageDoc;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.sun.tools.oldlets.formats.html.markup.*;
+import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
+
+/**
+ * Generate the search index requested by {@code -searchindex}. The
+ * packages, classes and members of the {@link IndexBuilder index} are
+ * written into small scripts in the {@link DocPaths#SEARCH_INDEX} directory,
+ * each holding the entries whose names start with one prefix. The prefix
+ * is the first character of the name, a character with too many entries
+ * is split into prefixes of two characters. The
+ * {@link DocPaths#SEARCH_JS search script} loads the list of prefixes and
+ * then only the shards matching what is typed.
+ * <p>
+ * A shard is a call
+ * <pre>
+ * searchIndex.add(prefix, strings, entries);
+ * </pre>
+ * where {@code strings} are the sorted distinct strings of the shard
+ * separated by new lines and {@code entries} are six numbers per entry:
+ * the kind (0 for a package, 1 for a class, 2 for a member), the name,
+ * the label, the containing package or class, the page and the anchor in
+ * the page. All but the kind are indexes into the strings. The entries are
+ * sorted by name, so the name is given as a difference to the name of the
+ * previous entry.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class SearchIndexWriter extends HtmlDocletWriter {
+
+    /**
+     * Characters with more entries are split into shards by the first
+     * two characters of the names.
+     */
+    private static final int SHARD_SIZE = 1000;
+
+    private static final int PACKAGE = 0;
+    private static final int CLASS = 1;
+    private static final int MEMBER = 2;
+
+    /**
+     * Constructor.
+     *
+     * @param path the shard to write
+     */
+    public SearchIndexWriter(ConfigurationImpl configuration, DocPath path)
+            throws IOException {
+        super(configuration, path);
+    }
+
+    /**
+     * Add tasks writing out the search index. The shards of a character
+     * are written once its list in the index is sorted, the list of
+     * prefixes once all the shards are written.
+     *
+     * @param indexbuilder the index of all packages, classes and members
+     * @param sorted the tasks sorting the lists of the index, in the order
+     *     of {@link IndexBuilder#elements()}
+     * @param graph the graph to add the tasks to
+     */
+    public static void generate(final ConfigurationImpl configuration,
+            final IndexBuilder indexbuilder, TaskGraph.Task<?>[] sorted, TaskGraph graph) {
+        final List<TaskGraph.Task<List<String>>> shards =
+            new ArrayList<TaskGraph.Task<List<String>>>();
+        for (int i = 0; i < sorted.length; i++) {
+            final int letter = i;
+            shards.add(graph.compute(() -> generate(configuration, indexbuilder, letter),
+                    sorted[letter]));
+        }
+        graph.add(() -> {
+            List<String> prefixes = new ArrayList<String>();
+            for (TaskGraph.Task<List<String>> shard : shards) {
+                prefixes.addAll(shard.get());
+            }
+            generatePrefixes(configuration, prefixes);
+        }, shards.toArray(new TaskGraph.Task<?>[shards.size()]));
+        graph.add(() -> {
+            DocFile f = DocFile.createFileForOutput(configuration, DocPaths.SEARCH_JS);
+            f.copyResource(DocPaths.RESOURCES.resolve(DocPaths.SEARCH_JS), true, true);
+        });
+    }
+
+    /**
+     * Write the shards of one character of the index.
+     *
+     * @param i the index of the character in {@link IndexBuilder#elements()}
+     * @return the prefixes of the written shards
+     * @throws DocletAbortException
+     */
+    public static List<String> generate(ConfigurationImpl configuration,
+            IndexBuilder indexbuilder, int i) {
+        Character unicode = (Character) indexbuilder.elements()[i];
+        List<Doc> list = indexbuilder.getMemberList(unicode);
+        String letter = foldCase(unicode.toString());
+        List<String> prefixes = new ArrayList<String>();
+        if (list.size() <= SHARD_SIZE) {
+            generateShard(configuration, letter, list);
+            prefixes.add(letter);
+            return prefixes;
+        }
+        // The list is sorted by the names with folded case, so the names
+        // with the same prefix are next to each other.
+        int from = 0;
+        String prefix = prefix(letter, list.get(0));
+        for (int j = 1; j <= list.size(); j++) {
+            String next = j == list.size() ? null : prefix(letter, list.get(j));
+            if (!prefix.equals(next)) {
+                generateShard(configuration, prefix, list.subList(from, j));
+                prefixes.add(prefix);
+                from = j;
+                prefix = next;
+            }
+        }
+        return prefixes;
+    }
+
+    private static String prefix(String letter, Doc doc) {
+        String name = doc.name();
+        if (name.length() < 2) {
+            return letter;
+        }
+        return foldCase(name.substring(0, 2));
+    }
+
+    private static void generateShard(ConfigurationImpl configuration,
+            String prefix, List<Doc> docs) {
+        DocPath filename = DocPaths.SEARCH_INDEX.resolve(fileName(prefix) + ".js");
+        try {
+            SearchIndexWriter writer = new SearchIndexWriter(configuration, filename);
+            writer.writeShard(prefix, docs);
+            writer.close();
+        } catch (IOException exc) {
+            configuration.standardmessage.error(
+                        "doclet.exception_encountered",
+                        exc.toString(), filename.getPath());
+            throw new DocletAbortException(exc);
+        }
+    }
+
+    private static void generatePrefixes(ConfigurationImpl configuration,
+            List<String> prefixes) {
+        DocPath filename = DocPaths.SEARCH_INDEX.resolve(DocPaths.SEARCH_PREFIXES);
+        try {
+            SearchIndexWriter writer = new SearchIndexWriter(configuration, filename);
+            StringBuilder sb = new StringBuilder("searchIndex.prefixes([");
+            for (int i = 0; i < prefixes.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendString(sb, prefixes.get(i));
+            }
+            sb.append("]);").append(DocletConstants.NL);
+            writer.write(new RawHtml(sb.toString()));
+            writer.close();
+        } catch (IOException exc) {
+            configuration.standardmessage.error(
+                        "doclet.exception_encountered",
+                        exc.toString(), filename.getPath());
+            throw new DocletAbortException(exc);
+        }
+    }
+
+    /**
+     * Write the entries of the documented elements.
+     *
+     * @param prefix the prefix of the names of the elements
+     * @param docs the elements, sorted by name
+     */
+    protected void writeShard(String prefix, List<Doc> docs) throws IOException {
+        String[][] entries = new String[docs.size()][];
+        TreeSet<String> strings = new TreeSet<String>();
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = entry(docs.get(i));
+            for (int j = 1; j < entries[i].length; j++) {
+                strings.add(entries[i][j]);
+            }
+        }
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        StringBuilder sb = new StringBuilder("searchIndex.add(");
+        appendString(sb, prefix);
+        sb.append(',').append(DocletConstants.NL);
+        StringBuilder table = new StringBuilder();
+        for (String s : strings) {
+            if (!ids.isEmpty()) {
+                table.append('\n');
+            }
+            ids.put(s, ids.size());
+            table.append(s);
+        }
+        appendString(sb, table.toString());
+        sb.append(',').append(DocletConstants.NL).append('[');
+        int name = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (i > 0) {
+                sb.append(',').append(DocletConstants.NL);
+            }
+            String[] entry = entries[i];
+            int id = ids.get(entry[1]);
+            sb.append(entry[0]).append(',').append(id - name);
+            name = id;
+            for (int j = 2; j < entry.length; j++) {
+                sb.append(',').append(ids.get(entry[j]));
+            }
+        }
+        sb.append("]);").append(DocletConstants.NL);
+        write(new RawHtml(sb.toString()));
+    }
+
+    /**
+     * The kind, name, label, container, page and anchor of an element.
+     */
+    private String[] entry(Doc doc) {
+        if (doc instanceof PackageDoc) {
+            PackageDoc pkg = (PackageDoc) doc;
+            return new String[] {
+                String.valueOf(PACKAGE), pkg.name(), pkg.name(), "",
+                DocPath.forPackage(pkg).resolve(DocPaths.PACKAGE_SUMMARY).getPath(), ""
+            };
+        } else if (doc instanceof ClassDoc) {
+            ClassDoc cd = (ClassDoc) doc;
+            return new String[] {
+                String.valueOf(CLASS), cd.name(), cd.name(), cd.containingPackage().name(),
+                DocPath.forClass(cd).getPath(), ""
+            };
+        } else {
+            MemberDoc member = (MemberDoc) doc;
+            ClassDoc cd = member.containingClass();
+            String label;
+            String anchor;
+            if (member instanceof ExecutableMemberDoc) {
+                ExecutableMemberDoc emd = (ExecutableMemberDoc) member;
+                label = member.name() + emd.flatSignature();
+                anchor = getName(getAnchor(emd));
+            } else {
+                label = member.name();
+                anchor = getName(member.name());
+            }
+            return new String[] {
+                String.valueOf(MEMBER), member.name(), label, cd.qualifiedName(),
+                DocPath.forClass(cd).getPath(), anchor
+            };
+        }
+    }
+
+    /**
+     * Append a string as a JavaScript literal. Everything but printable
+     * ASCII is escaped, so the shards do not depend on the encoding.
+     */
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c < ' ' || c > '~') {
+                String hex = Integer.toHexString(c);
+                sb.append("\\u");
+                for (int j = hex.length(); j < 4; j++) {
+                    sb.append('0');
+                }
+                sb.append(hex);
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * The name of the file of a shard. The search script derives it from
+     * the prefix the same way.
+     */
+    private static String fileName(String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else {
+                String hex = Integer.toHexString(c);
+                sb.append('_');
+                for (int j = hex.length(); j < 4; j++) {
+                    sb.append('0');
+                }
+                sb.append(hex);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The string with each character mapped the way
+     * {@link String#compareToIgnoreCase} compares it, which is how
+     * the index is sorted.
+     */
+    private static String foldCase(String s) {
+        char[] folded = s.toCharArray();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(folded[i]));
+        }
+        return new String(folded);
+    }
+}
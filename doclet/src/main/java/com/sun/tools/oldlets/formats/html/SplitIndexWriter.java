@@ -82,22 +82,35 @@ public class SplitIndexWriter extends AbstractIndexWriter {
      */
     public static void generate(ConfigurationImpl configuration,
                                 IndexBuilder indexbuilder) {
+        for (int i = 0; i < indexbuilder.elements().length; i++) {
+            generate(configuration, indexbuilder, i);
+        }
+    }
+
+    /**
+     * Generate the index file for one Unicode character. The files of
+     * different characters do not depend on each other.
+     *
+     * @param indexbuilder IndexBuilder built by {@link IndexBuilder}
+     * @param i the index of the character in {@link IndexBuilder#elements()}
+     * @throws DocletAbortException
+     */
+    public static void generate(ConfigurationImpl configuration,
+                                IndexBuilder indexbuilder, int i) {
         SplitIndexWriter indexgen;
         DocPath filename = DocPath.empty;
         DocPath path = DocPaths.INDEX_FILES;
         try {
-            for (int i = 0; i < indexbuilder.elements().length; i++) {
-                int j = i + 1;
-                int prev = (j == 1)? -1: i;
-                int next = (j == indexbuilder.elements().length)? -1: j + 1;
-                filename = DocPaths.indexN(j);
-                indexgen = new SplitIndexWriter(configuration,
-                                                path.resolve(filename),
-                                                indexbuilder, prev, next);
-                indexgen.generateIndexFile((Character)indexbuilder.
-                                                                 elements()[i]);
-                indexgen.close();
-            }
+            int j = i + 1;
+            int prev = (j == 1)? -1: i;
+            int next = (j == indexbuilder.elements().length)? -1: j + 1;
+            filename = DocPaths.indexN(j);
+            indexgen = new SplitIndexWriter(configuration,
+                                            path.resolve(filename),
+                                            indexbuilder, prev, next);
+            indexgen.generateIndexFile((Character)indexbuilder.
+                                                             elements()[i]);
+            indexgen.close();
         } catch (IOException exc) {
             configuration.standardmessage.error(
                         "doclet.exception_encountered",
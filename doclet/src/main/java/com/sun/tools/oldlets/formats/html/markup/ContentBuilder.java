@@ -55,7 +55,7 @@ public class ContentBuilder extends Content {
         ensureMutableContents();
         Content c = contents.isEmpty() ? null : contents.get(contents.size() - 1);
         StringContent sc;
-        if (c != null && c instanceof StringContent) {
+        if (c instanceof StringContent && !((StringContent) c).isShared()) {
             sc = (StringContent) c;
         } else {
             contents.add(sc = new StringContent());
@@ -62,7 +62,7 @@ public abstract class HtmlDocWriter extends HtmlWriter {
      *
      * @param filename String file name.
      */
-    public HtmlDocWriter(Configuration configuration, DocPath filename)
+    public HtmlDocWriter(ConfigurationImpl configuration, DocPath filename)
             throws IOException {
         super(configuration, filename);
         configuration.message.notice("doclet.Generating_0",
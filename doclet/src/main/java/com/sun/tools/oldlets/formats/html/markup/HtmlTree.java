@@ -45,10 +45,23 @@ import com.sun.tools.oldlets.internal.toolkit.util.*;
  */
 public class HtmlTree extends Content {
 
+    private static final HtmlAttr[] NO_ATTRS = new HtmlAttr[0];
+    private static final String[] NO_VALUES = new String[0];
+    private static final Content[] NO_CONTENT = new Content[0];
+
     private HtmlTag htmlTag;
-    private Map<HtmlAttr,String> attrs = Collections.<HtmlAttr,String>emptyMap();
-    private List<Content> content = Collections.<Content>emptyList();
-    public static final Content EMPTY = new StringContent("");
+    /*
+     * Pages consist of a huge number of nodes, most of them with at most
+     * one attribute and a few children, so both are kept in plain arrays
+     * rather than in collections. Attributes stay in the order they were
+     * added, as that is the order in which they are written.
+     */
+    private HtmlAttr[] attrNames = NO_ATTRS;
+    private String[] attrValues = NO_VALUES;
+    private int attrCount;
+    private Content[] content = NO_CONTENT;
+    private int contentCount;
+    public static final Content EMPTY = new StringContent().share();
 
     /**
      * Constructor to construct HtmlTree object.
@@ -78,9 +91,29 @@ public class HtmlTree extends Content {
      * @param attrValue value of the attribute
      */
     public void addAttr(HtmlAttr attrName, String attrValue) {
-        if (attrs.isEmpty())
-            attrs = new LinkedHashMap<HtmlAttr,String>(3);
-        attrs.put(nullCheck(attrName), escapeHtmlChars(attrValue));
+        nullCheck(attrName);
+        String value = escapeHtmlChars(attrValue);
+        int index = indexOfAttr(attrName);
+        if (index >= 0) {
+            attrValues[index] = value;
+            return;
+        }
+        if (attrCount == attrNames.length) {
+            int size = attrCount == 0 ? 1 : attrCount * 2;
+            attrNames = Arrays.copyOf(attrNames, size);
+            attrValues = Arrays.copyOf(attrValues, size);
+        }
+        attrNames[attrCount] = attrName;
+        attrValues[attrCount] = value;
+        attrCount++;
+    }
+
+    private int indexOfAttr(HtmlAttr attrName) {
+        for (int i = 0; i < attrCount; i++) {
+            if (attrNames[i] == attrName)
+                return i;
+        }
+        return -1;
     }
 
     public void setTitle(Content body) {
@@ -108,23 +141,24 @@ public class HtmlTree extends Content {
             }
         }
         else if (tagContent == HtmlTree.EMPTY || tagContent.isValid()) {
-            if (content.isEmpty())
-                content = new ArrayList<Content>();
-            content.add(tagContent);
+            if (contentCount == content.length)
+                content = Arrays.copyOf(content, contentCount == 0 ? 2 : contentCount * 2);
+            content[contentCount++] = tagContent;
         }
     }
 
     /**
      * This method adds a string content to the htmltree. If the last content member
-     * added is a StringContent, append the string to that StringContent or else
-     * create a new StringContent and add it to the html tree.
+     * added is a StringContent that is not shared, append the string to that
+     * StringContent or else create a new StringContent and add it to the html tree.
      *
      * @param stringContent string content that needs to be added
      */
     public void addContent(String stringContent) {
-        if (!content.isEmpty()) {
-            Content lastContent = content.get(content.size() - 1);
-            if (lastContent instanceof StringContent)
+        if (contentCount > 0) {
+            Content lastContent = content[contentCount - 1];
+            if (lastContent instanceof StringContent
+                    && !((StringContent) lastContent).isShared())
                 lastContent.addContent(stringContent);
             else
                 addContent(new StringContent(stringContent));
@@ -135,8 +169,8 @@ public class HtmlTree extends Content {
 
     public int charCount() {
         int n = 0;
-        for (Content c : content)
-            n += c.charCount();
+        for (int i = 0; i < contentCount; i++)
+            n += content[i].charCount();
         return n;
     }
 
@@ -746,7 +780,7 @@ public class HtmlTree extends Content {
      * @return true if the HTML tree has content else return false
      */
     public boolean hasContent() {
-        return (!content.isEmpty());
+        return (contentCount > 0);
     }
 
     /**
@@ -755,7 +789,7 @@ public class HtmlTree extends Content {
      * @return true if the HTML tree has attributes else return false
      */
     public boolean hasAttrs() {
-        return (!attrs.isEmpty());
+        return (attrCount > 0);
     }
 
     /**
@@ -765,7 +799,7 @@ public class HtmlTree extends Content {
      * @return true if the HTML tree has the specified attribute else return false
      */
     public boolean hasAttr(HtmlAttr attrName) {
-        return (attrs.containsKey(attrName));
+        return (indexOfAttr(attrName) >= 0);
     }
 
     /**
@@ -818,14 +852,10 @@ public class HtmlTree extends Content {
         String tagString = htmlTag.toString();
         out.write("<");
         out.write(tagString);
-        Iterator<HtmlAttr> iterator = attrs.keySet().iterator();
-        HtmlAttr key;
-        String value;
-        while (iterator.hasNext()) {
-            key = iterator.next();
-            value = attrs.get(key);
+        for (int i = 0; i < attrCount; i++) {
+            String value = attrValues[i];
             out.write(" ");
-            out.write(key.toString());
+            out.write(attrNames[i].toString());
             if (!value.isEmpty()) {
                 out.write("=\"");
                 out.write(value);
@@ -834,8 +864,8 @@ public class HtmlTree extends Content {
         }
         out.write(">");
         boolean nl = false;
-        for (Content c : content)
-            nl = c.write(out, nl);
+        for (int i = 0; i < contentCount; i++)
+            nl = content[i].write(out, nl);
         if (htmlTag.endTagRequired()) {
             out.write("</");
             out.write(tagString);
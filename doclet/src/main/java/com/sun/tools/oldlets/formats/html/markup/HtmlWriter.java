@@ -30,8 +30,10 @@ import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.sun.tools.oldlets.formats.html.ConfigurationImpl;
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.Events;
 
 /**
  * Class for the Html format code generation.
@@ -64,6 +66,11 @@ public class HtmlWriter {
      */
     protected boolean memberDetailsListPrinted;
 
+    /**
+     * Labels shared by all the pages.
+     */
+    protected final Labels labels;
+
     /**
      * Header for table displaying profiles and description..
      */
@@ -168,6 +175,10 @@ public class HtmlWriter {
 
     private Writer writer;
 
+    private ByteCount bytes;
+
+    private Events event;
+
     private Content script;
 
     /**
@@ -180,73 +191,104 @@ public class HtmlWriter {
      * @exception UnsupportedEncodingException Exception raised by the
      * OutputStreamWriter is passed on to next level.
      */
-    public HtmlWriter(Configuration configuration, DocPath path)
+    public HtmlWriter(ConfigurationImpl configuration, DocPath path)
             throws IOException, UnsupportedEncodingException {
         file = DocFile.createFileForOutput(configuration, path);
         this.configuration = configuration;
         this.memberDetailsListPrinted = false;
+        labels = configuration.labels;
         profileTableHeader = new String[] {
-            configuration.getText("doclet.Profile"),
-            configuration.getText("doclet.Description")
+            labels.getText("doclet.Profile"),
+            labels.getText("doclet.Description")
         };
         packageTableHeader = new String[] {
-            configuration.getText("doclet.Package"),
-            configuration.getText("doclet.Description")
+            labels.getText("doclet.Package"),
+            labels.getText("doclet.Description")
         };
-        useTableSummary = configuration.getText("doclet.Use_Table_Summary",
-                configuration.getText("doclet.packages"));
-        modifierTypeHeader = configuration.getText("doclet.0_and_1",
-                configuration.getText("doclet.Modifier"),
-                configuration.getText("doclet.Type"));
-        overviewLabel = getResource("doclet.Overview");
+        useTableSummary = labels.getText("doclet.Use_Table_Summary",
+                labels.getText("doclet.packages"));
+        modifierTypeHeader = labels.getText("doclet.0_and_1",
+                labels.getText("doclet.Modifier"),
+                labels.getText("doclet.Type"));
+        overviewLabel = labels.getLabel("doclet.Overview");
         defaultPackageLabel = new StringContent(DocletConstants.DEFAULT_PACKAGE_NAME);
-        packageLabel = getResource("doclet.Package");
-        profileLabel = getResource("doclet.Profile");
-        useLabel = getResource("doclet.navClassUse");
-        prevLabel = getResource("doclet.Prev");
-        nextLabel = getResource("doclet.Next");
-        prevclassLabel = getNonBreakResource("doclet.Prev_Class");
-        nextclassLabel = getNonBreakResource("doclet.Next_Class");
-        summaryLabel = getResource("doclet.Summary");
-        detailLabel = getResource("doclet.Detail");
-        framesLabel = getResource("doclet.Frames");
-        noframesLabel = getNonBreakResource("doclet.No_Frames");
-        treeLabel = getResource("doclet.Tree");
-        classLabel = getResource("doclet.Class");
-        deprecatedLabel = getResource("doclet.navDeprecated");
-        deprecatedPhrase = getResource("doclet.Deprecated");
-        allclassesLabel = getNonBreakResource("doclet.All_Classes");
-        allpackagesLabel = getNonBreakResource("doclet.All_Packages");
-        allprofilesLabel = getNonBreakResource("doclet.All_Profiles");
-        indexLabel = getResource("doclet.Index");
-        helpLabel = getResource("doclet.Help");
-        seeLabel = getResource("doclet.See");
-        descriptionLabel = getResource("doclet.Description");
-        prevpackageLabel = getNonBreakResource("doclet.Prev_Package");
-        nextpackageLabel = getNonBreakResource("doclet.Next_Package");
-        prevprofileLabel = getNonBreakResource("doclet.Prev_Profile");
-        nextprofileLabel = getNonBreakResource("doclet.Next_Profile");
-        packagesLabel = getResource("doclet.Packages");
-        profilesLabel = getResource("doclet.Profiles");
-        methodDetailsLabel = getResource("doclet.Method_Detail");
-        annotationTypeDetailsLabel = getResource("doclet.Annotation_Type_Member_Detail");
-        fieldDetailsLabel = getResource("doclet.Field_Detail");
-        propertyDetailsLabel = getResource("doclet.Property_Detail");
-        constructorDetailsLabel = getResource("doclet.Constructor_Detail");
-        enumConstantsDetailsLabel = getResource("doclet.Enum_Constant_Detail");
-        specifiedByLabel = getResource("doclet.Specified_By");
-        overridesLabel = getResource("doclet.Overrides");
-        descfrmClassLabel = getResource("doclet.Description_From_Class");
-        descfrmInterfaceLabel = getResource("doclet.Description_From_Interface");
+        packageLabel = labels.getLabel("doclet.Package");
+        profileLabel = labels.getLabel("doclet.Profile");
+        useLabel = labels.getLabel("doclet.navClassUse");
+        prevLabel = labels.getLabel("doclet.Prev");
+        nextLabel = labels.getLabel("doclet.Next");
+        prevclassLabel = labels.getNonBreakLabel("doclet.Prev_Class");
+        nextclassLabel = labels.getNonBreakLabel("doclet.Next_Class");
+        summaryLabel = labels.getLabel("doclet.Summary");
+        detailLabel = labels.getLabel("doclet.Detail");
+        framesLabel = labels.getLabel("doclet.Frames");
+        noframesLabel = labels.getNonBreakLabel("doclet.No_Frames");
+        treeLabel = labels.getLabel("doclet.Tree");
+        classLabel = labels.getLabel("doclet.Class");
+        deprecatedLabel = labels.getLabel("doclet.navDeprecated");
+        deprecatedPhrase = labels.getLabel("doclet.Deprecated");
+        allclassesLabel = labels.getNonBreakLabel("doclet.All_Classes");
+        allpackagesLabel = labels.getNonBreakLabel("doclet.All_Packages");
+        allprofilesLabel = labels.getNonBreakLabel("doclet.All_Profiles");
+        indexLabel = labels.getLabel("doclet.Index");
+        helpLabel = labels.getLabel("doclet.Help");
+        seeLabel = labels.getLabel("doclet.See");
+        descriptionLabel = labels.getLabel("doclet.Description");
+        prevpackageLabel = labels.getNonBreakLabel("doclet.Prev_Package");
+        nextpackageLabel = labels.getNonBreakLabel("doclet.Next_Package");
+        prevprofileLabel = labels.getNonBreakLabel("doclet.Prev_Profile");
+        nextprofileLabel = labels.getNonBreakLabel("doclet.Next_Profile");
+        packagesLabel = labels.getLabel("doclet.Packages");
+        profilesLabel = labels.getLabel("doclet.Profiles");
+        methodDetailsLabel = labels.getLabel("doclet.Method_Detail");
+        annotationTypeDetailsLabel = labels.getLabel("doclet.Annotation_Type_Member_Detail");
+        fieldDetailsLabel = labels.getLabel("doclet.Field_Detail");
+        propertyDetailsLabel = labels.getLabel("doclet.Property_Detail");
+        constructorDetailsLabel = labels.getLabel("doclet.Constructor_Detail");
+        enumConstantsDetailsLabel = labels.getLabel("doclet.Enum_Constant_Detail");
+        specifiedByLabel = labels.getLabel("doclet.Specified_By");
+        overridesLabel = labels.getLabel("doclet.Overrides");
+        descfrmClassLabel = labels.getLabel("doclet.Description_From_Class");
+        descfrmInterfaceLabel = labels.getLabel("doclet.Description_From_Interface");
     }
 
     public void write(Content c) throws IOException {
-        writer = file.openWriter();
+        event = Events.writeFile(file.getPath());
+        bytes = new ByteCount(configuration.writeBehind.openOutputStream(file));
+        writer = configuration.writeBehind.newWriter(bytes);
         c.write(writer, true);
     }
 
     public void close() throws IOException {
         writer.close();
+        if (event != null) {
+            event.bytes(bytes.count).end();
+            event = null;
+        }
+    }
+
+    /**
+     * Counts the bytes of the page, as encoded, on their way to the
+     * write-behind queue.
+     */
+    private static final class ByteCount extends FilterOutputStream {
+        long count;
+
+        ByteCount(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 
     /**
@@ -267,16 +309,8 @@ public class HtmlWriter {
      * @return a content tree for the text
      */
     public Content getNonBreakResource(String key) {
-        String text = configuration.getText(key);
         Content c = configuration.newContent();
-        int start = 0;
-        int p;
-        while ((p = text.indexOf(" ", start)) != -1) {
-            c.addContent(text.substring(start, p));
-            c.addContent(RawHtml.nbsp);
-            start = p + 1;
-        }
-        c.addContent(text.substring(start));
+        c.addContent(labels.getNonBreakLabel(key));
         return c;
     }
 
@@ -0,0 +1,104 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.formats.html.markup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
+import com.sun.tools.oldlets.internal.toolkit.Content;
+
+/**
+ * Labels and other resource strings used on every page. Each of them
+ * is looked up and formatted only once per run and all the writers
+ * share the same immutable content, so the instance can be used from
+ * several threads.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class Labels {
+
+    private final Configuration configuration;
+    private final ConcurrentMap<String, String> texts = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, Content> labels = new ConcurrentHashMap<String, Content>();
+    private final ConcurrentMap<String, Content> nonBreakLabels = new ConcurrentHashMap<String, Content>();
+
+    public Labels(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Get the configuration string.
+     *
+     * @param key the key to look for in the configuration file
+     * @param args string arguments of the text, if any
+     * @return the text
+     */
+    public String getText(String key, String... args) {
+        String id = key;
+        for (String a : args)
+            id += '\0' + a;
+        String text = texts.get(id);
+        if (text == null) {
+            switch (args.length) {
+                case 0: text = configuration.getText(key); break;
+                case 1: text = configuration.getText(key, args[0]); break;
+                case 2: text = configuration.getText(key, args[0], args[1]); break;
+                default: text = configuration.getText(key, args[0], args[1], args[2]); break;
+            }
+            texts.putIfAbsent(id, text);
+        }
+        return text;
+    }
+
+    /**
+     * Get the configuration string as a content. The content cannot be
+     * modified.
+     *
+     * @param key the key to look for in the configuration file
+     * @return a content for the text
+     */
+    public Content getLabel(String key) {
+        Content label = labels.get(key);
+        if (label == null) {
+            label = new RawHtml(new StringContent(getText(key)).toString());
+            labels.putIfAbsent(key, label);
+        }
+        return label;
+    }
+
+    /**
+     * Get the configuration string as a content, replacing spaces
+     * with non-breaking spaces. The content cannot be modified.
+     *
+     * @param key the key to look for in the configuration file
+     * @return a content for the text
+     */
+    public Content getNonBreakLabel(String key) {
+        Content label = nonBreakLabels.get(key);
+        if (label == null) {
+            String text = new StringContent(getText(key)).toString();
+            label = new RawHtml(text.replace(" ", RawHtml.nbsp.toString()));
+            nonBreakLabels.putIfAbsent(key, label);
+        }
+        return label;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.formats.html.markup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import com.sun.tools.oldlets.internal.toolkit.Content;
+import com.sun.tools.oldlets.internal.toolkit.util.*;
+
+/**
+ * A finished HTML tree, already serialized to text. Builders replace
+ * completed sections of a page, such as the block of one member, by
+ * this content, so the object graph of the section can be released
+ * while the rest of the page is being built. The section is written
+ * exactly as the original tree would be.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class RenderedHtml extends Content {
+
+    private final String html;
+    private final boolean block;
+    private final boolean valid;
+    private final boolean endsAtNewline;
+    private int charCount = -1;
+
+    /**
+     * Serialize the tree. The tree must not be modified afterwards.
+     *
+     * @param tree the finished tree
+     */
+    public RenderedHtml(HtmlTree tree) {
+        StringWriter out = new StringWriter();
+        try {
+            endsAtNewline = tree.write(out, true);
+        } catch (IOException e) {
+            // cannot happen from StringWriter
+            throw new DocletAbortException(e);
+        }
+        html = out.toString();
+        block = !tree.isInline();
+        valid = tree.isValid();
+    }
+
+    public void addContent(Content content) {
+        throw new DocletAbortException("not supported");
+    }
+
+    public void addContent(String stringContent) {
+        throw new DocletAbortException("not supported");
+    }
+
+    public boolean isEmpty() {
+        return html.isEmpty();
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public String toString() {
+        return html;
+    }
+
+    @Override
+    public int charCount() {
+        if (charCount < 0)
+            charCount = RawHtml.charCount(html);
+        return charCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean write(Writer out, boolean atNewline) throws IOException {
+        if (block && !atNewline)
+            out.write(DocletConstants.NL);
+        out.write(html);
+        return endsAtNewline;
+    }
+}
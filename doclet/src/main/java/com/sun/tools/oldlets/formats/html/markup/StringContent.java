@@ -43,13 +43,25 @@ import com.sun.tools.oldlets.internal.toolkit.util.*;
  */
 public class StringContent extends Content {
 
+    /*
+     * Most string contents are never appended to, so the escaped text is
+     * kept as a string and a builder is only created by a second append.
+     */
+    private String text = "";
     private StringBuilder stringContent;
+    private int charCount = -1;
+
+    /*
+     * A shared content is used by several pages, possibly on several
+     * threads, so it cannot be modified.
+     */
+    private final boolean shared;
 
     /**
      * Constructor to construct StringContent object.
      */
     public StringContent() {
-        stringContent = new StringBuilder();
+        this.shared = false;
     }
 
     /**
@@ -58,10 +70,33 @@ public class StringContent extends Content {
      * @param initialContent initial content for the object
      */
     public StringContent(String initialContent) {
-        stringContent = new StringBuilder();
+        this.shared = false;
         appendChars(initialContent);
     }
 
+    private StringContent(String escapedContent, boolean shared) {
+        this.text = escapedContent;
+        this.shared = shared;
+    }
+
+    /**
+     * Get a content with the same text which can be shared by several
+     * pages and threads. The shared content cannot be modified, trees
+     * appending text after it start a new text node instead.
+     *
+     * @return this content if it is shared already, a shared copy otherwise
+     */
+    public StringContent share() {
+        return shared ? this : new StringContent(toString(), true);
+    }
+
+    /**
+     * @return true if the content is shared and cannot be modified
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
     /**
      * This method is not supported by the class.
      *
@@ -80,9 +115,12 @@ public class StringContent extends Content {
      * HTML characters for the string content that is added.
      *
      * @param strContent string content to be added
+     * @throws DocletAbortException if the content is shared
      */
     @Override
     public void addContent(String strContent) {
+        if (shared)
+            throw new DocletAbortException("shared content cannot be modified");
         appendChars(strContent);
     }
 
@@ -91,12 +129,14 @@ public class StringContent extends Content {
      */
     @Override
     public boolean isEmpty() {
-        return (stringContent.length() == 0);
+        return stringContent == null ? text.isEmpty() : stringContent.length() == 0;
     }
 
     @Override
     public int charCount() {
-        return RawHtml.charCount(stringContent.toString());
+        if (charCount < 0)
+            charCount = RawHtml.charCount(toString());
+        return charCount;
     }
 
     /**
@@ -104,7 +144,7 @@ public class StringContent extends Content {
      */
     @Override
     public String toString() {
-        return stringContent.toString();
+        return stringContent == null ? text : stringContent.toString();
     }
 
     /**
@@ -112,12 +152,22 @@ public class StringContent extends Content {
      */
     @Override
     public boolean write(Writer out, boolean atNewline) throws IOException {
-        String s = stringContent.toString();
+        String s = toString();
         out.write(s);
         return s.endsWith(DocletConstants.NL);
     }
 
     private void appendChars(String s) {
+        charCount = -1;
+        if (stringContent == null) {
+            if (text.isEmpty() && !needsEscape(s)) {
+                text = s;
+                return;
+            }
+            stringContent = new StringBuilder(text.length() + s.length() + 16);
+            stringContent.append(text);
+            text = null;
+        }
         for (int i = 0; i < s.length(); i++) {
             char ch = s.charAt(i);
             switch (ch) {
@@ -128,4 +178,14 @@ public class StringContent extends Content {
             }
         }
     }
+
+    private static boolean needsEscape(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            switch (s.charAt(i)) {
+                case '<': case '>': case '&':
+                    return true;
+            }
+        }
+        return false;
+    }
 }
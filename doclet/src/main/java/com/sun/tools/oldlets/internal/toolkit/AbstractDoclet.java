@@ -29,8 +29,12 @@ import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.PackageDoc;
 import com.sun.javadoc.LanguageVersion;
 import com.sun.javadoc.RootDoc;
+import java.io.IOException;
+import java.util.*;
+
 import com.sun.tools.oldlets.internal.toolkit.builders.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
 
 /**
  * An abstract implementation of a Doclet.
@@ -137,52 +141,109 @@ public abstract class AbstractDoclet {
         configuration.setOptions();
         configuration.getDocletSpecificMsg().notice("doclet.build_version",
             configuration.getDocletSpecificBuildDate());
-        ClassTree classtree = new ClassTree(configuration, configuration.nodeprecated);
+        configuration.fingerprints = Fingerprints.create(configuration);
+        ApiModelPass pass = new ApiModelPass();
+        ClassTree classtree = new ClassTree(configuration, pass);
+        addCollectors(pass);
+        pass.walk(configuration.root.classes());
+        configuration.modelPass = pass;
 
-        generateClassFiles(root, classtree);
-        Util.copyDocFiles(configuration, DocPaths.DOC_FILES);
+        try {
+            generateClassFiles(root, classtree);
+            Util.copyDocFiles(configuration, DocPaths.DOC_FILES);
 
-        PackageListWriter.generate(configuration);
-        generatePackageFiles(classtree);
-        generateProfileFiles();
+            PackageListWriter.generate(configuration);
+            TaskGraph graph = new TaskGraph();
+            generatePackageFiles(graph, classtree);
+            generateProfileFiles(graph);
 
-        generateOtherFiles(root, classtree);
+            generateOtherFiles(graph, root, classtree);
+            graph.run(configuration.threads);
+        } catch (Exception | Error ex) {
+            try {
+                configuration.writeBehind.finish();
+            } catch (DocletAbortException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+        configuration.writeBehind.finish();
+        try {
+            DocFile.finishOutput(configuration);
+        } catch (IOException ex) {
+            configuration.message.error("doclet.exception_encountered",
+                    ex.toString(), configuration.destJarName);
+            throw new DocletAbortException(ex);
+        }
+        try {
+            configuration.fingerprints.store();
+        } catch (IOException ex) {
+            configuration.message.error("doclet.exception_encountered",
+                    ex.toString(), DocPaths.FINGERPRINTS.getPath());
+            throw new DocletAbortException(ex);
+        }
         configuration.tagletManager.printReport();
     }
 
+    /**
+     * Register the collectors of the pages listing the whole API, all of
+     * them are fed by one walk over the classes before any documentation is
+     * generated.
+     *
+     * @param pass the walk over all the classes of the run.
+     */
+    protected void addCollectors(ApiModelPass pass) {
+        pass.add(new ConstantsSummaryBuilder.ConstantClasses(configuration));
+        pass.add(new SerializedFormBuilder.SerializedClasses());
+    }
+
     /**
      * Generate additional documentation that is added to the API documentation.
+     * The writers are only added to the graph, they run once all the
+     * documentation generation tasks are known.
      *
+     * @param graph     the tasks generating the documentation.
      * @param root      the RootDoc of source to document.
      * @param classtree the data structure representing the class tree.
      */
-    protected void generateOtherFiles(RootDoc root, ClassTree classtree) throws Exception {
-        BuilderFactory builderFactory = configuration.getBuilderFactory();
-        AbstractBuilder constantsSummaryBuilder = builderFactory.getConstantsSummaryBuider();
-        constantsSummaryBuilder.build();
-        AbstractBuilder serializedFormBuilder = builderFactory.getSerializedFormBuilder();
-        serializedFormBuilder.build();
+    protected void generateOtherFiles(TaskGraph graph, RootDoc root, ClassTree classtree) throws Exception {
+        final BuilderFactory builderFactory = configuration.getBuilderFactory();
+        graph.add(() -> builderFactory.getConstantsSummaryBuider().build());
+        graph.add(() -> builderFactory.getSerializedFormBuilder().build());
     }
 
     /**
      * Generate the profile documentation.
      *
+     * @param graph the tasks generating the documentation.
      */
-    protected abstract void generateProfileFiles() throws Exception;
+    protected abstract void generateProfileFiles(TaskGraph graph) throws Exception;
 
     /**
      * Generate the package documentation.
      *
+     * @param graph     the tasks generating the documentation.
      * @param classtree the data structure representing the class tree.
      */
-    protected abstract void generatePackageFiles(ClassTree classtree) throws Exception;
+    protected abstract void generatePackageFiles(TaskGraph graph, ClassTree classtree) throws Exception;
 
     /**
      * Generate the class documentation.
      *
      * @param classtree the data structure representing the class tree.
      */
-    protected abstract void generateClassFiles(ClassDoc[] arr, ClassTree classtree);
+    protected void generateClassFiles(ClassDoc[] arr, ClassTree classtree) {
+        runTasks(classFileTasks(arr, classtree));
+    }
+
+    /**
+     * Return the tasks generating documentation of the given classes.
+     * The tasks shall not depend on each other, they may run in parallel.
+     *
+     * @param arr       the classes to document.
+     * @param classtree the data structure representing the class tree.
+     */
+    protected abstract List<Runnable> classFileTasks(ClassDoc[] arr, ClassTree classtree);
 
     /**
      * Iterate through all classes and construct documentation for them.
@@ -191,11 +252,13 @@ public abstract class AbstractDoclet {
      * @param classtree the data structure representing the class tree.
      */
     protected void generateClassFiles(RootDoc root, ClassTree classtree) {
-        generateClassFiles(classtree);
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        generateClassFiles(classtree, tasks);
         PackageDoc[] packages = root.specifiedPackages();
         for (int i = 0; i < packages.length; i++) {
-            generateClassFiles(packages[i].allClasses(), classtree);
+            tasks.addAll(classFileTasks(packages[i].allClasses(), classtree));
         }
+        runTasks(tasks);
     }
 
     /**
@@ -203,12 +266,34 @@ public abstract class AbstractDoclet {
      *
      * @param classtree the data structure representing the class tree.
      */
-    private void generateClassFiles(ClassTree classtree) {
+    private void generateClassFiles(ClassTree classtree, List<Runnable> tasks) {
         String[] packageNames = configuration.classDocCatalog.packageNames();
         for (int packageNameIndex = 0; packageNameIndex < packageNames.length;
                 packageNameIndex++) {
-            generateClassFiles(configuration.classDocCatalog.allClasses(
-                packageNames[packageNameIndex]), classtree);
+            tasks.addAll(classFileTasks(configuration.classDocCatalog.allClasses(
+                packageNames[packageNameIndex]), classtree));
+        }
+    }
+
+    /**
+     * Run the tasks on as many threads as the -threads option allows.
+     * Messages reported by the tasks are printed in the order of the
+     * tasks, the same way as if they were run one after another. The
+     * first task that fails stops the generation.
+     *
+     * @param tasks the tasks to run.
+     */
+    protected void runTasks(List<Runnable> tasks) {
+        TaskGraph graph = new TaskGraph();
+        for (final Runnable task : tasks) {
+            graph.add(task::run);
+        }
+        try {
+            graph.run(configuration.threads);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new DocletAbortException(ex);
         }
     }
 }
@@ -173,6 +173,13 @@ public abstract class Configuration {
      */
     public String docFileDestDirName = "";
 
+    /**
+     * Jar or zip file to write the entire documentation into, when
+     * given as {@code -d jar:<file>}. Null if the documentation is
+     * written into the destination directory.
+     */
+    public String destJarName = null;
+
     /**
      * Encoding for this document. Default is default encoding for this
      * platform.
@@ -273,6 +280,64 @@ public abstract class Configuration {
      */
     public boolean suppressMissingLinkWarnings = false;
 
+    /**
+     * The number of threads used to generate the pages. Default is one,
+     * which generates the pages one after another, -threads 0 uses one
+     * thread per available processor.
+     */
+    public int threads = 1;
+
+    /**
+     * True if output files whose content did not change should not be
+     * rewritten, so they keep their time stamps.
+     */
+    public boolean skipunchanged = false;
+
+    /**
+     * True if only pages whose content may have changed since the
+     * previous run should be regenerated.
+     */
+    public boolean incremental = false;
+
+    /**
+     * The downloader of the package lists of the "-link" and "-linkoffline"
+     * options. It keeps them in the directory given by -linkcache and with
+     * -linkcacheoffline uses the kept lists without contacting the hosts.
+     */
+    public PackageListCache packageListCache = new PackageListCache(null, false);
+
+    /**
+     * Fingerprints telling which pages need to be regenerated.
+     */
+    public Fingerprints fingerprints;
+
+    /**
+     * The queue writing the generated pages in the background.
+     */
+    public final WriteBehindQueue writeBehind = new WriteBehindQueue(this);
+
+    /**
+     * The visible members of the classes, computed once in this run.
+     */
+    public final VisibleMemberMap.Cache visibleMemberMaps = new VisibleMemberMap.Cache();
+
+    /**
+     * The inherited documentation found in this run.
+     */
+    public final DocFinder.Cache docFinderCache = new DocFinder.Cache();
+
+    /**
+     * The paths of the class pages computed in this run.
+     */
+    public final DocPath.Cache docPaths = new DocPath.Cache();
+
+    /**
+     * The walk over all the classes of the run, it is over before the
+     * documentation is generated. The writers look up the data their
+     * collectors gathered during the walk in it.
+     */
+    public ApiModelPass modelPass;
+
     /**
      * Return the build date for the doclet.
      */
@@ -360,6 +425,9 @@ public abstract class Configuration {
             option.equals("-nosince") ||
             option.equals("-notimestamp") ||
             option.equals("-quiet") ||
+            option.equals("-skipunchanged") ||
+            option.equals("-incremental") ||
+            option.equals("-linkcacheoffline") ||
             option.equals("-xnodate") ||
             option.equals("-version")) {
             return 1;
@@ -368,6 +436,7 @@ public abstract class Configuration {
                    option.equals("-encoding") ||
                    option.equals("-excludedocfilessubdir") ||
                    option.equals("-link") ||
+                   option.equals("-linkcache") ||
                    option.equals("-sourcetab") ||
                    option.equals("-noqualifier") ||
                    option.equals("-output") ||
@@ -375,6 +444,7 @@ public abstract class Configuration {
                    option.equals("-tag") ||
                    option.equals("-taglet") ||
                    option.equals("-tagletpath") ||
+                   option.equals("-threads") ||
                    option.equals("-xprofilespath")) {
             return 2;
         } else if (option.equals("-group") ||
@@ -461,6 +531,9 @@ public abstract class Configuration {
      */
     public void setOptions(String[][] options) throws Fault {
         LinkedHashSet<String[]> customTagStrs = new LinkedHashSet<String[]>();
+        List<String[]> links = new ArrayList<String[]>();
+        String linkcache = null;
+        boolean linkcacheoffline = false;
 
         // Some options, specifically -link and -linkoffline, require that
         // the output directory has already been created: so do that first.
@@ -468,6 +541,11 @@ public abstract class Configuration {
             String[] os = options[oi];
             String opt = StringUtils.toLowerCase(os[0]);
             if (opt.equals("-d")) {
+                if (os[1].startsWith("jar:")) {
+                    destJarName = os[1].substring(4);
+                    ensureOutputJarCanBeWritten();
+                    break;
+                }
                 destDirName = addTrailingFileSep(os[1]);
                 docFileDestDirName = destDirName;
                 ensureOutputDirExists();
@@ -534,15 +612,30 @@ public abstract class Configuration {
                 serialwarn = true;
             } else if (opt.equals("-group")) {
                 group.checkPackageGroups(os[1], os[2]);
-            } else if (opt.equals("-link")) {
-                String url = os[1];
-                extern.link(url, url, root, false);
-            } else if (opt.equals("-linkoffline")) {
-                String url = os[1];
-                String pkglisturl = os[2];
-                extern.link(url, pkglisturl, root, true);
+            } else if (opt.equals("-link") || opt.equals("-linkoffline")) {
+                links.add(os);
+            } else if (opt.equals("-linkcache")) {
+                linkcache = os[1];
+            } else if (opt.equals("-linkcacheoffline")) {
+                linkcacheoffline = true;
             } else if(opt.equals("-suppressmissinglinkwarnings")) {
                 suppressMissingLinkWarnings = true;
+            } else if (opt.equals("-skipunchanged")) {
+                skipunchanged = true;
+            } else if (opt.equals("-incremental")) {
+                incremental = true;
+            } else if (opt.equals("-threads")) {
+                try {
+                    threads = Integer.parseInt(os[1]);
+                } catch (NumberFormatException e) {
+                    threads = -1;
+                }
+                if (threads == 0) {
+                    threads = Runtime.getRuntime().availableProcessors();
+                } else if (threads < 0) {
+                    message.warning("doclet.threads_warning");
+                    threads = 1;
+                }
             }
         }
         if (sourcepath.length() == 0) {
@@ -552,6 +645,10 @@ public abstract class Configuration {
         if (docencoding == null) {
             docencoding = encoding;
         }
+        if (linkcache != null) {
+            packageListCache = new PackageListCache(new File(linkcache), linkcacheoffline);
+        }
+        extern.link(links, root);
 
         classDocCatalog = new ClassDocCatalog(root.specifiedClasses(), this);
         initTagletManager(customTagStrs);
@@ -573,6 +670,19 @@ public abstract class Configuration {
         setSpecificDocletOptions(root.options());
     }
 
+    private void ensureOutputJarCanBeWritten() throws Fault {
+        DocFile jar = DocFile.createFileForInput(this, destJarName);
+        if (jar.isDirectory()) {
+            throw new Fault(getText(
+                "doclet.destination_jar_is_directory_0",
+                jar.getPath()));
+        } else if (jar.exists() && !jar.canWrite()) {
+            throw new Fault(getText(
+                "doclet.destination_jar_not_writable_0",
+                jar.getPath()));
+        }
+    }
+
     private void ensureOutputDirExists() throws Fault {
         DocFile destDir = DocFile.createFileForDirectory(this, destDirName);
         if (!destDir.exists()) {
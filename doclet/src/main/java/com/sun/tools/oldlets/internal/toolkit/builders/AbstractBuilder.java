@@ -26,8 +26,13 @@
 package com.sun.tools.oldlets.internal.toolkit.builders;
 
 import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
@@ -70,6 +75,13 @@ public abstract class AbstractBuilder {
          */
         final LayoutParser layoutParser;
 
+        /**
+         * The build methods of each builder class, by the name of the
+         * XML element they build.
+         */
+        final ConcurrentMap<Class<?>, Map<String, MethodHandle>> buildSteps =
+                new ConcurrentHashMap<Class<?>, Map<String, MethodHandle>>();
+
         Context(Configuration configuration,
                 Set<String> containingPackagesSeen,
                 LayoutParser layoutParser) {
@@ -79,6 +91,22 @@ public abstract class AbstractBuilder {
         }
     }
 
+    /**
+     * A build method resolved for an XML element.
+     */
+    static final class BuildStep {
+        final Class<?> builder;
+        final MethodHandle method;
+
+        BuildStep(Class<?> builder, MethodHandle method) {
+            this.builder = builder;
+            this.method = method;
+        }
+    }
+
+    private static final MethodType BUILD_STEP_TYPE = MethodType.methodType(
+            void.class, AbstractBuilder.class, XMLNode.class, Content.class);
+
     /**
      * The configuration used in this run of the doclet.
      */
@@ -93,6 +121,8 @@ public abstract class AbstractBuilder {
 
     protected final LayoutParser layoutParser;
 
+    private final ConcurrentMap<Class<?>, Map<String, MethodHandle>> buildSteps;
+
     /**
      * True if we want to print debug output.
      */
@@ -107,6 +137,7 @@ public abstract class AbstractBuilder {
         this.configuration = c.configuration;
         this.containingPackagesSeen = c.containingPackagesSeen;
         this.layoutParser = c.layoutParser;
+        this.buildSteps = c.buildSteps;
     }
 
     /**
@@ -130,31 +161,66 @@ public abstract class AbstractBuilder {
      * @param contentTree content tree to which the documentation will be added
      */
     protected void build(XMLNode node, Content contentTree) {
-        String component = node.name;
+        MethodHandle method = getBuildStep(node);
+        if (DEBUG) {
+            configuration.root.printError("DEBUG: " + this.getClass().getName() + ".build" + node.name);
+        }
         try {
-            invokeMethod("build" + component,
-                    new Class<?>[]{XMLNode.class, Content.class},
-                    new Object[]{node, contentTree});
-        } catch (NoSuchMethodException e) {
-            e.printStackTrace();
-            configuration.root.printError("Unknown element: " + component);
+            method.invokeExact(this, node, contentTree);
+        } catch (FatalError e) {
+            throw e;
+        } catch (DocletAbortException e) {
+            throw e;
+        } catch (Throwable e) {
             throw new DocletAbortException(e);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof FatalError) {
-                throw (FatalError) cause;
-            } else if (cause instanceof DocletAbortException) {
-                throw (DocletAbortException) cause;
-            } else {
-                throw new DocletAbortException(cause);
-            }
-        } catch (Exception e) {
+        }
+    }
+
+    /**
+     * Find the method building the given element. The build methods of a
+     * builder class are looked up once per run and the node remembers the
+     * last one, so the members of a class and the classes of a run do not
+     * repeat the lookup.
+     */
+    private MethodHandle getBuildStep(XMLNode node) {
+        BuildStep step = node.step;
+        if (step != null && step.builder == getClass()) {
+            return step.method;
+        }
+        Map<String, MethodHandle> methods = buildSteps.get(getClass());
+        if (methods == null) {
+            methods = findBuildSteps(getClass());
+            buildSteps.putIfAbsent(getClass(), methods);
+        }
+        MethodHandle method = methods.get(node.name);
+        if (method == null) {
+            NoSuchMethodException e = new NoSuchMethodException(
+                    getClass().getName() + ".build" + node.name);
             e.printStackTrace();
-            configuration.root.printError("Exception " +
-                    e.getClass().getName() +
-                    " thrown while processing element: " + component);
+            configuration.root.printError("Unknown element: " + node.name);
             throw new DocletAbortException(e);
         }
+        node.step = new BuildStep(getClass(), method);
+        return method;
+    }
+
+    private static Map<String, MethodHandle> findBuildSteps(Class<?> builder) {
+        Map<String, MethodHandle> methods = new HashMap<String, MethodHandle>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method m : builder.getMethods()) {
+            Class<?>[] params = m.getParameterTypes();
+            if (m.getName().startsWith("build") && !Modifier.isStatic(m.getModifiers())
+                    && params.length == 2 && params[0] == XMLNode.class
+                    && params[1] == Content.class) {
+                try {
+                    methods.put(m.getName().substring(5),
+                            lookup.unreflect(m).asType(BUILD_STEP_TYPE));
+                } catch (IllegalAccessException ex) {
+                    throw new DocletAbortException(ex);
+                }
+            }
+        }
+        return methods;
     }
 
     /**
@@ -167,23 +233,4 @@ public abstract class AbstractBuilder {
         for (XMLNode child : node.children)
             build(child, contentTree);
     }
-
-    /**
-     * Given the name and parameters, invoke the method in the builder.  This
-     * method is required to invoke the appropriate build method as instructed
-     * by the builder XML file.
-     *
-     * @param methodName   the name of the method that we would like to invoke.
-     * @param paramClasses the types for each parameter.
-     * @param params       the parameters of the method.
-     */
-    protected void invokeMethod(String methodName, Class<?>[] paramClasses,
-            Object[] params)
-    throws Exception {
-        if (DEBUG) {
-            configuration.root.printError("DEBUG: " + this.getClass().getName() + "." + methodName);
-        }
-        Method method = this.getClass().getMethod(methodName, paramClasses);
-        method.invoke(this, params);
-    }
 }
@@ -32,6 +32,7 @@ import java.util.*;
 
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.Events;
 
 /**
  * Builds the summary for a given annotation type.
@@ -100,7 +101,12 @@ public class AnnotationTypeBuilder extends AbstractBuilder {
      * {@inheritDoc}
      */
     public void build() throws IOException {
-        build(layoutParser.parseXML(ROOT), contentTree);
+        Events event = Events.buildClass(annotationTypeDoc.qualifiedName());
+        try {
+            build(layoutParser.parseXML(ROOT), contentTree);
+        } finally {
+            event.end();
+        }
     }
 
     /**
@@ -136,12 +142,11 @@ public class AnnotationTypeBuilder extends AbstractBuilder {
         if((configuration.packages == null ||
                 Arrays.binarySearch(configuration.packages,
                                     containingPackage) < 0) &&
-           ! containingPackagesSeen.contains(containingPackage.name())){
+           containingPackagesSeen.add(containingPackage.name())){
             //Only copy doc files dir if the containing package is not
             //documented AND if we have not documented a class from the same
             //package already. Otherwise, we are making duplicate copies.
             Util.copyDocFiles(configuration, containingPackage);
-            containingPackagesSeen.add(containingPackage.name());
         }
      }
 
@@ -32,6 +32,7 @@ import java.util.*;
 
 import com.sun.tools.oldlets.internal.toolkit.*;
 import com.sun.tools.oldlets.internal.toolkit.util.*;
+import org.apidesign.javadoc.codesnippet.impl.Events;
 
 /**
  * Builds the summary for a given class.
@@ -118,7 +119,12 @@ public class ClassBuilder extends AbstractBuilder {
      * {@inheritDoc}
      */
     public void build() throws IOException {
-        build(layoutParser.parseXML(ROOT), contentTree);
+        Events event = Events.buildClass(classDoc.qualifiedName());
+        try {
+            build(layoutParser.parseXML(ROOT), contentTree);
+        } finally {
+            event.end();
+        }
     }
 
     /**
@@ -274,12 +280,11 @@ public class ClassBuilder extends AbstractBuilder {
         if((configuration.packages == null ||
                 Arrays.binarySearch(configuration.packages,
                 containingPackage) < 0) &&
-                ! containingPackagesSeen.contains(containingPackage.name())){
+                containingPackagesSeen.add(containingPackage.name())){
             //Only copy doc files dir if the containing package is not
             //documented AND if we have not documented a class from the same
             //package already. Otherwise, we are making duplicate copies.
             Util.copyDocFiles(configuration, containingPackage);
-            containingPackagesSeen.add(containingPackage.name());
         }
      }
 
@@ -101,8 +101,17 @@ public class ConstantsSummaryBuilder extends AbstractBuilder {
         super(context);
         this.writer = writer;
         this.classDocsWithConstFields = new HashSet<ClassDoc>();
+        ConstantClasses collected = configuration.modelPass == null ? null
+                : configuration.modelPass.get(ConstantClasses.class);
+        this.collected = collected == null ? null : collected.classes;
     }
 
+    /**
+     * The included classes with constant fields found by the walk over the
+     * API, or null when the classes are checked here.
+     */
+    private final Set<ClassDoc> collected;
+
     /**
      * Construct a ConstantsSummaryBuilder.
      *
@@ -267,19 +276,52 @@ public class ConstantsSummaryBuilder extends AbstractBuilder {
      * @return true if the given package has constant fields to document.
      */
     private boolean hasConstantField (ClassDoc classDoc) {
-        VisibleMemberMap visibleMemberMapFields = new VisibleMemberMap(classDoc,
+        if (collected != null ? collected.contains(classDoc)
+                : hasConstantField(classDoc, configuration)) {
+            classDocsWithConstFields.add(classDoc);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean hasConstantField(ClassDoc classDoc,
+            Configuration configuration) {
+        VisibleMemberMap visibleMemberMapFields = VisibleMemberMap.getInstance(classDoc,
             VisibleMemberMap.FIELDS, configuration);
         List<?> fields = visibleMemberMapFields.getLeafClassMembers(configuration);
         for (Iterator<?> iter = fields.iterator(); iter.hasNext(); ) {
             FieldDoc field = (FieldDoc) iter.next();
             if (field.constantValueExpression() != null) {
-                classDocsWithConstFields.add(classDoc);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Collects the included classes with constant fields during the walk
+     * over the API.
+     */
+    public static class ConstantClasses implements ApiModelPass.Collector {
+        private final Configuration configuration;
+        private final Set<ClassDoc> classes = new HashSet<ClassDoc>();
+
+        public ConstantClasses(Configuration configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public void visitClass(ClassDoc cd, ApiModelPass.Members members) {
+            if (cd.isIncluded() && hasConstantField(cd, configuration)) {
+                classes.add(cd);
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
     /**
      * Return true if the given package name has been printed.  Also
      * return true if the root of this package has been printed.
@@ -325,9 +367,9 @@ public class ConstantsSummaryBuilder extends AbstractBuilder {
          */
         public ConstantFieldBuilder(ClassDoc classdoc) {
             this.classdoc = classdoc;
-            visibleMemberMapFields = new VisibleMemberMap(classdoc,
+            visibleMemberMapFields = VisibleMemberMap.getInstance(classdoc,
                 VisibleMemberMap.FIELDS, configuration);
-            visibleMemberMapEnumConst = new VisibleMemberMap(classdoc,
+            visibleMemberMapEnumConst = VisibleMemberMap.getInstance(classdoc,
                 VisibleMemberMap.ENUM_CONSTANTS, configuration);
         }
 
@@ -92,7 +92,7 @@ public class ConstructorBuilder extends AbstractMemberBuilder {
         this.classDoc = classDoc;
         this.writer = writer;
         visibleMemberMap =
-                new VisibleMemberMap(
+                VisibleMemberMap.getInstance(
                 classDoc,
                 VisibleMemberMap.CONSTRUCTORS,
                 configuration);
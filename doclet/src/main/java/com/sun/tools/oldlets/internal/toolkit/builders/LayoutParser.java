@@ -51,16 +51,15 @@ import com.sun.tools.oldlets.internal.toolkit.util.*;
 public class LayoutParser extends DefaultHandler {
 
     /**
-     * The map of XML elements that have been parsed.
+     * The map of XML elements that have been parsed, null until the
+     * XML is parsed.
      */
     private Map<String,XMLNode> xmlElementsMap;
     private XMLNode currentNode;
     private final Configuration configuration;
-    private String currentRoot;
-    private boolean isParsing;
+    private int depth;
 
     private LayoutParser(Configuration configuration) {
-        xmlElementsMap = new HashMap<String,XMLNode>();
         this.configuration = configuration;
     }
 
@@ -75,23 +74,26 @@ public class LayoutParser extends DefaultHandler {
     }
 
     /**
-     * Parse the XML specifying the layout of the documentation.
+     * Parse the XML specifying the layout of the documentation. The whole
+     * XML is parsed on the first call, all the layouts it contains are
+     * then shared by the builders of this run.
      *
      * @return the list of XML elements parsed.
      */
-    public XMLNode parseXML(String root) {
-        if (xmlElementsMap.containsKey(root)) {
+    public synchronized XMLNode parseXML(String root) {
+        if (xmlElementsMap != null) {
             return xmlElementsMap.get(root);
         }
         try {
-            currentRoot = root;
-            isParsing = false;
+            xmlElementsMap = new HashMap<String,XMLNode>();
+            depth = 0;
             SAXParserFactory factory = SAXParserFactory.newInstance();
             SAXParser saxParser = factory.newSAXParser();
             InputStream in = configuration.getBuilderXML();
             saxParser.parse(in, this);
             return xmlElementsMap.get(root);
         } catch (Throwable t) {
+            xmlElementsMap = null;
             t.printStackTrace();
             throw new DocletAbortException(t);
         }
@@ -104,12 +106,12 @@ public class LayoutParser extends DefaultHandler {
     public void startElement(String namespaceURI, String sName, String qName,
         Attributes attrs)
     throws SAXException {
-        if (isParsing || qName.equals(currentRoot)) {
-            isParsing = true;
+        // the layouts are the children of the document element
+        if (++depth > 1) {
             currentNode = new XMLNode(currentNode, qName);
             for (int i = 0; i < attrs.getLength(); i++)
                 currentNode.attrs.put(attrs.getLocalName(i), attrs.getValue(i));
-            if (qName.equals(currentRoot))
+            if (depth == 2)
                 xmlElementsMap.put(qName, currentNode);
         }
     }
@@ -120,10 +122,8 @@ public class LayoutParser extends DefaultHandler {
     @Override
     public void endElement(String namespaceURI, String sName, String qName)
     throws SAXException {
-        if (! isParsing) {
-            return;
+        if (depth-- > 1) {
+            currentNode = currentNode.parent;
         }
-        currentNode = currentNode.parent;
-        isParsing = ! qName.equals(currentRoot);
     }
 }
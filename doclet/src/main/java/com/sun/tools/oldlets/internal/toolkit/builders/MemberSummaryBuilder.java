@@ -84,7 +84,7 @@ public class MemberSummaryBuilder extends AbstractMemberBuilder {
                 new VisibleMemberMap[VisibleMemberMap.NUM_MEMBER_TYPES];
         for (int i = 0; i < VisibleMemberMap.NUM_MEMBER_TYPES; i++) {
             visibleMemberMaps[i] =
-                    new VisibleMemberMap(
+                    VisibleMemberMap.getInstance(
                     classDoc,
                     i,
                     configuration);
@@ -351,7 +351,8 @@ public class MemberSummaryBuilder extends AbstractMemberBuilder {
                     //Inherit comments from overriden or implemented method if
                     //necessary.
                     DocFinder.Output inheritedDoc =
-                            DocFinder.search(new DocFinder.Input((MethodDoc) member));
+                            DocFinder.search(configuration,
+                                    new DocFinder.Input((MethodDoc) member));
                     if (inheritedDoc.holder != null
                             && inheritedDoc.holder.firstSentenceTags().length > 0) {
                         firstSentenceTags = inheritedDoc.holder.firstSentenceTags();
@@ -486,7 +487,7 @@ public class MemberSummaryBuilder extends AbstractMemberBuilder {
                     Util.isLinkable(inhclass, configuration))) {
                 continue;
             }
-            if (inhclass == classDoc) {
+            if (inhclass.equals(classDoc)) {
                 continue;
             }
             List<ProgramElementDoc> inhmembers = visibleMemberMap.getMembersFor(inhclass);
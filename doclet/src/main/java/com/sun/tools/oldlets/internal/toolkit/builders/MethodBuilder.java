@@ -87,7 +87,7 @@ public class MethodBuilder extends AbstractMemberBuilder {
         super(context);
         this.classDoc = classDoc;
         this.writer = writer;
-        visibleMemberMap = new VisibleMemberMap(
+        visibleMemberMap = VisibleMemberMap.getInstance(
                 classDoc,
                 VisibleMemberMap.METHODS,
                 configuration);
@@ -210,7 +210,7 @@ public class MethodBuilder extends AbstractMemberBuilder {
             MethodDoc method = (MethodDoc) methods.get(currentMethodIndex);
 
             if (method.inlineTags().length == 0) {
-                DocFinder.Output docs = DocFinder.search(
+                DocFinder.Output docs = DocFinder.search(configuration,
                         new DocFinder.Input(method));
                 method = docs.inlineTags != null && docs.inlineTags.length > 0 ?
                     (MethodDoc) docs.holder : method;
@@ -122,7 +122,10 @@ public class SerializedFormBuilder extends AbstractBuilder {
      * Build the serialized form.
      */
     public void build() throws IOException {
-        if (! serialClassFoundToDocument(configuration.root.classes())) {
+        SerializedClasses found = configuration.modelPass == null ? null
+                : configuration.modelPass.get(SerializedClasses.class);
+        if (found != null ? !found.found
+                : !serialClassFoundToDocument(configuration.root.classes())) {
             //Nothing to document.
             return;
         }
@@ -599,4 +602,23 @@ public class SerializedFormBuilder extends AbstractBuilder {
         }
         return false;
     }
+
+    /**
+     * Finds out during the walk over the API whether any class is to be
+     * documented in the serialized form.
+     */
+    public static class SerializedClasses implements ApiModelPass.Collector {
+        private boolean found;
+
+        @Override
+        public void visitClass(ClassDoc cd, ApiModelPass.Members members) {
+            if (!found && serialClassInclude(cd)) {
+                found = true;
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
 }
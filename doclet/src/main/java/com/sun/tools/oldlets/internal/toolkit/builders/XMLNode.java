@@ -71,4 +71,9 @@ public class XMLNode {
     final String name;
     final Map<String,String> attrs;
     final List<XMLNode> children;
+
+    /**
+     * The build method this node was last dispatched to.
+     */
+    volatile AbstractBuilder.BuildStep step;
 }
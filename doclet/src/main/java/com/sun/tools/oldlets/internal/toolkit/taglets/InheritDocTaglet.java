@@ -135,7 +135,7 @@ public class InheritDocTaglet extends BaseInlineTaglet {
                 "doclet.noInheritedDoc", message);
          }
         DocFinder.Output inheritedDoc =
-            DocFinder.search(new DocFinder.Input(ped,
+            DocFinder.search(configuration, new DocFinder.Input(ped,
                 (InheritableTaglet) inheritableTaglet, holderTag,
                 isFirstSentence, true));
         if (inheritedDoc.isValidInheritDocTag) {
@@ -234,7 +234,8 @@ public class ParamTaglet extends BaseTaglet implements InheritableTaglet {
                 //This parameter does not have any @param documentation.
                 //Try to inherit it.
                 DocFinder.Output inheritedDoc =
-                    DocFinder.search(new DocFinder.Input((MethodDoc) holder, this,
+                    DocFinder.search(writer.configuration(),
+                        new DocFinder.Input((MethodDoc) holder, this,
                         String.valueOf(i), ! isNonTypeParams));
                 if (inheritedDoc.inlineTags != null &&
                         inheritedDoc.inlineTags.length > 0) {
@@ -78,42 +78,42 @@ public class TagletManager {
     /**
      * The array of custom tags that can appear in packages.
      */
-    private Taglet[] packageTags;
+    private volatile Taglet[] packageTags;
 
     /**
      * The array of custom tags that can appear in classes or interfaces.
      */
-    private Taglet[] typeTags;
+    private volatile Taglet[] typeTags;
 
     /**
      * The array of custom tags that can appear in fields.
      */
-    private Taglet[] fieldTags;
+    private volatile Taglet[] fieldTags;
 
     /**
      * The array of custom tags that can appear in constructors.
      */
-    private Taglet[] constructorTags;
+    private volatile Taglet[] constructorTags;
 
     /**
      * The array of custom tags that can appear in methods.
      */
-    private Taglet[] methodTags;
+    private volatile Taglet[] methodTags;
 
     /**
      * The array of custom tags that can appear in the overview.
      */
-    private Taglet[] overviewTags;
+    private volatile Taglet[] overviewTags;
 
     /**
      * The array of custom tags that can appear in comments.
      */
-    private Taglet[] inlineTags;
+    private volatile Taglet[] inlineTags;
 
     /**
      * The array of custom tags that can appear in the serialized form.
      */
-    private Taglet[] serializedFormTags;
+    private volatile Taglet[] serializedFormTags;
 
     /**
      * The message retriever that will be used to print error messages.
@@ -184,7 +184,7 @@ public class TagletManager {
         potentiallyConflictingTags = new HashSet<String>();
         standardTags = new HashSet<String>();
         standardTagsLowercase = new HashSet<String>();
-        unseenCustomTags = new HashSet<String>();
+        unseenCustomTags = Collections.synchronizedSet(new HashSet<String>());
         customTags = new LinkedHashMap<String,Taglet>();
         this.nosince = nosince;
         this.showversion = showversion;
@@ -582,7 +582,7 @@ public class TagletManager {
     /**
      * Initialize the custom tag arrays.
      */
-    private void initCustomTagletArrays() {
+    private synchronized void initCustomTagletArrays() {
         Iterator<Taglet> it = customTags.values().iterator();
         ArrayList<Taglet> pTags = new ArrayList<Taglet>(customTags.size());
         ArrayList<Taglet> tTags = new ArrayList<Taglet>(customTags.size());
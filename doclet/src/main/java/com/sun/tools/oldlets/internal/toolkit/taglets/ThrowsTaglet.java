@@ -123,10 +123,11 @@ public class ThrowsTaglet extends BaseExecutableMemberTaglet
             Set<Tag> declaredExceptionTags = new LinkedHashSet<Tag>();
             for (int j = 0; j < declaredExceptionTypes.length; j++) {
                 DocFinder.Output inheritedDoc =
-                    DocFinder.search(new DocFinder.Input((MethodDoc) holder, this,
+                    DocFinder.search(writer.configuration(),
+                        new DocFinder.Input((MethodDoc) holder, this,
                         declaredExceptionTypes[j].typeName()));
                 if (inheritedDoc.tagList.size() == 0) {
-                    inheritedDoc = DocFinder.search(new DocFinder.Input(
+                    inheritedDoc = DocFinder.search(writer.configuration(), new DocFinder.Input(
                         (MethodDoc) holder, this,
                         declaredExceptionTypes[j].qualifiedTypeName()));
                 }
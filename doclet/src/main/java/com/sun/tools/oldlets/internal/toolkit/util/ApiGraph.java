@@ -0,0 +1,294 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.Doc;
+
+/**
+ * Immutable relations between the classes of the API and the classes,
+ * members and packages related to them, such as the subclasses of a class
+ * or the methods returning it. Every class gets a dense int id, so does
+ * every related element. Each relation is stored as two int arrays: the
+ * offsets of the related elements of each class and the ids of the
+ * elements themselves, so a list of related elements costs no more than
+ * its ids and is read through a view.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public final class ApiGraph {
+
+    /**
+     * A kind of relation in the graph.
+     *
+     * @param <T> the type of the related elements
+     */
+    public static final class Relation<T extends Doc> {
+        final int index;
+        final boolean sorted;
+        final boolean unique;
+
+        /**
+         * Create a relation.
+         *
+         * @param index the index of the relation, unique in its graph
+         * @param sorted true if the related elements are to be sorted, the
+         *     elements comparing equal keep the order they were added in
+         * @param unique true if only the first of the elements comparing
+         *     equal is to be kept, as in a {@link java.util.TreeSet}
+         */
+        public Relation(int index, boolean sorted, boolean unique) {
+            this.index = index;
+            this.sorted = sorted || unique;
+            this.unique = unique;
+        }
+    }
+
+    private final Map<String, Integer> classIds;
+    private final Doc[] elements;
+    private final int[][] offsets;
+    private final int[][] targets;
+
+    private ApiGraph(Map<String, Integer> classIds, Doc[] elements,
+            int[][] offsets, int[][] targets) {
+        this.classIds = classIds;
+        this.elements = elements;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Return the elements related to the given class.
+     *
+     * @param relation the relation
+     * @param cd the class
+     * @return an unmodifiable list, empty if there are no related elements
+     */
+    public <T extends Doc> List<T> get(Relation<T> relation, ClassDoc cd) {
+        Integer id = classIds.get(cd.qualifiedName());
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        int[] off = offsets[relation.index];
+        int from = off[id];
+        int to = off[id + 1];
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        return new Segment<T>(targets[relation.index], from, to);
+    }
+
+    private final class Segment<T extends Doc> extends AbstractList<T>
+            implements RandomAccess {
+        private final int[] ids;
+        private final int from;
+        private final int size;
+
+        Segment(int[] ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return (T) elements[ids[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Collects the relations and builds the graph. The order in which the
+     * elements are added to a class is kept, unless the relation sorts
+     * them. A builder is not thread safe.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> classIds = new HashMap<String, Integer>();
+        /**
+         * The doclet hands out a new wrapper of an element on every call,
+         * the wrappers forward {@code equals} to the elements of the model,
+         * so an element gets one id however many times it is looked up.
+         */
+        private final Map<Doc, Integer> elementIds = new HashMap<Doc, Integer>();
+        private final List<Doc> elements = new ArrayList<Doc>();
+        private final Relation<?>[] relations;
+        private final int[][] from;
+        private final int[][] to;
+        private final int[] count;
+
+        /**
+         * Create a builder.
+         *
+         * @param relations all the relations of the graph, indexed by
+         *     their index
+         */
+        public Builder(Relation<?>... relations) {
+            this.relations = relations;
+            this.from = new int[relations.length][];
+            this.to = new int[relations.length][];
+            this.count = new int[relations.length];
+            for (int i = 0; i < relations.length; i++) {
+                if (relations[i].index != i) {
+                    throw new IllegalArgumentException("Relation " + i);
+                }
+                from[i] = new int[16];
+                to[i] = new int[16];
+            }
+        }
+
+        /**
+         * Make sure the class has an id, even if it ends up with no
+         * related elements.
+         *
+         * @return the id of the class
+         */
+        public int classId(ClassDoc cd) {
+            String name = cd.qualifiedName();
+            Integer id = classIds.get(name);
+            if (id == null) {
+                id = classIds.size();
+                classIds.put(name, id);
+            }
+            return id;
+        }
+
+        private int elementId(Doc doc) {
+            Integer id = elementIds.get(doc);
+            if (id == null) {
+                id = elements.size();
+                elementIds.put(doc, id);
+                elements.add(doc);
+            }
+            return id;
+        }
+
+        /**
+         * Relate an element to a class.
+         *
+         * @param relation the relation
+         * @param cd the class
+         * @param element the element related to the class
+         */
+        public <T extends Doc> void add(Relation<T> relation, ClassDoc cd, T element) {
+            int r = relation.index;
+            int n = count[r];
+            if (n == from[r].length) {
+                from[r] = Arrays.copyOf(from[r], n * 2);
+                to[r] = Arrays.copyOf(to[r], n * 2);
+            }
+            from[r][n] = classId(cd);
+            to[r][n] = elementId(element);
+            count[r] = n + 1;
+        }
+
+        /**
+         * Relate all the elements to a class.
+         */
+        public <T extends Doc> void addAll(Relation<T> relation, ClassDoc cd,
+                Iterable<? extends T> elements) {
+            classId(cd);
+            for (T element : elements) {
+                add(relation, cd, element);
+            }
+        }
+
+        /**
+         * Build the graph. The builder is not to be used afterwards.
+         */
+        public ApiGraph build() {
+            int classes = classIds.size();
+            Doc[] docs = elements.toArray(new Doc[elements.size()]);
+            int[][] offsets = new int[relations.length][];
+            int[][] targets = new int[relations.length][];
+            for (int r = 0; r < relations.length; r++) {
+                int n = count[r];
+                int[] off = new int[classes + 1];
+                for (int i = 0; i < n; i++) {
+                    off[from[r][i] + 1]++;
+                }
+                for (int c = 0; c < classes; c++) {
+                    off[c + 1] += off[c];
+                }
+                int[] next = Arrays.copyOf(off, classes);
+                int[] ids = new int[n];
+                for (int i = 0; i < n; i++) {
+                    ids[next[from[r][i]]++] = to[r][i];
+                }
+                from[r] = null;
+                to[r] = null;
+                if (relations[r].sorted) {
+                    int size = 0;
+                    for (int c = 0; c < classes; c++) {
+                        int start = off[c];
+                        off[c] = size;
+                        size = arrange(docs, ids, start, off[c + 1], size,
+                                relations[r].unique);
+                    }
+                    off[classes] = size;
+                    ids = size == n ? ids : Arrays.copyOf(ids, size);
+                }
+                offsets[r] = off;
+                targets[r] = ids;
+            }
+            return new ApiGraph(classIds, docs, offsets, targets);
+        }
+
+        /**
+         * Sort the ids in the range by their elements and move them to
+         * {@code dest}, dropping duplicates if requested.
+         *
+         * @return the end of the moved range
+         */
+        private static int arrange(final Doc[] docs, int[] ids, int start, int end,
+                int dest, boolean unique) {
+            Integer[] range = new Integer[end - start];
+            for (int i = 0; i < range.length; i++) {
+                range[i] = ids[start + i];
+            }
+            // a stable sort, so equal elements stay in the order they came in
+            Arrays.sort(range, (a, b) -> docs[a].compareTo(docs[b]));
+            for (int i = 0; i < range.length; i++) {
+                if (unique && i > 0 && docs[range[i]].compareTo(docs[ids[dest - 1]]) == 0) {
+                    continue;
+                }
+                ids[dest++] = range[i];
+            }
+            return dest;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.javadoc.*;
+
+/**
+ * A single walk over all the classes of the run and their members. The
+ * pages listing the whole API, such as the index, the class tree or the
+ * deprecated list, each need to look at every class. Instead of each of
+ * them walking the classes again, they register a {@link Collector} and
+ * all of them are fed by one walk.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public final class ApiModelPass {
+
+    /**
+     * Collects data about the classes of the run.
+     */
+    public interface Collector {
+        /**
+         * Called for each class, in the order of the classes of the run.
+         *
+         * @param cd the class
+         * @param members the members of the class, shared by all the
+         *     collectors
+         */
+        void visitClass(ClassDoc cd, Members members);
+
+        /**
+         * Called once all the classes were visited.
+         */
+        void finish();
+    }
+
+    /**
+     * The members of the visited class. Each kind of members is asked
+     * from the class only once, when a collector first needs it. The
+     * arrays must not be modified.
+     */
+    public static final class Members {
+        private final ClassDoc cd;
+        private FieldDoc[] fields;
+        private MethodDoc[] methods;
+        private ConstructorDoc[] constructors;
+        private FieldDoc[] enumConstants;
+        private AnnotationTypeElementDoc[] elements;
+
+        Members(ClassDoc cd) {
+            this.cd = cd;
+        }
+
+        public FieldDoc[] fields() {
+            if (fields == null) {
+                fields = cd.fields();
+            }
+            return fields;
+        }
+
+        public MethodDoc[] methods() {
+            if (methods == null) {
+                methods = cd.methods();
+            }
+            return methods;
+        }
+
+        public ConstructorDoc[] constructors() {
+            if (constructors == null) {
+                constructors = cd.constructors();
+            }
+            return constructors;
+        }
+
+        public FieldDoc[] enumConstants() {
+            if (enumConstants == null) {
+                enumConstants = cd.enumConstants();
+            }
+            return enumConstants;
+        }
+
+        /**
+         * The elements of an annotation type, none for other classes.
+         */
+        public AnnotationTypeElementDoc[] elements() {
+            if (elements == null) {
+                elements = cd instanceof AnnotationTypeDoc
+                        ? ((AnnotationTypeDoc) cd).elements()
+                        : new AnnotationTypeElementDoc[0];
+            }
+            return elements;
+        }
+    }
+
+    private final List<Collector> collectors = new ArrayList<Collector>();
+    private boolean walked;
+
+    /**
+     * Register a collector. It has to be registered before the walk.
+     *
+     * @param collector the collector
+     * @return the collector
+     */
+    public <C extends Collector> C add(C collector) {
+        if (walked) {
+            throw new IllegalStateException("Already walked: " + collector);
+        }
+        collectors.add(collector);
+        return collector;
+    }
+
+    /**
+     * Find a registered collector.
+     *
+     * @param type the type of the collector
+     * @return the first registered collector of the type or null
+     */
+    public <C extends Collector> C get(Class<C> type) {
+        for (Collector collector : collectors) {
+            if (type.isInstance(collector)) {
+                return type.cast(collector);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visit all the classes with all the collectors and let them finish.
+     *
+     * @param classes the classes of the run
+     */
+    public void walk(ClassDoc[] classes) {
+        walked = true;
+        for (ClassDoc cd : classes) {
+            Members members = new Members(cd);
+            for (Collector collector : collectors) {
+                collector.visitClass(cd, members);
+            }
+        }
+        for (Collector collector : collectors) {
+            collector.finish();
+        }
+    }
+}
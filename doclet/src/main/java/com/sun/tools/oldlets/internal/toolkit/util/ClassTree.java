@@ -49,17 +49,23 @@ import com.sun.tools.oldlets.internal.toolkit.*;
  */
 public class ClassTree {
 
+    private static final ApiGraph.Relation<ClassDoc> SUBCLASSES =
+            new ApiGraph.Relation<ClassDoc>(0, false, false);
+    private static final ApiGraph.Relation<ClassDoc> SUBINTERFACES =
+            new ApiGraph.Relation<ClassDoc>(1, false, false);
+    private static final ApiGraph.Relation<ClassDoc> SUBENUMS =
+            new ApiGraph.Relation<ClassDoc>(2, false, false);
+    private static final ApiGraph.Relation<ClassDoc> SUBANNOTATIONTYPES =
+            new ApiGraph.Relation<ClassDoc>(3, false, false);
+    private static final ApiGraph.Relation<ClassDoc> IMPLEMENTINGCLASSES =
+            new ApiGraph.Relation<ClassDoc>(4, false, false);
+
     /**
      * List of baseclasses. Contains only java.lang.Object. Can be used to get
      * the mapped listing of sub-classes.
      */
     private List<ClassDoc> baseclasses = new ArrayList<ClassDoc>();
 
-    /**
-    * Mapping for each Class with their SubClasses
-    */
-    private Map<ClassDoc,List<ClassDoc>> subclasses = new HashMap<ClassDoc,List<ClassDoc>>();
-
     /**
      * List of base-interfaces. Contains list of all the interfaces who do not
      * have super-interfaces. Can be used to get the mapped listing of
@@ -67,21 +73,15 @@ public class ClassTree {
      */
     private List<ClassDoc> baseinterfaces = new ArrayList<ClassDoc>();
 
-    /**
-    * Mapping for each Interface with their SubInterfaces
-    */
-    private Map<ClassDoc,List<ClassDoc>> subinterfaces = new HashMap<ClassDoc,List<ClassDoc>>();
-
     private List<ClassDoc> baseEnums = new ArrayList<ClassDoc>();
-    private Map<ClassDoc,List<ClassDoc>> subEnums = new HashMap<ClassDoc,List<ClassDoc>>();
 
     private List<ClassDoc> baseAnnotationTypes = new ArrayList<ClassDoc>();
-    private Map<ClassDoc,List<ClassDoc>> subAnnotationTypes = new HashMap<ClassDoc,List<ClassDoc>>();
 
     /**
-    * Mapping for each Interface with classes who implement it.
-    */
-    private Map<ClassDoc,List<ClassDoc>> implementingclasses = new HashMap<ClassDoc,List<ClassDoc>>();
+     * The sub-classes, sub-interfaces, sub-enums and sub-annotation types
+     * of each type, and the classes implementing each interface.
+     */
+    private ApiGraph graph;
 
     /**
      * Constructor. Build the Tree using the Root of this Javadoc run.
@@ -92,7 +92,19 @@ public class ClassTree {
      */
     public ClassTree(Configuration configuration, boolean noDeprecated) {
         configuration.message.notice("doclet.Building_Tree");
-        buildTree(configuration.root.classes(), configuration);
+        graph = new TreeBuilder(configuration).buildTree(configuration.root.classes());
+    }
+
+    /**
+     * Constructor. The tree is built from the classes visited by the walk
+     * over the API, it can only be used once the walk is over.
+     *
+     * @param configuration the configuration of the doclet.
+     * @param pass the walk over all the classes of the run.
+     */
+    public ClassTree(Configuration configuration, ApiModelPass pass) {
+        configuration.message.notice("doclet.Building_Tree");
+        pass.add(new TreeBuilder(configuration));
     }
 
     /**
@@ -102,7 +114,7 @@ public class ClassTree {
      * @param configuration The curren configuration of the doclet.
      */
     public ClassTree(RootDoc root, Configuration configuration) {
-        buildTree(root.classes(), configuration);
+        graph = new TreeBuilder(configuration).buildTree(root.classes());
     }
 
     /**
@@ -112,155 +124,194 @@ public class ClassTree {
      * @param configuration The curren configuration of the doclet.
      */
     public ClassTree(ClassDoc[] classes, Configuration configuration) {
-        buildTree(classes, configuration);
+        graph = new TreeBuilder(configuration).buildTree(classes);
     }
 
     /**
-     * Generate mapping for the sub-classes for every class in this run.
-     * Return the sub-class list for java.lang.Object which will be having
-     * sub-class listing for itself and also for each sub-class itself will
-     * have their own sub-class lists.
-     *
-     * @param classes all the classes in this run.
-     * @param configuration the current configuration of the doclet.
+     * The maps used while the tree is built. They are turned into the
+     * graph once complete.
      */
-    private void buildTree(ClassDoc[] classes, Configuration configuration) {
-        for (int i = 0; i < classes.length; i++) {
+    private final class TreeBuilder implements ApiModelPass.Collector {
+        private final Configuration configuration;
+
+        /**
+        * Mapping for each Class with their SubClasses
+        */
+        private Map<ClassDoc,List<ClassDoc>> subclasses = new HashMap<ClassDoc,List<ClassDoc>>();
+
+        /**
+        * Mapping for each Interface with their SubInterfaces
+        */
+        private Map<ClassDoc,List<ClassDoc>> subinterfaces = new HashMap<ClassDoc,List<ClassDoc>>();
+
+        private Map<ClassDoc,List<ClassDoc>> subEnums = new HashMap<ClassDoc,List<ClassDoc>>();
+
+        private Map<ClassDoc,List<ClassDoc>> subAnnotationTypes = new HashMap<ClassDoc,List<ClassDoc>>();
+
+        /**
+        * Mapping for each Interface with classes who implement it.
+        */
+        private Map<ClassDoc,List<ClassDoc>> implementingclasses = new HashMap<ClassDoc,List<ClassDoc>>();
+
+        TreeBuilder(Configuration configuration) {
+            this.configuration = configuration;
+        }
+
+        /**
+         * Generate mapping for the sub-classes for every class in this run.
+         * Return the sub-class list for java.lang.Object which will be having
+         * sub-class listing for itself and also for each sub-class itself will
+         * have their own sub-class lists.
+         *
+         * @param classes all the classes in this run.
+         */
+        ApiGraph buildTree(ClassDoc[] classes) {
+            for (int i = 0; i < classes.length; i++) {
+                visitClass(classes[i], null);
+            }
+            return freeze();
+        }
+
+        @Override
+        public void visitClass(ClassDoc cd, ApiModelPass.Members members) {
             // In the tree page (e.g overview-tree.html) do not include
             // information of classes which are deprecated or are a part of a
             // deprecated package.
             if (configuration.nodeprecated &&
-                    (Util.isDeprecated(classes[i]) ||
-                    Util.isDeprecated(classes[i].containingPackage()))) {
-                continue;
+                    (Util.isDeprecated(cd) ||
+                    Util.isDeprecated(cd.containingPackage()))) {
+                return;
             }
 
             if (configuration.javafx
-                    && classes[i].tags("treatAsPrivate").length > 0) {
-                continue;
+                    && cd.tags("treatAsPrivate").length > 0) {
+                return;
             }
 
-            if (classes[i].isEnum()) {
-                processType(classes[i], configuration, baseEnums, subEnums);
-            } else if (classes[i].isClass()) {
-                processType(classes[i], configuration, baseclasses, subclasses);
-            } else if (classes[i].isInterface()) {
-                processInterface(classes[i]);
-                List<ClassDoc> list = implementingclasses.get(classes[i]);
-                if (list != null) {
-                    Collections.sort(list);
-                }
-            } else if (classes[i].isAnnotationType()) {
-                processType(classes[i], configuration, baseAnnotationTypes,
+            if (cd.isEnum()) {
+                processType(cd, configuration, baseEnums, subEnums);
+            } else if (cd.isClass()) {
+                processType(cd, configuration, baseclasses, subclasses);
+            } else if (cd.isInterface()) {
+                processInterface(cd);
+            } else if (cd.isAnnotationType()) {
+                processType(cd, configuration, baseAnnotationTypes,
                     subAnnotationTypes);
             }
         }
 
-        Collections.sort(baseinterfaces);
-        for (Iterator<List<ClassDoc>> it = subinterfaces.values().iterator(); it.hasNext(); ) {
-            Collections.sort(it.next());
+        @Override
+        public void finish() {
+            graph = freeze();
         }
-        for (Iterator<List<ClassDoc>> it = subclasses.values().iterator(); it.hasNext(); ) {
-            Collections.sort(it.next());
-        }
-    }
 
-    /**
-     * For the class passed map it to it's own sub-class listing.
-     * For the Class passed, get the super class,
-     * if superclass is non null, (it is not "java.lang.Object")
-     *    get the "value" from the hashmap for this key Class
-     *    if entry not found create one and get that.
-     *    add this Class as a sub class in the list
-     *    Recurse till hits java.lang.Object Null SuperClass.
-     *
-     * @param cd class for which sub-class mapping to be generated.
-     * @param configuration the current configurtation of the doclet.
-     */
-    private void processType(ClassDoc cd, Configuration configuration,
-            List<ClassDoc> bases, Map<ClassDoc,List<ClassDoc>> subs) {
-        ClassDoc superclass = Util.getFirstVisibleSuperClassCD(cd, configuration);
-        if (superclass != null) {
-            if (!add(subs, superclass, cd)) {
-                return;
-            } else {
-                processType(superclass, configuration, bases, subs);
+        private ApiGraph freeze() {
+            Collections.sort(baseinterfaces);
+            for (Iterator<List<ClassDoc>> it = subinterfaces.values().iterator(); it.hasNext(); ) {
+                Collections.sort(it.next());
             }
-        } else {     // cd is java.lang.Object, add it once to the list
-            if (!bases.contains(cd)) {
-                bases.add(cd);
+            for (Iterator<List<ClassDoc>> it = subclasses.values().iterator(); it.hasNext(); ) {
+                Collections.sort(it.next());
             }
+
+            ApiGraph.Builder builder = new ApiGraph.Builder(SUBCLASSES,
+                    SUBINTERFACES, SUBENUMS, SUBANNOTATIONTYPES, IMPLEMENTINGCLASSES);
+            addAll(builder, SUBCLASSES, subclasses);
+            addAll(builder, SUBINTERFACES, subinterfaces);
+            addAll(builder, SUBENUMS, subEnums);
+            addAll(builder, SUBANNOTATIONTYPES, subAnnotationTypes);
+            addAll(builder, IMPLEMENTINGCLASSES, implementingclasses);
+            return builder.build();
         }
-        List<Type> intfacs = Util.getAllInterfaces(cd, configuration);
-        for (Iterator<Type> iter = intfacs.iterator(); iter.hasNext();) {
-            add(implementingclasses, iter.next().asClassDoc(), cd);
+
+        private void addAll(ApiGraph.Builder builder, ApiGraph.Relation<ClassDoc> relation,
+                Map<ClassDoc,List<ClassDoc>> map) {
+            for (Map.Entry<ClassDoc,List<ClassDoc>> e : map.entrySet()) {
+                builder.addAll(relation, e.getKey(), e.getValue());
+            }
         }
-    }
 
-    /**
-     * For the interface passed get the interfaces which it extends, and then
-     * put this interface in the sub-interface list of those interfaces. Do it
-     * recursively. If a interface doesn't have super-interface just attach
-     * that interface in the list of all the baseinterfaces.
-     *
-     * @param cd Interface under consideration.
-     */
-    private void processInterface(ClassDoc cd) {
-        ClassDoc[] intfacs = cd.interfaces();
-        if (intfacs.length > 0) {
-            for (int i = 0; i < intfacs.length; i++) {
-                if (!add(subinterfaces, intfacs[i], cd)) {
+        /**
+         * For the class passed map it to it's own sub-class listing.
+         * For the Class passed, get the super class,
+         * if superclass is non null, (it is not "java.lang.Object")
+         *    get the "value" from the hashmap for this key Class
+         *    if entry not found create one and get that.
+         *    add this Class as a sub class in the list
+         *    Recurse till hits java.lang.Object Null SuperClass.
+         *
+         * @param cd class for which sub-class mapping to be generated.
+         * @param configuration the current configurtation of the doclet.
+         */
+        private void processType(ClassDoc cd, Configuration configuration,
+                List<ClassDoc> bases, Map<ClassDoc,List<ClassDoc>> subs) {
+            ClassDoc superclass = Util.getFirstVisibleSuperClassCD(cd, configuration);
+            if (superclass != null) {
+                if (!add(subs, superclass, cd)) {
                     return;
                 } else {
-                    processInterface(intfacs[i]);   // Recurse
+                    processType(superclass, configuration, bases, subs);
+                }
+            } else {     // cd is java.lang.Object, add it once to the list
+                if (!bases.contains(cd)) {
+                    bases.add(cd);
                 }
             }
-        } else {
-            // we need to add all the interfaces who do not have
-            // super-interfaces to baseinterfaces list to traverse them
-            if (!baseinterfaces.contains(cd)) {
-                baseinterfaces.add(cd);
+            List<Type> intfacs = Util.getAllInterfaces(cd, configuration);
+            for (Iterator<Type> iter = intfacs.iterator(); iter.hasNext();) {
+                add(implementingclasses, iter.next().asClassDoc(), cd);
             }
         }
-    }
 
-    /**
-     * Adjust the Class Tree. Add the class interface  in to it's super-class'
-     * or super-interface's sub-interface list.
-     *
-     * @param map the entire map.
-     * @param superclass java.lang.Object or the super-interface.
-     * @param cd sub-interface to be mapped.
-     * @returns boolean true if class added, false if class already processed.
-     */
-    private boolean add(Map<ClassDoc,List<ClassDoc>> map, ClassDoc superclass, ClassDoc cd) {
-        List<ClassDoc> list = map.get(superclass);
-        if (list == null) {
-            list = new ArrayList<ClassDoc>();
-            map.put(superclass, list);
-        }
-        if (list.contains(cd)) {
-            return false;
-        } else {
-            list.add(cd);
+        /**
+         * For the interface passed get the interfaces which it extends, and then
+         * put this interface in the sub-interface list of those interfaces. Do it
+         * recursively. If a interface doesn't have super-interface just attach
+         * that interface in the list of all the baseinterfaces.
+         *
+         * @param cd Interface under consideration.
+         */
+        private void processInterface(ClassDoc cd) {
+            ClassDoc[] intfacs = cd.interfaces();
+            if (intfacs.length > 0) {
+                for (int i = 0; i < intfacs.length; i++) {
+                    if (!add(subinterfaces, intfacs[i], cd)) {
+                        return;
+                    } else {
+                        processInterface(intfacs[i]);   // Recurse
+                    }
+                }
+            } else {
+                // we need to add all the interfaces who do not have
+                // super-interfaces to baseinterfaces list to traverse them
+                if (!baseinterfaces.contains(cd)) {
+                    baseinterfaces.add(cd);
+                }
+            }
         }
-        return true;
-    }
 
-    /**
-     * From the map return the list of sub-classes or sub-interfaces. If list
-     * is null create a new one and return it.
-     *
-     * @param map The entire map.
-     * @param cd class for which the sub-class list is requested.
-     * @returns List Sub-Class list for the class passed.
-     */
-    private List<ClassDoc> get(Map<ClassDoc,List<ClassDoc>> map, ClassDoc cd) {
-        List<ClassDoc> list = map.get(cd);
-        if (list == null) {
-            return new ArrayList<ClassDoc>();
+        /**
+         * Adjust the Class Tree. Add the class interface  in to it's super-class'
+         * or super-interface's sub-interface list.
+         *
+         * @param map the entire map.
+         * @param superclass java.lang.Object or the super-interface.
+         * @param cd sub-interface to be mapped.
+         * @returns boolean true if class added, false if class already processed.
+         */
+        private boolean add(Map<ClassDoc,List<ClassDoc>> map, ClassDoc superclass, ClassDoc cd) {
+            List<ClassDoc> list = map.get(superclass);
+            if (list == null) {
+                list = new ArrayList<ClassDoc>();
+                map.put(superclass, list);
+            }
+            if (list.contains(cd)) {
+                return false;
+            } else {
+                list.add(cd);
+            }
+            return true;
         }
-        return list;
     }
 
     /**
@@ -269,7 +320,7 @@ public class ClassTree {
      * @param cd class whose sub-class list is required.
      */
     public List<ClassDoc> subclasses(ClassDoc cd) {
-        return get(subclasses, cd);
+        return graph.get(SUBCLASSES, cd);
     }
 
     /**
@@ -278,7 +329,7 @@ public class ClassTree {
      * @param cd interface whose sub-interface list is required.
      */
     public List<ClassDoc> subinterfaces(ClassDoc cd) {
-        return get(subinterfaces, cd);
+        return graph.get(SUBINTERFACES, cd);
     }
 
     /**
@@ -287,7 +338,7 @@ public class ClassTree {
      * @param cd interface whose implementing-classes list is required.
      */
     public List<ClassDoc> implementingclasses(ClassDoc cd) {
-        List<ClassDoc> result = get(implementingclasses, cd);
+        List<ClassDoc> result = new ArrayList<ClassDoc>(graph.get(IMPLEMENTINGCLASSES, cd));
         List<ClassDoc> subinterfaces = allSubs(cd, false);
 
         //If class x implements a subinterface of cd, then it follows
@@ -317,13 +368,13 @@ public class ClassTree {
      */
     public List<ClassDoc> subs(ClassDoc cd, boolean isEnum) {
         if (isEnum) {
-            return get(subEnums, cd);
+            return graph.get(SUBENUMS, cd);
         } else if (cd.isAnnotationType()) {
-            return get(subAnnotationTypes, cd);
+            return graph.get(SUBANNOTATIONTYPES, cd);
         } else if (cd.isInterface()) {
-            return get(subinterfaces, cd);
+            return graph.get(SUBINTERFACES, cd);
         } else if (cd.isClass()) {
-            return get(subclasses, cd);
+            return graph.get(SUBCLASSES, cd);
         } else {
             return null;
         }
@@ -339,7 +390,7 @@ public class ClassTree {
      * enum tree.
      */
     public List<ClassDoc> allSubs(ClassDoc cd, boolean isEnum) {
-        List<ClassDoc> list = subs(cd, isEnum);
+        List<ClassDoc> list = new ArrayList<ClassDoc>(subs(cd, isEnum));
         for (int i = 0; i < list.size(); i++) {
             cd = list.get(i);
             List<ClassDoc> tlist = subs(cd, isEnum);
@@ -27,6 +27,7 @@ package com.sun.tools.oldlets.internal.toolkit.util;
 
 import com.sun.javadoc.Type;
 import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.Doc;
 import com.sun.javadoc.PackageDoc;
 import com.sun.javadoc.MemberDoc;
 import com.sun.javadoc.Parameter;
@@ -57,228 +58,232 @@ import java.util.*;
  */
 public class ClassUseMapper {
 
-    private final ClassTree classtree;
-
-    /**
-     * Mapping of ClassDocs to set of PackageDoc used by that class.
-     * Entries may be null.
-     */
-    public Map<String,Set<PackageDoc>> classToPackage = new HashMap<String,Set<PackageDoc>>();
-
-    /**
-     * Mapping of Annotations to set of PackageDoc that use the annotation.
-     */
-    public Map<String,List<PackageDoc>> classToPackageAnnotations = new HashMap<String,List<PackageDoc>>();
-
-    /**
-     * Mapping of ClassDocs to set of ClassDoc used by that class.
-     * Entries may be null.
-     */
-    public Map<String,Set<ClassDoc>> classToClass = new HashMap<String,Set<ClassDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of ClassDoc which are direct or
-     * indirect subclasses of that class.
-     * Entries may be null.
-     */
-    public Map<String,List<ClassDoc>> classToSubclass = new HashMap<String,List<ClassDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of ClassDoc which are direct or
-     * indirect subinterfaces of that interface.
-     * Entries may be null.
-     */
-    public Map<String,List<ClassDoc>> classToSubinterface = new HashMap<String,List<ClassDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of ClassDoc which implement
-     * this interface.
-     * Entries may be null.
-     */
-    public Map<String,List<ClassDoc>> classToImplementingClass = new HashMap<String,List<ClassDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of FieldDoc declared as that class.
-     * Entries may be null.
-     */
-    public Map<String,List<FieldDoc>> classToField = new HashMap<String,List<FieldDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of MethodDoc returning that class.
-     * Entries may be null.
-     */
-    public Map<String,List<MethodDoc>> classToMethodReturn = new HashMap<String,List<MethodDoc>>();
+    /** The packages annotated with an annotation type. */
+    public static final ApiGraph.Relation<PackageDoc> PACKAGE_ANNOTATIONS =
+            new ApiGraph.Relation<PackageDoc>(0, true, false);
 
     /**
-     * Mapping of ClassDocs to list of MethodDoc having that class
-     * as an arg.
-     * Entries may be null.
+     * The packages using a class. There is no entry for a class used
+     * only by package annotations.
      */
-    public Map<String,List<ExecutableMemberDoc>> classToMethodArgs = new HashMap<String,List<ExecutableMemberDoc>>();
+    public static final ApiGraph.Relation<PackageDoc> PACKAGES =
+            new ApiGraph.Relation<PackageDoc>(1, true, true);
+
+    /** The classes using a class. */
+    public static final ApiGraph.Relation<ClassDoc> CLASSES =
+            new ApiGraph.Relation<ClassDoc>(2, true, true);
+
+    /** The direct or indirect subclasses of a class. */
+    public static final ApiGraph.Relation<ClassDoc> SUBCLASSES =
+            new ApiGraph.Relation<ClassDoc>(3, true, false);
+
+    /** The direct or indirect subinterfaces of an interface. */
+    public static final ApiGraph.Relation<ClassDoc> SUBINTERFACES =
+            new ApiGraph.Relation<ClassDoc>(4, true, false);
+
+    /** The classes implementing an interface. */
+    public static final ApiGraph.Relation<ClassDoc> IMPLEMENTING_CLASSES =
+            new ApiGraph.Relation<ClassDoc>(5, true, false);
+
+    /** The fields declared as a class. */
+    public static final ApiGraph.Relation<FieldDoc> FIELDS =
+            new ApiGraph.Relation<FieldDoc>(6, true, false);
+
+    /** The methods returning a class. */
+    public static final ApiGraph.Relation<MethodDoc> METHOD_RETURNS =
+            new ApiGraph.Relation<MethodDoc>(7, true, false);
+
+    /** The methods having a class as an argument. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> METHOD_ARGS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(8, true, false);
+
+    /** The methods throwing a class. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> METHOD_THROWS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(9, true, false);
+
+    /** The constructors having a class as an argument. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> CONSTRUCTOR_ARGS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(10, true, false);
+
+    /** The constructors throwing a class. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> CONSTRUCTOR_THROWS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(11, true, false);
+
+    /** The constructors annotated with an annotation type. */
+    public static final ApiGraph.Relation<ConstructorDoc> CONSTRUCTOR_ANNOTATIONS =
+            new ApiGraph.Relation<ConstructorDoc>(12, true, false);
+
+    /** The constructors with parameters annotated with an annotation type. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> CONSTRUCTOR_PARAM_ANNOTATIONS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(13, true, false);
+
+    /** The constructors with arguments using a class as type parameter. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> CONSTRUCTOR_ARG_TYPE_PARAMS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(14, true, false);
+
+    /** The classes using a class as type parameter. */
+    public static final ApiGraph.Relation<ClassDoc> CLASS_TYPE_PARAMS =
+            new ApiGraph.Relation<ClassDoc>(15, true, false);
+
+    /** The classes annotated with an annotation type. */
+    public static final ApiGraph.Relation<ClassDoc> CLASS_ANNOTATIONS =
+            new ApiGraph.Relation<ClassDoc>(16, true, false);
+
+    /** The methods using a class as type parameter. */
+    public static final ApiGraph.Relation<MethodDoc> METHOD_TYPE_PARAMS =
+            new ApiGraph.Relation<MethodDoc>(17, true, false);
+
+    /** The methods with arguments using a class as type parameter. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> METHOD_ARG_TYPE_PARAMS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(18, true, false);
+
+    /** The methods annotated with an annotation type. */
+    public static final ApiGraph.Relation<MethodDoc> METHOD_ANNOTATIONS =
+            new ApiGraph.Relation<MethodDoc>(19, true, false);
+
+    /** The methods with return type using a class as type parameter. */
+    public static final ApiGraph.Relation<MethodDoc> METHOD_RETURN_TYPE_PARAMS =
+            new ApiGraph.Relation<MethodDoc>(20, true, false);
+
+    /** The methods with parameters annotated with an annotation type. */
+    public static final ApiGraph.Relation<ExecutableMemberDoc> METHOD_PARAM_ANNOTATIONS =
+            new ApiGraph.Relation<ExecutableMemberDoc>(21, true, false);
+
+    /** The fields using a class as type parameter. */
+    public static final ApiGraph.Relation<FieldDoc> FIELD_TYPE_PARAMS =
+            new ApiGraph.Relation<FieldDoc>(22, true, false);
+
+    /** The fields annotated with an annotation type. */
+    public static final ApiGraph.Relation<FieldDoc> FIELD_ANNOTATIONS =
+            new ApiGraph.Relation<FieldDoc>(23, true, false);
+
+    private static final ApiGraph.Relation<?>[] RELATIONS = {
+        PACKAGE_ANNOTATIONS, PACKAGES, CLASSES, SUBCLASSES, SUBINTERFACES,
+        IMPLEMENTING_CLASSES, FIELDS, METHOD_RETURNS, METHOD_ARGS,
+        METHOD_THROWS, CONSTRUCTOR_ARGS, CONSTRUCTOR_THROWS,
+        CONSTRUCTOR_ANNOTATIONS, CONSTRUCTOR_PARAM_ANNOTATIONS,
+        CONSTRUCTOR_ARG_TYPE_PARAMS, CLASS_TYPE_PARAMS, CLASS_ANNOTATIONS,
+        METHOD_TYPE_PARAMS, METHOD_ARG_TYPE_PARAMS, METHOD_ANNOTATIONS,
+        METHOD_RETURN_TYPE_PARAMS, METHOD_PARAM_ANNOTATIONS,
+        FIELD_TYPE_PARAMS, FIELD_ANNOTATIONS
+    };
 
-    /**
-     * Mapping of ClassDocs to list of MethodDoc which throws that class.
-     * Entries may be null.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToMethodThrows = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of ConstructorDoc having that class
-     * as an arg.
-     * Entries may be null.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToConstructorArgs = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * Mapping of ClassDocs to list of ConstructorDoc which throws that class.
-     * Entries may be null.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToConstructorThrows = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * The mapping of AnnotationTypeDocs to constructors that use them.
-     */
-    public Map<String,List<ConstructorDoc>> classToConstructorAnnotations = new HashMap<String,List<ConstructorDoc>>();
-
-    /**
-     * The mapping of AnnotationTypeDocs to Constructor parameters that use them.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToConstructorParamAnnotation = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * The mapping of ClassDocs to Constructor arguments that use them as type parameters.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToConstructorDocArgTypeParam = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * The mapping of ClassDocs to ClassDocs that use them as type parameters.
-     */
-    public Map<String,List<ClassDoc>> classToClassTypeParam = new HashMap<String,List<ClassDoc>>();
-
-    /**
-     * The mapping of AnnotationTypeDocs to ClassDocs that use them.
-     */
-    public Map<String,List<ClassDoc>> classToClassAnnotations = new HashMap<String,List<ClassDoc>>();
-
-    /**
-     * The mapping of ClassDocs to ExecutableMemberDocs that use them as type parameters.
-     */
-    public Map<String,List<MethodDoc>> classToExecMemberDocTypeParam = new HashMap<String,List<MethodDoc>>();
-
-    /**
-     * The mapping of ClassDocs to ExecutableMemberDocs arguments that use them as type parameters.
-     */
-    public Map<String,List<ExecutableMemberDoc>> classToExecMemberDocArgTypeParam = new HashMap<String,List<ExecutableMemberDoc>>();
-
-    /**
-     * The mapping of AnnotationTypeDocs to ExecutableMemberDocs that use them.
-     */
-    public Map<String,List<MethodDoc>> classToExecMemberDocAnnotations = new HashMap<String,List<MethodDoc>>();
-
-    /**
-     * The mapping of ClassDocs to ExecutableMemberDocs that have return type
-     * with type parameters of that class.
-     */
-    public Map<String,List<MethodDoc>> classToExecMemberDocReturnTypeParam = new HashMap<String,List<MethodDoc>>();
+    private final ClassTree classtree;
 
     /**
-     * The mapping of AnnotationTypeDocs to MethodDoc parameters that use them.
+     * All the relations, the elements of each class sorted.
      */
-    public Map<String,List<ExecutableMemberDoc>> classToExecMemberDocParamAnnotation = new HashMap<String,List<ExecutableMemberDoc>>();
+    private final ApiGraph graph;
 
     /**
-     * The mapping of ClassDocs to FieldDocs that use them as type parameters.
+     * Map the uses of all the classes of the run.
+     *
+     * @param root the root of this run.
+     * @param classtree the class tree of the run.
      */
-    public Map<String,List<FieldDoc>> classToFieldDocTypeParam = new HashMap<String,List<FieldDoc>>();
+    public ClassUseMapper(RootDoc root, ClassTree classtree) {
+        this(classtree, Collections.singletonList(scanAll(root.classes())));
+    }
 
     /**
-     * The mapping of AnnotationTypeDocs to FieldDocs that use them.
+     * Map the uses of classes found by the scans.
+     *
+     * @param classtree the class tree of the run.
+     * @param scans the scans of all the classes of the run, in the order
+     *     of the classes
      */
-    public Map<String,List<FieldDoc>> annotationToFieldDoc = new HashMap<String,List<FieldDoc>>();
-
-
-    public ClassUseMapper(RootDoc root, ClassTree classtree) {
+    public ClassUseMapper(ClassTree classtree, List<Scan> scans) {
         this.classtree = classtree;
+        ApiGraph.Builder builder = new ApiGraph.Builder(RELATIONS);
+        Map<ClassDoc, Collection<ClassDoc>> subclasses = new HashMap<ClassDoc, Collection<ClassDoc>>();
+        Map<ClassDoc, Collection<ClassDoc>> subinterfaces = new HashMap<ClassDoc, Collection<ClassDoc>>();
+        Map<ClassDoc, Collection<ClassDoc>> implementing = new HashMap<ClassDoc, Collection<ClassDoc>>();
 
         // Map subclassing, subinterfacing implementing, ...
         for (Iterator<ClassDoc> it = classtree.baseclasses().iterator(); it.hasNext();) {
-            subclasses(it.next());
+            subclasses(builder, subclasses, it.next());
         }
         for (Iterator<ClassDoc> it = classtree.baseinterfaces().iterator(); it.hasNext();) {
             // does subinterfacing as side-effect
-            implementingClasses(it.next());
+            implementingClasses(builder, subclasses, subinterfaces, implementing, it.next());
         }
         // Map methods, fields, constructors using a class.
-        ClassDoc[] classes = root.classes();
-        for (int i = 0; i < classes.length; i++) {
-            PackageDoc pkg = classes[i].containingPackage();
-            mapAnnotations(classToPackageAnnotations, pkg, pkg);
-            ClassDoc cd = classes[i];
-            mapTypeParameters(classToClassTypeParam, cd, cd);
-            mapAnnotations(classToClassAnnotations, cd, cd);
-            FieldDoc[] fields = cd.fields();
-            for (int j = 0; j < fields.length; j++) {
-                FieldDoc fd = fields[j];
-                mapTypeParameters(classToFieldDocTypeParam, fd, fd);
-                mapAnnotations(annotationToFieldDoc, fd, fd);
-                if (! fd.type().isPrimitive()) {
-                    add(classToField, fd.type().asClassDoc(), fd);
-                }
-            }
-            ConstructorDoc[] cons = cd.constructors();
-            for (int j = 0; j < cons.length; j++) {
-                mapAnnotations(classToConstructorAnnotations, cons[j], cons[j]);
-                mapExecutable(cons[j]);
-            }
-            MethodDoc[] meths = cd.methods();
-            for (int j = 0; j < meths.length; j++) {
-                MethodDoc md = meths[j];
-                mapExecutable(md);
-                mapTypeParameters(classToExecMemberDocTypeParam, md, md);
-                mapAnnotations(classToExecMemberDocAnnotations, md, md);
-                if (! (md.returnType().isPrimitive() || md.returnType() instanceof TypeVariable)) {
-                    mapTypeParameters(classToExecMemberDocReturnTypeParam,
-                        md.returnType(), md);
-                    add(classToMethodReturn, md.returnType().asClassDoc(), md);
-                }
-            }
+        for (Scan scan : scans) {
+            scan.addTo(builder);
         }
+        graph = builder.build();
     }
 
     /**
-     * Return all subclasses of a class AND fill-in classToSubclass map.
+     * Find the uses of classes by a range of classes. The scans of
+     * different ranges are independent, so they can run in parallel.
+     *
+     * @param classes the classes of the run
+     * @param from the first class of the range
+     * @param to the end of the range
+     * @return the uses found
      */
-    private Collection<ClassDoc> subclasses(ClassDoc cd) {
-        Collection<ClassDoc> ret = classToSubclass.get(cd.qualifiedName());
+    public static Scan scan(ClassDoc[] classes, int from, int to) {
+        Scan scan = new Scan();
+        for (int i = from; i < to; i++) {
+            scan.map(classes[i]);
+        }
+        return scan;
+    }
+
+    private static Scan scanAll(ClassDoc[] classes) {
+        return scan(classes, 0, classes.length);
+    }
+
+    /**
+     * Return the elements using a class, sorted.
+     *
+     * @param relation the kind of use
+     * @param cd the class
+     * @return an unmodifiable list, empty if the class is not used that way
+     */
+    public <T extends Doc> List<T> get(ApiGraph.Relation<T> relation, ClassDoc cd) {
+        return graph.get(relation, cd);
+    }
+
+    /**
+     * Return all subclasses of a class AND fill-in the SUBCLASSES relation.
+     */
+    private Collection<ClassDoc> subclasses(ApiGraph.Builder builder,
+            Map<ClassDoc, Collection<ClassDoc>> done, ClassDoc cd) {
+        Collection<ClassDoc> ret = done.get(cd);
         if (ret == null) {
             ret = new TreeSet<ClassDoc>();
             List<ClassDoc> subs = classtree.subclasses(cd);
             if (subs != null) {
                 ret.addAll(subs);
                 for (Iterator<ClassDoc> it = subs.iterator(); it.hasNext();) {
-                    ret.addAll(subclasses(it.next()));
+                    ret.addAll(subclasses(builder, done, it.next()));
                 }
             }
-            addAll(classToSubclass, cd, ret);
+            addAll(builder, SUBCLASSES, cd, ret);
+            done.put(cd, ret);
         }
         return ret;
     }
 
     /**
-     * Return all subinterfaces of an interface AND fill-in classToSubinterface map.
+     * Return all subinterfaces of an interface AND fill-in the SUBINTERFACES relation.
      */
-    private Collection<ClassDoc> subinterfaces(ClassDoc cd) {
-        Collection<ClassDoc> ret = classToSubinterface.get(cd.qualifiedName());
+    private Collection<ClassDoc> subinterfaces(ApiGraph.Builder builder,
+            Map<ClassDoc, Collection<ClassDoc>> done, ClassDoc cd) {
+        Collection<ClassDoc> ret = done.get(cd);
         if (ret == null) {
             ret = new TreeSet<ClassDoc>();
             List<ClassDoc> subs = classtree.subinterfaces(cd);
             if (subs != null) {
                 ret.addAll(subs);
                 for (Iterator<ClassDoc> it = subs.iterator(); it.hasNext();) {
-                    ret.addAll(subinterfaces(it.next()));
+                    ret.addAll(subinterfaces(builder, done, it.next()));
                 }
             }
-            addAll(classToSubinterface, cd, ret);
+            addAll(builder, SUBINTERFACES, cd, ret);
+            done.put(cd, ret);
         }
         return ret;
     }
@@ -286,224 +291,268 @@ public class ClassUseMapper {
     /**
      * Return all implementing classes of an interface (including
      * all subclasses of implementing classes and all classes
-     * implementing subinterfaces) AND fill-in both classToImplementingClass
-     * and classToSubinterface maps.
+     * implementing subinterfaces) AND fill-in both the IMPLEMENTING_CLASSES
+     * and SUBINTERFACES relations.
      */
-    private Collection<ClassDoc> implementingClasses(ClassDoc cd) {
-        Collection<ClassDoc> ret = classToImplementingClass.get(cd.qualifiedName());
+    private Collection<ClassDoc> implementingClasses(ApiGraph.Builder builder,
+            Map<ClassDoc, Collection<ClassDoc>> subclasses,
+            Map<ClassDoc, Collection<ClassDoc>> subinterfaces,
+            Map<ClassDoc, Collection<ClassDoc>> done, ClassDoc cd) {
+        Collection<ClassDoc> ret = done.get(cd);
         if (ret == null) {
             ret = new TreeSet<ClassDoc>();
             List<ClassDoc> impl = classtree.implementingclasses(cd);
             if (impl != null) {
                 ret.addAll(impl);
                 for (Iterator<ClassDoc> it = impl.iterator(); it.hasNext();) {
-                    ret.addAll(subclasses(it.next()));
+                    ret.addAll(subclasses(builder, subclasses, it.next()));
                 }
             }
-            for (Iterator<ClassDoc> it = subinterfaces(cd).iterator(); it.hasNext();) {
-                ret.addAll(implementingClasses(it.next()));
+            for (Iterator<ClassDoc> it = subinterfaces(builder, subinterfaces, cd).iterator(); it.hasNext();) {
+                ret.addAll(implementingClasses(builder, subclasses, subinterfaces, done, it.next()));
             }
-            addAll(classToImplementingClass, cd, ret);
+            addAll(builder, IMPLEMENTING_CLASSES, cd, ret);
+            done.put(cd, ret);
         }
         return ret;
     }
 
-    /**
-     * Determine classes used by a method or constructor, so they can be
-     * inverse mapped.
-     */
-    private void mapExecutable(ExecutableMemberDoc em) {
-        Parameter[] params = em.parameters();
-        boolean isConstructor = em.isConstructor();
-        List<Type> classArgs = new ArrayList<Type>();
-        for (int k = 0; k < params.length; k++) {
-            Type pcd = params[k].type();
-            // primitives don't get mapped, also avoid dups
-            if ((! params[k].type().isPrimitive()) &&
-                 ! classArgs.contains(pcd) &&
-                 ! (pcd instanceof TypeVariable)) {
-                add(isConstructor? classToConstructorArgs :classToMethodArgs,
-                        pcd.asClassDoc(), em);
-                classArgs.add(pcd);
-                mapTypeParameters(isConstructor?
-                   classToConstructorDocArgTypeParam : classToExecMemberDocArgTypeParam,
-                   pcd, em);
-            }
-            mapAnnotations(
-                isConstructor ?
-                    classToConstructorParamAnnotation :
-                    classToExecMemberDocParamAnnotation,
-                params[k], em);
-        }
-        ClassDoc[] thr = em.thrownExceptions();
-        for (int k = 0; k < thr.length; k++) {
-            add(isConstructor? classToConstructorThrows : classToMethodThrows,
-                    thr[k], em);
+    private static void addAll(ApiGraph.Builder builder, ApiGraph.Relation<ClassDoc> relation,
+            ClassDoc cd, Collection<ClassDoc> refs) {
+        // add to specified relation
+        builder.addAll(relation, cd, refs);
+
+        // add ref's package to package relation and class relation
+        for (Iterator<ClassDoc> it = refs.iterator(); it.hasNext();) {
+            ClassDoc cls = it.next();
+            builder.add(PACKAGES, cd, cls.containingPackage());
+            builder.add(CLASSES, cd, cls);
         }
     }
 
-    private <T> List<T> refList(Map<String,List<T>> map, ClassDoc cd) {
-        List<T> list = map.get(cd.qualifiedName());
-        if (list == null) {
-            List<T> l = new ArrayList<T>();
-            list = l;
-            map.put(cd.qualifiedName(), list);
+    /**
+     * The uses of classes found in some classes, in the order they were
+     * found.
+     */
+    public static final class Scan {
+        private int size;
+        private ApiGraph.Relation<?>[] relations = new ApiGraph.Relation<?>[64];
+        private ClassDoc[] used = new ClassDoc[64];
+        private Doc[] users = new Doc[64];
+
+        Scan() {
         }
-        return list;
-    }
 
-    private Set<PackageDoc> packageSet(ClassDoc cd) {
-        Set<PackageDoc> pkgSet = classToPackage.get(cd.qualifiedName());
-        if (pkgSet == null) {
-            pkgSet = new TreeSet<PackageDoc>();
-            classToPackage.put(cd.qualifiedName(), pkgSet);
+        private void map(ClassDoc cd) {
+            PackageDoc pkg = cd.containingPackage();
+            mapAnnotations(PACKAGE_ANNOTATIONS, pkg, pkg);
+            mapTypeParameters(CLASS_TYPE_PARAMS, cd, cd);
+            mapAnnotations(CLASS_ANNOTATIONS, cd, cd);
+            FieldDoc[] fields = cd.fields();
+            for (int j = 0; j < fields.length; j++) {
+                FieldDoc fd = fields[j];
+                mapTypeParameters(FIELD_TYPE_PARAMS, fd, fd);
+                mapAnnotations(FIELD_ANNOTATIONS, fd, fd);
+                if (! fd.type().isPrimitive()) {
+                    add(FIELDS, fd.type().asClassDoc(), fd);
+                }
+            }
+            ConstructorDoc[] cons = cd.constructors();
+            for (int j = 0; j < cons.length; j++) {
+                mapAnnotations(CONSTRUCTOR_ANNOTATIONS, cons[j], cons[j]);
+                mapExecutable(cons[j]);
+            }
+            MethodDoc[] meths = cd.methods();
+            for (int j = 0; j < meths.length; j++) {
+                MethodDoc md = meths[j];
+                mapExecutable(md);
+                mapTypeParameters(METHOD_TYPE_PARAMS, md, md);
+                mapAnnotations(METHOD_ANNOTATIONS, md, md);
+                if (! (md.returnType().isPrimitive() || md.returnType() instanceof TypeVariable)) {
+                    mapTypeParameters(METHOD_RETURN_TYPE_PARAMS,
+                        md.returnType(), md);
+                    add(METHOD_RETURNS, md.returnType().asClassDoc(), md);
+                }
+            }
         }
-        return pkgSet;
-    }
 
-    private Set<ClassDoc> classSet(ClassDoc cd) {
-        Set<ClassDoc> clsSet = classToClass.get(cd.qualifiedName());
-        if (clsSet == null) {
-            Set<ClassDoc> s = new TreeSet<ClassDoc>();
-            clsSet = s;
-            classToClass.put(cd.qualifiedName(), clsSet);
+        /**
+         * Determine classes used by a method or constructor, so they can be
+         * inverse mapped.
+         */
+        private void mapExecutable(ExecutableMemberDoc em) {
+            Parameter[] params = em.parameters();
+            boolean isConstructor = em.isConstructor();
+            List<Type> classArgs = new ArrayList<Type>();
+            for (int k = 0; k < params.length; k++) {
+                Type pcd = params[k].type();
+                // primitives don't get mapped, also avoid dups
+                if ((! params[k].type().isPrimitive()) &&
+                     ! classArgs.contains(pcd) &&
+                     ! (pcd instanceof TypeVariable)) {
+                    add(isConstructor? CONSTRUCTOR_ARGS : METHOD_ARGS,
+                            pcd.asClassDoc(), em);
+                    classArgs.add(pcd);
+                    mapTypeParameters(isConstructor?
+                       CONSTRUCTOR_ARG_TYPE_PARAMS : METHOD_ARG_TYPE_PARAMS,
+                       pcd, em);
+                }
+                mapAnnotations(
+                    isConstructor ?
+                        CONSTRUCTOR_PARAM_ANNOTATIONS :
+                        METHOD_PARAM_ANNOTATIONS,
+                    params[k], em);
+            }
+            ClassDoc[] thr = em.thrownExceptions();
+            for (int k = 0; k < thr.length; k++) {
+                add(isConstructor? CONSTRUCTOR_THROWS : METHOD_THROWS,
+                        thr[k], em);
+            }
         }
-        return clsSet;
-    }
 
-    private <T extends ProgramElementDoc> void add(Map<String,List<T>> map, ClassDoc cd, T ref) {
-        // add to specified map
-        refList(map, cd).add(ref);
+        private void record(ApiGraph.Relation<?> relation, ClassDoc cd, Doc user) {
+            if (size == used.length) {
+                relations = Arrays.copyOf(relations, size * 2);
+                used = Arrays.copyOf(used, size * 2);
+                users = Arrays.copyOf(users, size * 2);
+            }
+            relations[size] = relation;
+            used[size] = cd;
+            users[size] = user;
+            size++;
+        }
 
-        // add ref's package to package map and class map
-        packageSet(cd).add(ref.containingPackage());
+        private <T extends ProgramElementDoc> void add(ApiGraph.Relation<T> relation, ClassDoc cd, T ref) {
+            // add to specified relation
+            record(relation, cd, ref);
 
-        classSet(cd).add(ref instanceof MemberDoc?
-                ((MemberDoc)ref).containingClass() :
-                    (ClassDoc)ref);
-    }
+            // add ref's package to package relation and class relation
+            record(PACKAGES, cd, ref.containingPackage());
 
-    private void addAll(Map<String,List<ClassDoc>> map, ClassDoc cd, Collection<ClassDoc> refs) {
-        if (refs == null) {
-            return;
+            record(CLASSES, cd, ref instanceof MemberDoc?
+                    ((MemberDoc)ref).containingClass() :
+                        (ClassDoc)ref);
         }
-        // add to specified map
-        refList(map, cd).addAll(refs);
-
-        Set<PackageDoc> pkgSet = packageSet(cd);
-        Set<ClassDoc> clsSet = classSet(cd);
-        // add ref's package to package map and class map
-        for (Iterator<ClassDoc> it = refs.iterator(); it.hasNext();) {
-            ClassDoc cls = it.next();
-            pkgSet.add(cls.containingPackage());
-            clsSet.add(cls);
 
+        /**
+         * Move the uses into the builder. The scan is empty afterwards,
+         * so its memory is released while the graph is being built.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void addTo(ApiGraph.Builder builder) {
+            for (int i = 0; i < size; i++) {
+                builder.add((ApiGraph.Relation) relations[i], used[i], users[i]);
+            }
+            size = 0;
+            relations = new ApiGraph.Relation<?>[0];
+            used = new ClassDoc[0];
+            users = new Doc[0];
         }
-    }
 
-    /**
-     * Map the ClassDocs to the ProgramElementDocs that use them as
-     * type parameters.
-     *
-     * @param map the map the insert the information into.
-     * @param doc the doc whose type parameters are being checked.
-     * @param holder the holder that owns the type parameters.
-     */
-    private <T extends ProgramElementDoc> void mapTypeParameters(Map<String,List<T>> map, Object doc,
-            T holder) {
-        TypeVariable[] typeVariables;
-        if (doc instanceof ClassDoc) {
-            typeVariables = ((ClassDoc) doc).typeParameters();
-        } else if (doc instanceof WildcardType) {
-            Type[] extendsBounds = ((WildcardType) doc).extendsBounds();
-            for (int k = 0; k < extendsBounds.length; k++) {
-                addTypeParameterToMap(map, extendsBounds[k], holder);
-            }
-            Type[] superBounds = ((WildcardType) doc).superBounds();
-            for (int k = 0; k < superBounds.length; k++) {
-                addTypeParameterToMap(map, superBounds[k], holder);
-            }
-            return;
-        } else if (doc instanceof ParameterizedType) {
-            Type[] typeArguments = ((ParameterizedType) doc).typeArguments();
-            for (int k = 0; k < typeArguments.length; k++) {
-                addTypeParameterToMap(map, typeArguments[k], holder);
+        /**
+         * Map the ClassDocs to the ProgramElementDocs that use them as
+         * type parameters.
+         *
+         * @param relation the relation the insert the information into.
+         * @param doc the doc whose type parameters are being checked.
+         * @param holder the holder that owns the type parameters.
+         */
+        private <T extends ProgramElementDoc> void mapTypeParameters(ApiGraph.Relation<T> relation, Object doc,
+                T holder) {
+            TypeVariable[] typeVariables;
+            if (doc instanceof ClassDoc) {
+                typeVariables = ((ClassDoc) doc).typeParameters();
+            } else if (doc instanceof WildcardType) {
+                Type[] extendsBounds = ((WildcardType) doc).extendsBounds();
+                for (int k = 0; k < extendsBounds.length; k++) {
+                    addTypeParameterToMap(relation, extendsBounds[k], holder);
+                }
+                Type[] superBounds = ((WildcardType) doc).superBounds();
+                for (int k = 0; k < superBounds.length; k++) {
+                    addTypeParameterToMap(relation, superBounds[k], holder);
+                }
+                return;
+            } else if (doc instanceof ParameterizedType) {
+                Type[] typeArguments = ((ParameterizedType) doc).typeArguments();
+                for (int k = 0; k < typeArguments.length; k++) {
+                    addTypeParameterToMap(relation, typeArguments[k], holder);
+                }
+                return;
+            } else if (doc instanceof ExecutableMemberDoc) {
+                typeVariables = ((ExecutableMemberDoc) doc).typeParameters();
+            } else if (doc instanceof FieldDoc) {
+                Type fieldType = ((FieldDoc) doc).type();
+                mapTypeParameters(relation, fieldType, holder);
+                return;
+            } else {
+                return;
             }
-            return;
-        } else if (doc instanceof ExecutableMemberDoc) {
-            typeVariables = ((ExecutableMemberDoc) doc).typeParameters();
-        } else if (doc instanceof FieldDoc) {
-            Type fieldType = ((FieldDoc) doc).type();
-            mapTypeParameters(map, fieldType, holder);
-            return;
-        } else {
-            return;
-        }
-        for (int i = 0; i < typeVariables.length; i++) {
-            Type[] bounds = typeVariables[i].bounds();
-            for (int j = 0; j < bounds.length; j++) {
-                addTypeParameterToMap(map, bounds[j], holder);
+            for (int i = 0; i < typeVariables.length; i++) {
+                Type[] bounds = typeVariables[i].bounds();
+                for (int j = 0; j < bounds.length; j++) {
+                    addTypeParameterToMap(relation, bounds[j], holder);
+                }
             }
         }
-    }
 
-    /**
-     * Map the AnnotationType to the ProgramElementDocs that use them as
-     * type parameters.
-     *
-     * @param map the map the insert the information into.
-     * @param doc the doc whose type parameters are being checked.
-     * @param holder the holder that owns the type parameters.
-     */
-    private <T extends ProgramElementDoc> void mapAnnotations(Map<String,List<T>> map, Object doc,
-            T holder) {
-        AnnotationDesc[] annotations;
-        boolean isPackage = false;
-        if (doc instanceof ProgramElementDoc) {
-            annotations = ((ProgramElementDoc) doc).annotations();
-        } else if (doc instanceof PackageDoc) {
-            annotations = ((PackageDoc) doc).annotations();
-            isPackage = true;
-        } else if (doc instanceof Parameter) {
-            annotations = ((Parameter) doc).annotations();
-        } else {
-            throw new DocletAbortException("should not happen");
-        }
-        for (int i = 0; i < annotations.length; i++) {
-            AnnotationTypeDoc annotationDoc = annotations[i].annotationType();
-            if (isPackage)
-                refList(map, annotationDoc).add(holder);
-            else
-                add(map, annotationDoc, holder);
+        /**
+         * Map the AnnotationType to the ProgramElementDocs that use them as
+         * type parameters.
+         *
+         * @param relation the relation the insert the information into.
+         * @param doc the doc whose type parameters are being checked.
+         * @param holder the holder that owns the type parameters.
+         */
+        private <T extends ProgramElementDoc> void mapAnnotations(ApiGraph.Relation<T> relation, Object doc,
+                T holder) {
+            AnnotationDesc[] annotations;
+            boolean isPackage = false;
+            if (doc instanceof ProgramElementDoc) {
+                annotations = ((ProgramElementDoc) doc).annotations();
+            } else if (doc instanceof PackageDoc) {
+                annotations = ((PackageDoc) doc).annotations();
+                isPackage = true;
+            } else if (doc instanceof Parameter) {
+                annotations = ((Parameter) doc).annotations();
+            } else {
+                throw new DocletAbortException("should not happen");
+            }
+            for (int i = 0; i < annotations.length; i++) {
+                AnnotationTypeDoc annotationDoc = annotations[i].annotationType();
+                if (isPackage)
+                    record(relation, annotationDoc, holder);
+                else
+                    add(relation, annotationDoc, holder);
+            }
         }
-    }
 
 
-    /**
-     * Map the AnnotationType to the ProgramElementDocs that use them as
-     * type parameters.
-     *
-     * @param map the map the insert the information into.
-     * @param doc the doc whose type parameters are being checked.
-     * @param holder the holder that owns the type parameters.
-     */
-    private <T extends PackageDoc> void mapAnnotations(Map<String,List<T>> map, PackageDoc doc,
-            T holder) {
-        AnnotationDesc[] annotations;
-        annotations = doc.annotations();
-        for (int i = 0; i < annotations.length; i++) {
-            AnnotationTypeDoc annotationDoc = annotations[i].annotationType();
-            refList(map, annotationDoc).add(holder);
+        /**
+         * Map the AnnotationType to the ProgramElementDocs that use them as
+         * type parameters.
+         *
+         * @param relation the relation the insert the information into.
+         * @param doc the doc whose type parameters are being checked.
+         * @param holder the holder that owns the type parameters.
+         */
+        private <T extends PackageDoc> void mapAnnotations(ApiGraph.Relation<T> relation, PackageDoc doc,
+                T holder) {
+            AnnotationDesc[] annotations;
+            annotations = doc.annotations();
+            for (int i = 0; i < annotations.length; i++) {
+                AnnotationTypeDoc annotationDoc = annotations[i].annotationType();
+                record(relation, annotationDoc, holder);
+            }
         }
-    }
 
-    private <T extends ProgramElementDoc> void addTypeParameterToMap(Map<String,List<T>> map, Type type,
-            T holder) {
-        if (type instanceof ClassDoc) {
-            add(map, (ClassDoc) type, holder);
-        } else if (type instanceof ParameterizedType) {
-            add(map, ((ParameterizedType) type).asClassDoc(), holder);
+        private <T extends ProgramElementDoc> void addTypeParameterToMap(ApiGraph.Relation<T> relation, Type type,
+                T holder) {
+            if (type instanceof ClassDoc) {
+                add(relation, (ClassDoc) type, holder);
+            } else if (type instanceof ParameterizedType) {
+                add(relation, ((ParameterizedType) type).asClassDoc(), holder);
+            }
+            mapTypeParameters(relation, type, holder);
         }
-        mapTypeParameters(map, type, holder);
     }
 }
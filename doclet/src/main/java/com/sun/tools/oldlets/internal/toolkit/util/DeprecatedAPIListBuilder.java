@@ -29,7 +29,6 @@ import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.PackageDoc;
 import com.sun.javadoc.Doc;
 import com.sun.javadoc.MemberDoc;
-import com.sun.javadoc.AnnotationTypeDoc;
 import java.util.*;
 
 import com.sun.tools.oldlets.internal.toolkit.Configuration;
@@ -44,7 +43,7 @@ import com.sun.tools.oldlets.internal.toolkit.Configuration;
  *
  * @author Atul M Dambalkar
  */
-public class DeprecatedAPIListBuilder {
+public class DeprecatedAPIListBuilder implements ApiModelPass.Collector {
 
     public static final int NUM_TYPES = 12;
 
@@ -73,21 +72,22 @@ public class DeprecatedAPIListBuilder {
      * @param configuration the current configuration of the doclet
      */
     public DeprecatedAPIListBuilder(Configuration configuration) {
-        deprecatedLists = new ArrayList<List<Doc>>();
-        for (int i = 0; i < NUM_TYPES; i++) {
-            deprecatedLists.add(i, new ArrayList<Doc>());
-        }
-        buildDeprecatedAPIInfo(configuration);
+        this(configuration, null);
     }
 
     /**
-     * Build the sorted list of all the deprecated APIs in this run.
-     * Build separate lists for deprecated packages, classes, constructors,
-     * methods and fields.
+     * Constructor. The lists are built from the classes visited by the
+     * walk over the API, they can only be used once the walk is over.
      *
-     * @param configuration the current configuration of the doclet.
+     * @param configuration the current configuration of the doclet
+     * @param pass the walk over all the classes of the run, or null to
+     *     walk them now
      */
-    private void buildDeprecatedAPIInfo(Configuration configuration) {
+    public DeprecatedAPIListBuilder(Configuration configuration, ApiModelPass pass) {
+        deprecatedLists = new ArrayList<List<Doc>>();
+        for (int i = 0; i < NUM_TYPES; i++) {
+            deprecatedLists.add(i, new ArrayList<Doc>());
+        }
         PackageDoc[] packages = configuration.packages;
         PackageDoc pkg;
         for (int c = 0; c < packages.length; c++) {
@@ -96,35 +96,49 @@ public class DeprecatedAPIListBuilder {
                 getList(PACKAGE).add(pkg);
             }
         }
-        ClassDoc[] classes = configuration.root.classes();
-        for (int i = 0; i < classes.length; i++) {
-            ClassDoc cd = classes[i];
-            if (Util.isDeprecated(cd)) {
-                if (cd.isOrdinaryClass()) {
-                    getList(CLASS).add(cd);
-                } else if (cd.isInterface()) {
-                    getList(INTERFACE).add(cd);
-                } else if (cd.isException()) {
-                    getList(EXCEPTION).add(cd);
-                } else if (cd.isEnum()) {
-                    getList(ENUM).add(cd);
-                } else if (cd.isError()) {
-                    getList(ERROR).add(cd);
-                } else if (cd.isAnnotationType()) {
-                    getList(ANNOTATION_TYPE).add(cd);
-                }
-            }
-            composeDeprecatedList(getList(FIELD), cd.fields());
-            composeDeprecatedList(getList(METHOD), cd.methods());
-            composeDeprecatedList(getList(CONSTRUCTOR), cd.constructors());
-            if (cd.isEnum()) {
-                composeDeprecatedList(getList(ENUM_CONSTANT), cd.enumConstants());
-            }
-            if (cd.isAnnotationType()) {
-                composeDeprecatedList(getList(ANNOTATION_TYPE_MEMBER),
-                        ((AnnotationTypeDoc) cd).elements());
+        if (pass == null) {
+            pass = new ApiModelPass();
+            pass.add(this);
+            pass.walk(configuration.root.classes());
+        } else {
+            pass.add(this);
+        }
+    }
+
+    /**
+     * Add the class and its members to the lists of deprecated APIs of
+     * their kinds.
+     */
+    @Override
+    public void visitClass(ClassDoc cd, ApiModelPass.Members members) {
+        if (Util.isDeprecated(cd)) {
+            if (cd.isOrdinaryClass()) {
+                getList(CLASS).add(cd);
+            } else if (cd.isInterface()) {
+                getList(INTERFACE).add(cd);
+            } else if (cd.isException()) {
+                getList(EXCEPTION).add(cd);
+            } else if (cd.isEnum()) {
+                getList(ENUM).add(cd);
+            } else if (cd.isError()) {
+                getList(ERROR).add(cd);
+            } else if (cd.isAnnotationType()) {
+                getList(ANNOTATION_TYPE).add(cd);
             }
         }
+        composeDeprecatedList(getList(FIELD), members.fields());
+        composeDeprecatedList(getList(METHOD), members.methods());
+        composeDeprecatedList(getList(CONSTRUCTOR), members.constructors());
+        if (cd.isEnum()) {
+            composeDeprecatedList(getList(ENUM_CONSTANT), members.enumConstants());
+        }
+        if (cd.isAnnotationType()) {
+            composeDeprecatedList(getList(ANNOTATION_TYPE_MEMBER), members.elements());
+        }
+    }
+
+    @Override
+    public void finish() {
         sortDeprecatedLists();
     }
 
@@ -35,6 +35,12 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
 
 import javax.tools.JavaFileManager.Location;
 import javax.tools.StandardLocation;
@@ -53,6 +59,8 @@ import com.sun.tools.oldlets.internal.toolkit.Configuration;
  * @since 8
  */
 public abstract class DocFile {
+    /** Source of unique names for temporary files. */
+    private static final Random TEMP_NAMES = new Random();
 
     /** Create a DocFile for a directory. */
     public static DocFile createFileForDirectory(Configuration configuration, String file) {
@@ -95,6 +103,14 @@ public abstract class DocFile {
         return DocFileFactory.getFactory(configuration).list(location, path);
     }
 
+    /**
+     * Complete the output once all the files have been written. Output
+     * written into an archive is stored only now.
+     */
+    public static void finishOutput(Configuration configuration) throws IOException {
+        DocFileFactory.getFactory(configuration).finishOutput();
+    }
+
     /** Create a DocFile without a location or path */
     protected DocFile(Configuration configuration) {
         this.configuration = configuration;
@@ -128,12 +144,88 @@ public abstract class DocFile {
      */
     public abstract Writer openWriter() throws IOException, UnsupportedEncodingException;
 
+    /**
+     * Replace the contents of the file by the given bytes.
+     * The file must have been created with a location of
+     * {@link DocumentationTool.Location#DOCUMENTATION_OUTPUT} and a corresponding relative path.
+     * Files on a file system are written under a temporary name and renamed
+     * once complete, so a partially written file is never visible.
+     *
+     * @return false if the file already had the same content and was
+     *     left untouched, as requested by {@code -skipunchanged}
+     */
+    public boolean write(byte[] bytes, int length) throws IOException {
+        OutputStream out = openOutputStream();
+        try {
+            out.write(bytes, 0, length);
+        } finally {
+            out.close();
+        }
+        return true;
+    }
+
+    /**
+     * Write the bytes into a temporary file next to the target and rename
+     * it to the target. There is no sync, the rename only guarantees
+     * that readers see either the old or the new content. The temporary
+     * file is created as any other output file, so it keeps the usual
+     * permissions.
+     *
+     * @param skipUnchanged if true and the target has the same content,
+     *     it is not touched at all, so its time stamp stays the same
+     * @return false if the target was left untouched
+     */
+    static boolean replace(Path target, byte[] bytes, int length, boolean skipUnchanged)
+            throws IOException {
+        target = target.toAbsolutePath();
+        if (skipUnchanged && hasContent(target, bytes, length)) {
+            return false;
+        }
+        Path dir = target.getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(target.getFileName() + "."
+                + Long.toHexString(TEMP_NAMES.nextLong() & Long.MAX_VALUE) + ".tmp");
+        try {
+            OutputStream out = Files.newOutputStream(tmp, StandardOpenOption.CREATE_NEW);
+            try {
+                out.write(bytes, 0, length);
+            } finally {
+                out.close();
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return true;
+    }
+
+    private static boolean hasContent(Path file, byte[] bytes, int length) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != length) {
+            return false;
+        }
+        byte[] existing = Files.readAllBytes(file);
+        if (existing.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (existing[i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Copy the contents of another file directly to this file.
      */
     public void copyFile(DocFile fromFile) throws IOException {
         InputStream input = fromFile.openInputStream();
-        OutputStream output = openOutputStream();
+        OutputStream output = configuration.writeBehind.openOutputStream(this);
         try {
             byte[] bytearr = new byte[1024];
             int len;
@@ -165,7 +257,7 @@ public abstract class DocFile {
             if (in == null)
                 return;
 
-            OutputStream out = openOutputStream();
+            OutputStream out = configuration.writeBehind.openOutputStream(this);
             try {
                 if (!replaceNewLine) {
                     byte[] buf = new byte[2048];
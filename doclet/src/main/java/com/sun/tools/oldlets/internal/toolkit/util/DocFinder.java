@@ -31,7 +31,9 @@ import com.sun.javadoc.ProgramElementDoc;
 import com.sun.javadoc.Tag;
 import com.sun.javadoc.MethodDoc;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
 import com.sun.tools.oldlets.internal.toolkit.taglets.*;
 
 /**
@@ -176,6 +178,70 @@ public class DocFinder {
          * multiple tag inheritence.
          */
         public List<Tag> tagList  = new ArrayList<Tag>();
+
+        Output copy() {
+            Output clone = new Output();
+            clone.holderTag = this.holderTag;
+            clone.holder = this.holder;
+            clone.inlineTags = this.inlineTags;
+            clone.isValidInheritDocTag = this.isValidInheritDocTag;
+            clone.tagList = new ArrayList<Tag>(this.tagList);
+            return clone;
+        }
+    }
+
+    /**
+     * The results of the searches made in a run. The same member is
+     * searched for each kind of tag, and again for every class that
+     * inherits or overrides it.
+     */
+    public static final class Cache {
+        private final Map<Key, Output> outputs = new ConcurrentHashMap<Key, Output>();
+    }
+
+    /**
+     * The state of an {@link Input} that the search depends on. The tag
+     * is only looked at by the taglets as long as there is no tag id.
+     * The doclet hands out a new wrapper of an element or a tag on every
+     * call, so they are compared by {@code equals}, which the wrappers
+     * forward to the elements of the model.
+     */
+    private static final class Key {
+        private final ProgramElementDoc element;
+        private final InheritableTaglet taglet;
+        private final String tagId;
+        private final Tag tag;
+        private final int flags;
+
+        Key(Input input) {
+            this.element = input.element;
+            this.taglet = input.taglet;
+            this.tagId = input.tagId;
+            this.tag = input.taglet != null && input.tagId == null ? input.tag : null;
+            this.flags = (input.isFirstSentence ? 1 : 0)
+                    | (input.isInheritDocTag ? 2 : 0)
+                    | (input.isTypeVariableParamTag ? 4 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return element.equals(other.element) && taglet == other.taglet
+                    && Objects.equals(tag, other.tag) && flags == other.flags
+                    && Objects.equals(tagId, other.tagId);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = element.hashCode();
+            h = h * 31 + System.identityHashCode(taglet);
+            h = h * 31 + Objects.hashCode(tag);
+            h = h * 31 + Objects.hashCode(tagId);
+            return h * 31 + flags;
+        }
     }
 
     /**
@@ -189,6 +255,41 @@ public class DocFinder {
      * @return an Output object representing the documentation that was found.
      */
     public static Output search(Input input) {
+        return doSearch(null, input);
+    }
+
+    /**
+     * Search for the requested comments as {@link #search(Input)} does,
+     * reusing the searches already made in this run.
+     *
+     * @param configuration the configuration of this run.
+     * @param input the input object used to perform the search.
+     *
+     * @return an Output object representing the documentation that was found.
+     */
+    public static Output search(Configuration configuration, Input input) {
+        return search(configuration.docFinderCache, input);
+    }
+
+    static Output search(Cache cache, Input input) {
+        if (cache == null) {
+            return doSearch(null, input);
+        }
+        Key key = new Key(input);
+        Output output = cache.outputs.get(key);
+        if (output == null) {
+            output = doSearch(cache, input);
+            Output prev = cache.outputs.putIfAbsent(key, output.copy());
+            if (prev != null) {
+                output = prev.copy();
+            }
+        } else {
+            output = output.copy();
+        }
+        return output;
+    }
+
+    private static Output doSearch(Cache cache, Input input) {
         Output output = new Output();
         if (input.isInheritDocTag) {
             //Do nothing because "element" does not have any documentation.
@@ -213,7 +314,7 @@ public class DocFinder {
             MethodDoc overriddenMethod = ((MethodDoc) input.element).overriddenMethod();
             if (overriddenMethod != null) {
                 inheritedSearchInput.element = overriddenMethod;
-                output = search(inheritedSearchInput);
+                output = search(cache, inheritedSearchInput);
                 output.isValidInheritDocTag = true;
                 if (output.inlineTags.length > 0) {
                     return output;
@@ -226,7 +327,7 @@ public class DocFinder {
                 (new ImplementedMethods((MethodDoc) input.element, null)).build(false);
             for (int i = 0; i < implementedMethods.length; i++) {
                 inheritedSearchInput.element = implementedMethods[i];
-                output = search(inheritedSearchInput);
+                output = search(cache, inheritedSearchInput);
                 output.isValidInheritDocTag = true;
                 if (output.inlineTags.length > 0) {
                     return output;
@@ -236,7 +337,7 @@ public class DocFinder {
             ProgramElementDoc superclass = ((ClassDoc) input.element).superclass();
             if (superclass != null) {
                 inheritedSearchInput.element = superclass;
-                output = search(inheritedSearchInput);
+                output = search(cache, inheritedSearchInput);
                 output.isValidInheritDocTag = true;
                 if (output.inlineTags.length > 0) {
                     return output;
@@ -25,8 +25,12 @@
 
 package com.sun.tools.oldlets.internal.toolkit.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.PackageDoc;
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
 
 /**
  * Abstraction for immutable relative paths.
@@ -72,6 +76,53 @@ public class DocPath {
         return (cd == null) ? empty : new DocPath(cd.name() + ".html");
     }
 
+    /**
+     * Return the path for a class, as {@link #forClass(ClassDoc)}, computed
+     * only once in the run of the configuration.
+     */
+    public static DocPath forClass(Configuration configuration, ClassDoc cd) {
+        if (cd == null) {
+            return empty;
+        }
+        Map<String, DocPath> paths = configuration.docPaths.classPaths;
+        String qualifiedName = cd.qualifiedName();
+        DocPath p = paths.get(qualifiedName);
+        if (p == null) {
+            p = forPackage(cd.containingPackage()).resolve(forName(configuration, cd));
+            paths.putIfAbsent(qualifiedName, p);
+        }
+        return p;
+    }
+
+    /**
+     * Return the path for the simple name of the class, as
+     * {@link #forName(ClassDoc)}, computed only once in the run of the
+     * configuration.
+     */
+    public static DocPath forName(Configuration configuration, ClassDoc cd) {
+        if (cd == null) {
+            return empty;
+        }
+        Map<String, DocPath> paths = configuration.docPaths.namePaths;
+        String name = cd.name();
+        DocPath p = paths.get(name);
+        if (p == null) {
+            p = forName(cd);
+            paths.putIfAbsent(name, p);
+        }
+        return p;
+    }
+
+    /**
+     * The paths of the classes computed in a run, keyed by the qualified
+     * and the simple name of the class. They are needed for every link to
+     * the class.
+     */
+    public static final class Cache {
+        private final Map<String, DocPath> classPaths = new ConcurrentHashMap<>();
+        private final Map<String, DocPath> namePaths = new ConcurrentHashMap<>();
+    }
+
     /**
      * Return the path for the package of a class.
      * For example, if the class is java.lang.Object,
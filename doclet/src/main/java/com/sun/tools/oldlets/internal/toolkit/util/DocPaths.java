@@ -55,6 +55,9 @@ public class DocPaths {
     /** The name of the subdirectory for user-provided additional documentation files. */
     public static final DocPath DOC_FILES = DocPath.create("doc-files");
 
+    /** The name of the file with fingerprints of the generated pages. */
+    public static final DocPath FINGERPRINTS = DocPath.create(".fingerprints");
+
     /** The name of the file for help info. */
     public static final DocPath HELP_DOC = DocPath.create("help-doc.html");
 
@@ -128,6 +131,15 @@ public class DocPaths {
     /** The name of the sub-package from which resources are read. */
     public static final DocPath RESOURCES = DocPath.create("resources");
 
+    /** The name of the directory for the shards of the search index. */
+    public static final DocPath SEARCH_INDEX = DocPath.create("search-index");
+
+    /** The name of the script searching the search index. */
+    public static final DocPath SEARCH_JS = DocPath.create("search.js");
+
+    /** The name of the file listing the prefixes of the search index shards. */
+    public static final DocPath SEARCH_PREFIXES = DocPath.create("prefixes.js");
+
     /** The name of the file for the serialized form info. */
     public static final DocPath SERIALIZED_FORM = DocPath.create("serialized-form.html");
 
@@ -29,13 +29,17 @@ import com.sun.javadoc.DocErrorReporter;
 import com.sun.javadoc.ProgramElementDoc;
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.tools.DocumentationTool;
 
 import com.sun.tools.oldlets.internal.toolkit.*;
 import javax.tools.DocumentationTool.Location;
+import org.apidesign.javadoc.codesnippet.impl.Events;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
 
 /**
  * Process and manage "-link" and "-linkoffline" to external packages. The
@@ -54,6 +58,11 @@ import javax.tools.DocumentationTool.Location;
  */
 public class Extern {
 
+    /**
+     * The most package lists downloaded at once.
+     */
+    private static final int MAX_DOWNLOADS = 8;
+
     /**
      * Map package names onto Extern Item objects.
      * Lazily initialized.
@@ -175,18 +184,96 @@ public class Extern {
      */
     public boolean link(String url, String pkglisturl,
                               DocErrorReporter reporter, boolean linkoffline) {
-        this.linkoffline = linkoffline;
+        Link link = new Link(url, pkglisturl, linkoffline);
+        link.download();
+        return link.read(reporter);
+    }
+
+    /**
+     * Build the extern package lists of all the "-link" and "-linkoffline"
+     * options. The lists at URLs are downloaded at once, then all the
+     * lists are read in the order of the options, so the first option
+     * listing a package wins as if they were linked one by one.
+     *
+     * @param options  the "-link" and "-linkoffline" options with their
+     *                 arguments.
+     * @param reporter The <code>DocErrorReporter</code> used to report errors.
+     */
+    public void link(List<String[]> options, DocErrorReporter reporter) {
+        List<Link> links = new ArrayList<Link>();
+        TaskGraph graph = new TaskGraph();
+        int downloads = 0;
+        for (String[] os : options) {
+            boolean offline = os[0].equalsIgnoreCase("-linkoffline");
+            Link link = new Link(os[1], offline ? os[2] : os[1], offline);
+            links.add(link);
+            if (isUrl(link.pkglisturl)) {
+                graph.add(link::download);
+                downloads++;
+            }
+        }
         try {
-            url = adjustEndFileSeparator(url);
-            if (isUrl(pkglisturl)) {
-                readPackageListFromURL(url, toURL(adjustEndFileSeparator(pkglisturl)));
-            } else {
-                readPackageListFromFile(url, DocFile.createFileForInput(configuration, pkglisturl));
+            graph.run(Math.min(downloads, MAX_DOWNLOADS));
+        } catch (Exception ex) {
+            throw new DocletAbortException(ex);
+        }
+        for (Link link : links) {
+            link.read(reporter);
+        }
+    }
+
+    /**
+     * One "-link" or "-linkoffline" option.
+     */
+    private final class Link {
+        final String url;
+        final String pkglisturl;
+        final boolean linkoffline;
+        private byte[] data;
+        private Fault fault;
+
+        Link(String url, String pkglisturl, boolean linkoffline) {
+            this.url = adjustEndFileSeparator(url);
+            this.pkglisturl = pkglisturl;
+            this.linkoffline = linkoffline;
+        }
+
+        /**
+         * Download the list if it is at a URL.
+         */
+        void download() {
+            if (!isUrl(pkglisturl)) {
+                return;
+            }
+            try {
+                data = readPackageListFromURL(toURL(adjustEndFileSeparator(pkglisturl)));
+            } catch (Fault f) {
+                fault = f;
+            }
+        }
+
+        /**
+         * Add the packages of the list to the map.
+         */
+        boolean read(DocErrorReporter reporter) {
+            Extern.this.linkoffline = linkoffline;
+            Events event = Events.linkPackageList(pkglisturl);
+            try {
+                if (fault != null) {
+                    throw fault;
+                }
+                if (data != null) {
+                    readPackageList(data, url, false, event);
+                } else {
+                    readPackageListFromFile(url, DocFile.createFileForInput(configuration, pkglisturl), event);
+                }
+                return true;
+            } catch (Fault f) {
+                reporter.printWarning(f.getMessage());
+                return false;
+            } finally {
+                event.end();
             }
-            return true;
-        } catch (Fault f) {
-            reporter.printWarning(f.getMessage());
-            return false;
         }
     }
 
@@ -227,16 +314,16 @@ public class Extern {
     }
 
     /**
-     * Fetch the URL and read the "package-list" file.
+     * Fetch the "package-list" file from the URL, or the "element-list" file
+     * when there is no "package-list".
      *
-     * @param urlpath        Path to the packages.
-     * @param pkglisturlpath URL or the path to the "package-list" file.
+     * @param pkglisturlpath URL of the directory with the "package-list" file.
+     * @return the content of the file.
      */
-    private void readPackageListFromURL(String urlpath, URL pkglisturlpath)
+    private byte[] readPackageListFromURL(URL pkglisturlpath)
             throws Fault {
         try {
-            URL link = getLinkForPackageList(pkglisturlpath);
-            readPackageList(link.openStream(), urlpath, false);
+            return configuration.packageListCache.load(pkglisturlpath);
         } catch (URISyntaxException exc) {
             throw new Fault(configuration.getText("doclet.MalformedURL", pkglisturlpath.toString()), exc);
         } catch (MalformedURLException exc) {
@@ -246,38 +333,14 @@ public class Extern {
         }
     }
 
-    /**
-     * Returns URL to a downloadable file containing the list of packages. This method checks if package-list
-     * exists, if not, returns a link to newer element-list file.
-     *
-     * @param pkglisturlpath The base package list URL.
-     * @return Link to a downloadable file containing package list.
-     * @throws URISyntaxException If the base package list URL is malformed.
-     * @throws IOException If connection to base package list link fails.
-     */
-    private URL getLinkForPackageList(URL pkglisturlpath) throws URISyntaxException, IOException {
-        // First check if package/list/url/path/package-list exists. If this url returns 404, then use
-        // package/list/url/path/element-list
-        URL link = pkglisturlpath.toURI().resolve(DocPaths.PACKAGE_LIST.getPath()).toURL();
-        URLConnection connection = link.openConnection();
-        if (connection instanceof HttpURLConnection) {
-            HttpURLConnection httpConnection = (HttpURLConnection) connection;
-            httpConnection.setRequestMethod("GET");
-            httpConnection.connect();
-            if (httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
-                link = pkglisturlpath.toURI().resolve(DocPaths.ELEMENT_LIST.getPath()).toURL();
-            }
-        }
-        return link;
-    }
-
     /**
      * Read the "package-list" file which is available locally.
      *
      * @param path URL or directory path to the packages.
      * @param pkgListPath Path to the local "package-list" or "element-list" (for JDK 10 or greater) file.
+     * @param event the event to record the amount of read data to.
      */
-    private void readPackageListFromFile(String path, DocFile pkgListPath)
+    private void readPackageListFromFile(String path, DocFile pkgListPath, Events event)
             throws Fault {
         DocFile packageListFile = pkgListPath.resolve(DocPaths.PACKAGE_LIST);
         DocFile elementListFile = pkgListPath.resolve(DocPaths.ELEMENT_LIST);
@@ -299,13 +362,13 @@ public class Extern {
             && !isUrl(path);
         if (packageListFile.exists() && packageListFile.canRead()) {
             try {
-                readPackageList(packageListFile.openInputStream(), path, isPathRelative);
+                readPackageList(read(packageListFile), path, isPathRelative, event);
             } catch (IOException ex) {
                 throw new Fault(configuration.getText("doclet.File_error", packageListFile.getPath()), ex);
             }
         } else if (elementListFile.exists() && elementListFile.canRead()) {
             try {
-                readPackageList(elementListFile.openInputStream(), path, isPathRelative);
+                readPackageList(read(elementListFile), path, isPathRelative, event);
             } catch (IOException ex) {
                 throw new Fault(configuration.getText("doclet.File_error", elementListFile.getPath()), ex);
             }
@@ -314,38 +377,30 @@ public class Extern {
         }
     }
 
+    private static byte[] read(DocFile file) throws IOException {
+        try (InputStream input = file.openInputStream()) {
+            return PackageListCache.readAll(input);
+        }
+    }
+
     /**
      * Read the file "package-list" or "element-list" and for each package name found, create
      * Extern object and associate it with the package name in the map.
      *
-     * @param input    InputStream from the "package-list" or "element-list" file.
+     * @param data     the content of the "package-list" or "element-list" file.
      * @param path     URL or the directory path to the packages.
      * @param relative Is path relative?
+     * @param event    the event to record the amount of read data to.
      */
-    private void readPackageList(InputStream input, String path,
-                                boolean relative)
-                         throws IOException {
-        BufferedReader in = new BufferedReader(new InputStreamReader(input));
-        StringBuilder strbuf = new StringBuilder();
-        try {
-            int c;
-            while ((c = in.read()) >= 0) {
-                char ch = (char)c;
-                if (ch == '\n' || ch == '\r') {
-                    if (strbuf.length() > 0) {
-                        String packname = strbuf.toString();
-                        String packpath = path +
-                                      packname.replace('.', '/') + '/';
-                        new Item(packname, packpath, relative);
-                        strbuf.setLength(0);
-                    }
-                } else {
-                    strbuf.append(ch);
-                }
-            }
-        } finally {
-            input.close();
+    private void readPackageList(byte[] data, String path,
+                                boolean relative, Events event) {
+        List<String> packages = PackageListCache.lines(data);
+        for (String packname : packages) {
+            String packpath = path +
+                          packname.replace('.', '/') + '/';
+            new Item(packname, packpath, relative);
         }
+        event.bytes(data.length).regions(packages.size());
     }
 
     @SuppressWarnings("deprecation")
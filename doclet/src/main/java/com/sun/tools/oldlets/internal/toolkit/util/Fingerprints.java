@@ -0,0 +1,364 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.sun.javadoc.*;
+import com.sun.tools.javac.util.StringUtils;
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
+
+/**
+ * Fingerprints of the documented API, used by {@code -incremental} to
+ * regenerate only pages whose content may have changed since the previous
+ * run. The fingerprints of the previous run are kept in
+ * {@link DocPaths#FINGERPRINTS} in the output directory.
+ * <p>
+ * The <em>surface</em> covers everything shown outside of a class page:
+ * the options, the packages, the classes and the signatures of their
+ * members, their first sentences, constant values and deprecation
+ * comments. When the surface changes, all pages are regenerated.
+ * Otherwise only class pages whose comments, or comments they may inherit
+ * from their superclasses and interfaces, changed are regenerated, and
+ * package pages whose package comment changed. The comments already
+ * contain the code of the referenced snippets.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class Fingerprints {
+    private static final String SURFACE = "surface";
+    private static final String CLASS = "class:";
+    private static final String PACKAGE = "package:";
+
+    private final Configuration configuration;
+    private final Map<String, String> previous;
+    private final Map<String, String> current = new TreeMap<String, String>();
+    private final Map<String, String> members = new HashMap<String, String>();
+    private final boolean surfaceChanged;
+
+    private Fingerprints(Configuration configuration, Map<String, String> previous) {
+        this.configuration = configuration;
+        this.previous = previous;
+        if (previous != null) {
+            for (ClassDoc cd : configuration.root.classes()) {
+                if (cd.isEnum()) {
+                    // as done by ClassBuilder, before the comments are parsed
+                    Util.setEnumDocumentation(configuration, cd);
+                }
+            }
+            computeSurface();
+            for (PackageDoc pd : configuration.packages) {
+                current.put(PACKAGE + pd.name(), digest(packageText(pd)));
+            }
+            for (ClassDoc cd : configuration.root.classes()) {
+                current.put(CLASS + cd.qualifiedName(), digest(classText(cd)));
+            }
+            surfaceChanged = !current.get(SURFACE).equals(previous.get(SURFACE));
+        } else {
+            surfaceChanged = true;
+        }
+    }
+
+    /**
+     * Compute the fingerprints of the API and read those of the previous
+     * run. Unless {@code -incremental} is given, everything is reported
+     * as changed and the fingerprints of the previous run are emptied, as
+     * the pages no longer match them.
+     */
+    public static Fingerprints create(Configuration configuration) {
+        if (!configuration.incremental) {
+            if (configuration.destJarName == null) {
+                clear(configuration);
+            }
+            return new Fingerprints(configuration, null);
+        }
+        if (configuration.destJarName != null) {
+            configuration.message.warning("doclet.incremental_jar_warning");
+            return new Fingerprints(configuration, null);
+        }
+        Map<String, String> previous = new HashMap<String, String>();
+        DocFile file = DocFile.createFileForOutput(configuration, DocPaths.FINGERPRINTS);
+        if (file.exists()) {
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                        file.openInputStream(), StandardCharsets.UTF_8));
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        int eq = line.lastIndexOf('=');
+                        if (eq > 0) {
+                            previous.put(line.substring(0, eq), line.substring(eq + 1));
+                        }
+                    }
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                previous.clear();
+            }
+        }
+        Fingerprints f = new Fingerprints(configuration, previous);
+        if (f.surfaceChanged) {
+            configuration.message.notice("doclet.incremental_all");
+        }
+        return f;
+    }
+
+    /**
+     * Empty the fingerprints of a previous run, if any. An empty file
+     * makes the next {@code -incremental} run regenerate all pages.
+     */
+    private static void clear(Configuration configuration) {
+        DocFile file = DocFile.createFileForOutput(configuration, DocPaths.FINGERPRINTS);
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            file.write(new byte[0], 0);
+        } catch (IOException ex) {
+            configuration.message.error("doclet.exception_encountered",
+                    ex.toString(), DocPaths.FINGERPRINTS.getPath());
+            throw new DocletAbortException(ex);
+        }
+    }
+
+    /**
+     * Return true if the pages listing the whole API, the index, the trees,
+     * the class use pages and the frames, should be regenerated.
+     */
+    public boolean surfaceChanged() {
+        return surfaceChanged;
+    }
+
+    /**
+     * Return true if the page of the class should be regenerated.
+     */
+    public boolean changed(ClassDoc cd) {
+        return changed(CLASS + cd.qualifiedName(), DocPath.forClass(cd));
+    }
+
+    /**
+     * Return true if the pages of the package should be regenerated.
+     */
+    public boolean changed(PackageDoc pd) {
+        return changed(PACKAGE + pd.name(),
+                DocPath.forPackage(pd).resolve(DocPaths.PACKAGE_SUMMARY));
+    }
+
+    private boolean changed(String key, DocPath page) {
+        if (surfaceChanged) {
+            return true;
+        }
+        String now = current.get(key);
+        return now == null || !now.equals(previous.get(key))
+                || !DocFile.createFileForOutput(configuration, page).exists();
+    }
+
+    /**
+     * Record the fingerprints for the next run. Call only once all the
+     * pages have been written.
+     */
+    public void store() throws IOException {
+        if (previous == null) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : current.entrySet()) {
+            sb.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        DocFile.createFileForOutput(configuration, DocPaths.FINGERPRINTS).write(bytes, bytes.length);
+    }
+
+    private void computeSurface() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(configuration.getDocletSpecificBuildDate()).append('\n');
+        for (String[] option : configuration.root.options()) {
+            String name = StringUtils.toLowerCase(option[0]);
+            if (name.equals("-threads") || name.equals("-skipunchanged")
+                    || name.equals("-incremental") || name.equals("-linkcache")
+                    || name.equals("-linkcacheoffline")) {
+                continue;
+            }
+            sb.append(Arrays.toString(option)).append('\n');
+        }
+        for (PackageDoc pd : configuration.packages) {
+            sb.append("package ").append(pd.name()).append('\n');
+            summary(sb, pd);
+        }
+        ClassDoc[] classes = configuration.root.classes().clone();
+        Arrays.sort(classes);
+        for (ClassDoc cd : classes) {
+            sb.append(cd.modifiers()).append(' ').append(cd.qualifiedName())
+                    .append(Arrays.toString(cd.typeParameters()))
+                    .append(" extends ").append(cd.superclassType())
+                    .append(" implements ").append(Arrays.toString(cd.interfaceTypes()))
+                    .append('\n');
+            summary(sb, cd);
+            for (FieldDoc fd : cd.enumConstants()) {
+                field(sb, fd);
+            }
+            for (FieldDoc fd : cd.fields()) {
+                field(sb, fd);
+            }
+            for (ConstructorDoc md : cd.constructors()) {
+                executable(sb, md);
+            }
+            for (MethodDoc md : cd.methods()) {
+                executable(sb, md);
+                sb.append(md.returnType()).append('\n');
+            }
+            if (cd instanceof AnnotationTypeDoc) {
+                for (AnnotationTypeElementDoc ed : ((AnnotationTypeDoc) cd).elements()) {
+                    executable(sb, ed);
+                    sb.append(ed.returnType()).append(' ').append(ed.defaultValue()).append('\n');
+                }
+            }
+        }
+        current.put(SURFACE, digest(sb));
+    }
+
+    private static void field(StringBuilder sb, FieldDoc fd) {
+        sb.append(fd.modifiers()).append(' ').append(fd.type()).append(' ').append(fd.name())
+                .append(" = ").append(fd.constantValueExpression()).append('\n');
+        summary(sb, fd);
+    }
+
+    private static void executable(StringBuilder sb, ExecutableMemberDoc md) {
+        sb.append(md.modifiers()).append(' ').append(Arrays.toString(md.typeParameters()))
+                .append(' ').append(md.name()).append(md.signature()).append('\n');
+        summary(sb, md);
+    }
+
+    /** Append the annotations, the first sentence and the deprecation comment. */
+    private static void summary(StringBuilder sb, Doc doc) {
+        if (doc instanceof ProgramElementDoc) {
+            sb.append(Arrays.toString(((ProgramElementDoc) doc).annotations()));
+        } else if (doc instanceof PackageDoc) {
+            sb.append(Arrays.toString(((PackageDoc) doc).annotations()));
+        }
+        for (Tag t : doc.firstSentenceTags()) {
+            sb.append(t.name()).append(t.text());
+        }
+        for (Tag t : doc.tags("deprecated")) {
+            sb.append(" @deprecated ").append(t.text());
+        }
+        sb.append('\n');
+    }
+
+    private CharSequence packageText(PackageDoc pd) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Arrays.toString(pd.annotations())).append('\n');
+        sb.append(pd.getRawCommentText());
+        return sb;
+    }
+
+    /**
+     * Everything shown on the page of a class: its own comments and the
+     * comments of its superclasses and interfaces, which may be inherited.
+     */
+    private CharSequence classText(ClassDoc cd) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(members(cd));
+        for (ClassDoc s = cd.superclass(); s != null; s = s.superclass()) {
+            sb.append(members(s));
+        }
+        for (Type t : Util.getAllInterfaces(cd, configuration)) {
+            ClassDoc i = t.asClassDoc();
+            if (i != null) {
+                sb.append(members(i));
+            }
+        }
+        return sb;
+    }
+
+    private String members(ClassDoc cd) {
+        String text = members.get(cd.qualifiedName());
+        if (text != null) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("class ").append(cd.qualifiedName()).append('\n');
+        element(sb, cd);
+        for (FieldDoc fd : cd.enumConstants()) {
+            element(sb, fd);
+        }
+        for (FieldDoc fd : cd.fields()) {
+            element(sb, fd);
+        }
+        for (ConstructorDoc md : cd.constructors()) {
+            parameters(sb, md);
+        }
+        for (MethodDoc md : cd.methods()) {
+            parameters(sb, md);
+        }
+        if (cd instanceof AnnotationTypeDoc) {
+            for (AnnotationTypeElementDoc ed : ((AnnotationTypeDoc) cd).elements()) {
+                element(sb, ed);
+            }
+        }
+        text = sb.toString();
+        members.put(cd.qualifiedName(), text);
+        return text;
+    }
+
+    private void parameters(StringBuilder sb, ExecutableMemberDoc md) {
+        element(sb, md);
+        for (Parameter p : md.parameters()) {
+            sb.append(Arrays.toString(p.annotations())).append(p.name()).append(' ');
+        }
+        sb.append(Arrays.toString(md.thrownExceptionTypes())).append('\n');
+    }
+
+    private void element(StringBuilder sb, ProgramElementDoc doc) {
+        sb.append(doc.name()).append(' ')
+                .append(Arrays.toString(doc.annotations())).append('\n');
+        if (configuration.linksource && doc.position() != null) {
+            sb.append(doc.position().line()).append('\n');
+        }
+        sb.append(doc.getRawCommentText()).append('\n');
+    }
+
+    private static String digest(CharSequence text) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new DocletAbortException(ex);
+        }
+        byte[] hash = md.digest(text.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 16; i++) {
+            sb.append(Character.forDigit((hash[i] >> 4) & 0xf, 16))
+                    .append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
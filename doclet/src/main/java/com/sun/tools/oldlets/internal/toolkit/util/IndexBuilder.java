@@ -38,7 +38,9 @@ import com.sun.tools.oldlets.internal.toolkit.*;
  * Build the mapping of each Unicode character with it's member lists
  * containing members names starting with it. Also build a list for all the
  * Unicode characters which start a member name. Member name is
- * classkind or field or method or constructor name.
+ * classkind or field or method or constructor name. The lists may be sorted
+ * one by one, see {@link #sortMemberList(int)}, and the index of all the
+ * classes is a {@link #classesOnly view} of the full index.
  *
  *  <p><b>This is NOT part of any supported API.
  *  If you write code that depends on this, you do so at your own risk.
@@ -57,6 +59,13 @@ public class IndexBuilder {
      */
     private Map<Character,List<Doc>> indexmap = new HashMap<Character,List<Doc>>();
 
+    /**
+     * The members of each Unicode Character, in the order of
+     * {@link #elements}, with their sort keys. Null once the list in the
+     * {@link #indexmap} is sorted.
+     */
+    private SortKey[][] unsorted;
+
     /**
      * Don't generate deprecated information if true.
      */
@@ -73,23 +82,55 @@ public class IndexBuilder {
     private boolean javafx;
 
     // make ProgramElementDoc[] when new toArray is available
-    protected final Object[] elements;
+    protected Object[] elements;
 
     /**
-     * A comparator used to sort classes and members.
+     * A doc with its names prepared for sorting. The names are folded
+     * once here, instead of in each comparison.
+     */
+    private static final class SortKey {
+        final Doc doc;
+        final String name;
+        final String qualifiedName;
+
+        SortKey(Doc doc) {
+            this.doc = doc;
+            this.name = foldCase(doc.name());
+            this.qualifiedName = doc instanceof ProgramElementDoc
+                    ? foldCase(((ProgramElementDoc) doc).qualifiedName()) : null;
+        }
+
+        /**
+         * The string with each character mapped the way
+         * {@link String#compareToIgnoreCase} compares it.
+         */
+        private static String foldCase(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+                    char[] folded = s.toCharArray();
+                    for (int j = i; j < folded.length; j++) {
+                        folded[j] = Character.toLowerCase(Character.toUpperCase(folded[j]));
+                    }
+                    return new String(folded);
+                }
+            }
+            return s;
+        }
+    }
+
+    /**
+     * A comparator used to sort classes and members, by name and then
+     * by qualified name, ignoring case.
      * Note:  Maybe this compare code belongs in the tool?
      */
-    private class DocComparator implements Comparator<Doc> {
-        public int compare(Doc d1, Doc d2) {
-            String doc1 = d1.name();
-            String doc2 = d2.name();
+    private static class KeyComparator implements Comparator<SortKey> {
+        public int compare(SortKey k1, SortKey k2) {
             int compareResult;
-            if ((compareResult = doc1.compareToIgnoreCase(doc2)) != 0) {
+            if ((compareResult = k1.name.compareTo(k2.name)) != 0) {
                 return compareResult;
-            } else if (d1 instanceof ProgramElementDoc && d2 instanceof ProgramElementDoc) {
-                 doc1 = (((ProgramElementDoc) d1).qualifiedName());
-                 doc2 = (((ProgramElementDoc) d2).qualifiedName());
-                 return doc1.compareToIgnoreCase(doc2);
+            } else if (k1.qualifiedName != null && k2.qualifiedName != null) {
+                return k1.qualifiedName.compareTo(k2.qualifiedName);
             } else {
                 return 0;
             }
@@ -117,6 +158,39 @@ public class IndexBuilder {
      */
     public IndexBuilder(Configuration configuration, boolean noDeprecated,
                         boolean classesOnly) {
+        this(configuration, noDeprecated, classesOnly, true);
+    }
+
+    /**
+     * Constructor. Build the index map.
+     *
+     * @param configuration the current configuration of the doclet.
+     * @param noDeprecated  true if -nodeprecated option is used,
+     *                      false otherwise.
+     * @param classesOnly   Include only classes in index.
+     * @param sort          sort the lists now, otherwise each of them
+     *                      has to be sorted by {@link #sortMemberList(int)}
+     */
+    public IndexBuilder(Configuration configuration, boolean noDeprecated,
+                        boolean classesOnly, boolean sort) {
+        this(configuration, noDeprecated, classesOnly, sort, null);
+    }
+
+    /**
+     * Constructor. The index map is built from the classes visited by the
+     * walk over the API, it can only be used once the walk is over.
+     *
+     * @param configuration the current configuration of the doclet.
+     * @param noDeprecated  true if -nodeprecated option is used,
+     *                      false otherwise.
+     * @param classesOnly   Include only classes in index.
+     * @param sort          sort the lists once built, otherwise each of them
+     *                      has to be sorted by {@link #sortMemberList(int)}
+     * @param pass          the walk over all the classes of the run, or null
+     *                      to walk them now
+     */
+    public IndexBuilder(Configuration configuration, boolean noDeprecated,
+                        boolean classesOnly, boolean sort, ApiModelPass pass) {
         if (classesOnly) {
             configuration.message.notice("doclet.Building_Index_For_All_Classes");
         } else {
@@ -125,10 +199,108 @@ public class IndexBuilder {
         this.noDeprecated = noDeprecated;
         this.classesOnly = classesOnly;
         this.javafx = configuration.javafx;
-        buildIndexMap(configuration.root);
-        Set<Character> set = indexmap.keySet();
+        Collector collector = new Collector(sort);
+        if (!classesOnly) {
+            addPackages(configuration.root, collector.keys);
+        }
+        if (pass == null) {
+            pass = new ApiModelPass();
+            pass.add(collector);
+            pass.walk(configuration.root.classes());
+        } else {
+            pass.add(collector);
+        }
+    }
+
+    /**
+     * Collects the classes and their members from the walk over the API.
+     * The members are kept apart, they follow all the classes in the lists
+     * before sorting.
+     */
+    private final class Collector implements ApiModelPass.Collector {
+        private final boolean sort;
+        final Map<Character,List<SortKey>> keys = new HashMap<Character,List<SortKey>>();
+        private final Map<Character,List<SortKey>> members = new HashMap<Character,List<SortKey>>();
+
+        Collector(boolean sort) {
+            this.sort = sort;
+        }
+
+        @Override
+        public void visitClass(ClassDoc cd, ApiModelPass.Members classMembers) {
+            adjustIndexMap(cd, keys);
+            if (!classesOnly && shouldAddToIndexMap(cd)) {
+                adjustIndexMap(classMembers.fields(), members);
+                adjustIndexMap(classMembers.methods(), members);
+                adjustIndexMap(classMembers.constructors(), members);
+            }
+        }
+
+        @Override
+        public void finish() {
+            for (Map.Entry<Character,List<SortKey>> e : members.entrySet()) {
+                List<SortKey> list = keys.get(e.getKey());
+                if (list == null) {
+                    keys.put(e.getKey(), e.getValue());
+                } else {
+                    list.addAll(e.getValue());
+                }
+            }
+            build(keys, sort);
+        }
+    }
+
+    private void build(Map<Character,List<SortKey>> keys, boolean sort) {
+        Set<Character> set = keys.keySet();
         elements =  set.toArray();
         Arrays.sort(elements);
+        unsorted = new SortKey[elements.length][];
+        for (int i = 0; i < elements.length; i++) {
+            List<SortKey> list = keys.get((Character) elements[i]);
+            unsorted[i] = list.toArray(new SortKey[list.size()]);
+            indexmap.put((Character) elements[i], new ArrayList<Doc>(list.size()));
+        }
+        if (sort) {
+            sortIndexMap();
+        }
+    }
+
+    /**
+     * The index of the classes of another index.
+     */
+    private IndexBuilder(IndexBuilder all) {
+        this.noDeprecated = all.noDeprecated;
+        this.classesOnly = true;
+        this.javafx = all.javafx;
+        List<Character> chars = new ArrayList<Character>();
+        for (Object ch : all.elements) {
+            List<Doc> classes = new ArrayList<Doc>();
+            for (Doc doc : all.getMemberList((Character) ch)) {
+                if (doc instanceof ClassDoc) {
+                    classes.add(doc);
+                }
+            }
+            if (!classes.isEmpty()) {
+                chars.add((Character) ch);
+                indexmap.put((Character) ch, classes);
+            }
+        }
+        elements = chars.toArray();
+    }
+
+    /**
+     * The index of just the classes in this index. Classes are indexed
+     * under the same characters and in the same order as in the index
+     * built with {@code classesOnly}, so the lists are taken from this one
+     * rather than by visiting all the classes again. All the lists of this
+     * index have to be sorted.
+     *
+     * @param configuration the current configuration of the doclet.
+     * @return the index of classes
+     */
+    public IndexBuilder classesOnly(Configuration configuration) {
+        configuration.message.notice("doclet.Building_Index_For_All_Classes");
+        return classesOnly ? this : new IndexBuilder(this);
     }
 
     /**
@@ -136,82 +308,82 @@ public class IndexBuilder {
      * sort each element which is a list.
      */
     protected void sortIndexMap() {
-        for (Iterator<List<Doc>> it = indexmap.values().iterator(); it.hasNext(); ) {
-            Collections.sort(it.next(), new DocComparator());
+        for (int i = 0; i < elements.length; i++) {
+            sortMemberList(i);
         }
     }
 
     /**
-     * Get all the members in all the Packages and all the Classes
-     * given on the command line. Form separate list of those members depending
-     * upon their names.
+     * Sort the list of members of one Unicode character. Lists of
+     * different characters may be sorted at the same time.
      *
-     * @param root Root of the documemt.
+     * @param i the index of the character in {@link #elements()}
      */
-    protected void buildIndexMap(RootDoc root)  {
-        PackageDoc[] packages = root.specifiedPackages();
-        ClassDoc[] classes = root.classes();
-        if (!classesOnly) {
-            if (packages.length == 0) {
-                Set<PackageDoc> set = new HashSet<PackageDoc>();
-                PackageDoc pd;
-                for (int i = 0; i < classes.length; i++) {
-                    pd = classes[i].containingPackage();
-                    if (pd != null && pd.name().length() > 0) {
-                        set.add(pd);
-                    }
-                }
-                adjustIndexMap(set.toArray(packages));
-            } else {
-                adjustIndexMap(packages);
-            }
+    public void sortMemberList(int i) {
+        SortKey[] keys = unsorted[i];
+        if (keys == null) {
+            return;
         }
-        adjustIndexMap(classes);
-        if (!classesOnly) {
-            for (int i = 0; i < classes.length; i++) {
-                if (shouldAddToIndexMap(classes[i])) {
-                    putMembersInIndexMap(classes[i]);
-                }
-            }
+        Arrays.sort(keys, new KeyComparator());
+        List<Doc> list = indexmap.get((Character) elements[i]);
+        for (SortKey key : keys) {
+            list.add(key.doc);
         }
-        sortIndexMap();
+        unsorted[i] = null;
     }
 
     /**
-     * Put all the members(fields, methods and constructors) in the classdoc
-     * to the indexmap.
+     * Add the packages given on the command line, or the packages of the
+     * classes if there are none, to the index.
      *
-     * @param classdoc ClassDoc whose members will be added to the indexmap.
+     * @param root Root of the documemt.
+     * @param keys the lists to add the packages to
      */
-    protected void putMembersInIndexMap(ClassDoc classdoc) {
-        adjustIndexMap(classdoc.fields());
-        adjustIndexMap(classdoc.methods());
-        adjustIndexMap(classdoc.constructors());
+    private void addPackages(RootDoc root, Map<Character,List<SortKey>> keys)  {
+        PackageDoc[] packages = root.specifiedPackages();
+        if (packages.length == 0) {
+            ClassDoc[] classes = root.classes();
+            Set<PackageDoc> set = new HashSet<PackageDoc>();
+            PackageDoc pd;
+            for (int i = 0; i < classes.length; i++) {
+                pd = classes[i].containingPackage();
+                if (pd != null && pd.name().length() > 0) {
+                    set.add(pd);
+                }
+            }
+            adjustIndexMap(set.toArray(packages), keys);
+        } else {
+            adjustIndexMap(packages, keys);
+        }
     }
 
-
     /**
      * Adjust list of members according to their names. Check the first
      * character in a member name, and then add the member to a list of members
      * for that particular unicode character.
      *
      * @param elements Array of members.
+     * @param keys the lists to add the members to
      */
-    protected void adjustIndexMap(Doc[] elements) {
+    private void adjustIndexMap(Doc[] elements, Map<Character,List<SortKey>> keys) {
         for (int i = 0; i < elements.length; i++) {
-            if (shouldAddToIndexMap(elements[i])) {
-                String name = elements[i].name();
-                char ch = (name.length()==0)?
-                    '*' :
-                    Character.toUpperCase(name.charAt(0));
-                Character unicode = ch;
-                List<Doc> list = indexmap.get(unicode);
-                if (list == null) {
-                    list = new ArrayList<Doc>();
-                    indexmap.put(unicode, list);
-                }
-                list.add(elements[i]);
+            adjustIndexMap(elements[i], keys);
+        }
+    }
+
+    private void adjustIndexMap(Doc element, Map<Character,List<SortKey>> keys) {
+        if (shouldAddToIndexMap(element)) {
+            String name = element.name();
+            char ch = (name.length()==0)?
+                '*' :
+                Character.toUpperCase(name.charAt(0));
+            Character unicode = ch;
+            List<SortKey> list = keys.get(unicode);
+            if (list == null) {
+                list = new ArrayList<SortKey>();
+                keys.put(unicode, list);
             }
+            list.add(new SortKey(element));
         }
     }
 
@@ -0,0 +1,574 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.tools.DocumentationTool;
+import javax.tools.JavaFileManager.Location;
+
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
+
+/**
+ * Implementation of DocFileFactory writing the output into a single
+ * jar or zip file, selected by {@code -d jar:/path/apidocs.jar}. Files
+ * to read are handled by the usual factory for the file manager.
+ * <p>
+ * Each page is compressed once, when its stream is closed, and appended
+ * to a temporary file next to the archive. Only the position, size and
+ * checksum of the compressed data stay in memory. The archive is written
+ * when the generation completes, with entries sorted by name and a fixed
+ * time stamp, so the same documentation always produces the same archive,
+ * regardless of the order in which the pages were generated. The
+ * compressed data is copied into it as it is.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+class JarDocFileFactory extends DocFileFactory {
+    /** Prefix of the -d option value selecting this factory. */
+    static final String PREFIX = "jar:";
+    /** Date of all entries in MS-DOS format, January 1, 1980, the earliest one. */
+    private static final int DOS_DATE = (1 << 5) | 1;
+
+    private final DocFileFactory delegate;
+    private final Path jar;
+    private final ConcurrentSkipListMap<String, Entry> entries =
+            new ConcurrentSkipListMap<String, Entry>();
+    /** The compressed pages, in the order they were written. */
+    private FileChannel data;
+    private long dataSize;
+
+    JarDocFileFactory(Configuration configuration, DocFileFactory delegate) {
+        super(configuration);
+        this.delegate = delegate;
+        this.jar = Paths.get(configuration.destJarName);
+    }
+
+    public DocFile createFileForDirectory(String file) {
+        return delegate.createFileForDirectory(file);
+    }
+
+    public DocFile createFileForInput(String file) {
+        return delegate.createFileForInput(file);
+    }
+
+    public DocFile createFileForOutput(DocPath path) {
+        return new JarDocFile(path);
+    }
+
+    @Override
+    Iterable<DocFile> list(Location location, DocPath path) {
+        return delegate.list(location, path);
+    }
+
+    /**
+     * Create a temporary file in the directory of the archive, so
+     * concurrent builds never share one.
+     */
+    private Path createTempFile() throws IOException {
+        Path target = jar.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * Append compressed data of a page.
+     *
+     * @return the position of the data
+     */
+    private synchronized long append(byte[] bytes, int length) throws IOException {
+        if (data == null) {
+            data = FileChannel.open(createTempFile(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        long pos = dataSize;
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 0, length);
+        while (buf.hasRemaining()) {
+            data.write(buf, pos + buf.position());
+        }
+        dataSize += length;
+        return pos;
+    }
+
+    private synchronized FileChannel data() {
+        return data;
+    }
+
+    /**
+     * Read the compressed data of an entry. One more byte is left at
+     * the end, as an inflater without zlib header wants it.
+     */
+    private byte[] read(Entry e) throws IOException {
+        byte[] bytes = new byte[e.compressedSize + 1];
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 0, e.compressedSize);
+        FileChannel ch = data();
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, e.position + buf.position()) < 0) {
+                throw new IOException("Truncated " + e);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Write all the entries into the archive. The archive is written
+     * under a temporary name and renamed once complete.
+     */
+    @Override
+    void finishOutput() throws IOException {
+        Path tmp = createTempFile();
+        try {
+            ZipWriter out = new ZipWriter(new BufferedOutputStream(Files.newOutputStream(tmp), 65536));
+            try {
+                Set<String> dirs = new HashSet<String>();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    String name = e.getKey();
+                    for (int i = name.indexOf('/'); i >= 0; i = name.indexOf('/', i + 1)) {
+                        String dir = name.substring(0, i + 1);
+                        if (dirs.add(dir)) {
+                            out.add(dir, null, null);
+                        }
+                    }
+                    Entry entry = e.getValue();
+                    out.add(name, entry, read(entry));
+                }
+                out.finish();
+            } finally {
+                out.close();
+            }
+            Files.move(tmp, target(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+            synchronized (this) {
+                if (data != null) {
+                    data.close();
+                    data = null;
+                }
+            }
+        }
+        entries.clear();
+    }
+
+    private Path target() {
+        return jar.toAbsolutePath();
+    }
+
+    /** Position, sizes and checksum of one compressed file. */
+    private static final class Entry {
+        final long position;
+        final int compressedSize;
+        final int size;
+        final int crc;
+
+        Entry(long position, int compressedSize, int size, int crc) {
+            this.position = position;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.crc = crc;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry[position:" + position + ",size:" + compressedSize + "]";
+        }
+    }
+
+    /** Output stream compressing the content of an entry. */
+    private final class EntryOutputStream extends DeflaterOutputStream {
+        private final String name;
+        private final ByteArrayOutputStream compressed;
+        private final CRC32 crc = new CRC32();
+        private long size;
+        private boolean closed;
+
+        EntryOutputStream(String name, ByteArrayOutputStream compressed) {
+            super(compressed, new Deflater(Deflater.BEST_SPEED, true), 8192);
+            this.name = name;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            super.write(b);
+            crc.update(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+            size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+            } finally {
+                def.end();
+            }
+            if (size >= 0xFFFFFFFFL || compressed.size() >= 0xFFFFFFFFL) {
+                throw new IOException("Too large for an archive: " + name);
+            }
+            byte[] bytes = compressed.toByteArray();
+            long pos = append(bytes, bytes.length);
+            entries.put(name, new Entry(pos, bytes.length, (int) size, (int) crc.getValue()));
+        }
+    }
+
+    /**
+     * Writes a zip archive whose entries are compressed already. The
+     * sizes and checksum are known up front, so every entry is just its
+     * header followed by the data. Archives with more than 65534 entries
+     * or larger than 4GB get the zip64 records.
+     */
+    private static final class ZipWriter {
+        private static final int LOCAL = 0x04034b50;
+        private static final int CENTRAL = 0x02014b50;
+        private static final int END = 0x06054b50;
+        private static final int END64 = 0x06064b50;
+        private static final int LOCATOR64 = 0x07064b50;
+        /** Names are in UTF-8. */
+        private static final int FLAG_UTF8 = 0x0800;
+        private static final int STORED = 0;
+        private static final int DEFLATED = 8;
+
+        private final OutputStream out;
+        private final ByteArrayOutputStream central = new ByteArrayOutputStream();
+        private long position;
+        private long count;
+
+        ZipWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Add an entry.
+         *
+         * @param name the name of the entry
+         * @param entry the sizes and checksum, null for a directory
+         * @param bytes the compressed data, it may be one byte longer
+         */
+        void add(String name, Entry entry, byte[] bytes) throws IOException {
+            byte[] n = name.getBytes(StandardCharsets.UTF_8);
+            int method = entry == null ? STORED : DEFLATED;
+            int version = entry == null ? 10 : 20;
+            int crc = entry == null ? 0 : entry.crc;
+            int compressedSize = entry == null ? 0 : entry.compressedSize;
+            int size = entry == null ? 0 : entry.size;
+            long offset = position;
+            boolean zip64 = offset >= 0xFFFFFFFFL;
+
+            writeInt(out, LOCAL);
+            writeShort(out, version);
+            writeShort(out, FLAG_UTF8);
+            writeShort(out, method);
+            writeShort(out, 0);
+            writeShort(out, DOS_DATE);
+            writeInt(out, crc);
+            writeInt(out, compressedSize);
+            writeInt(out, size);
+            writeShort(out, n.length);
+            writeShort(out, 0);
+            out.write(n);
+            if (bytes != null) {
+                out.write(bytes, 0, compressedSize);
+            }
+            position += 30 + n.length + compressedSize;
+
+            writeInt(central, CENTRAL);
+            writeShort(central, zip64 ? 45 : version);
+            writeShort(central, zip64 ? 45 : version);
+            writeShort(central, FLAG_UTF8);
+            writeShort(central, method);
+            writeShort(central, 0);
+            writeShort(central, DOS_DATE);
+            writeInt(central, crc);
+            writeInt(central, compressedSize);
+            writeInt(central, size);
+            writeShort(central, n.length);
+            writeShort(central, zip64 ? 12 : 0);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeInt(central, 0);
+            writeInt(central, zip64 ? 0xFFFFFFFF : (int) offset);
+            central.write(n);
+            if (zip64) {
+                writeShort(central, 0x0001);
+                writeShort(central, 8);
+                writeLong(central, offset);
+            }
+            count++;
+        }
+
+        /** Write the central directory. */
+        void finish() throws IOException {
+            long offset = position;
+            long size = central.size();
+            central.writeTo(out);
+            position += size;
+            if (count >= 0xFFFF || offset >= 0xFFFFFFFFL || size >= 0xFFFFFFFFL) {
+                long end64 = position;
+                writeInt(out, END64);
+                writeLong(out, 44);
+                writeShort(out, 45);
+                writeShort(out, 45);
+                writeInt(out, 0);
+                writeInt(out, 0);
+                writeLong(out, count);
+                writeLong(out, count);
+                writeLong(out, size);
+                writeLong(out, offset);
+                writeInt(out, LOCATOR64);
+                writeInt(out, 0);
+                writeLong(out, end64);
+                writeInt(out, 1);
+            }
+            writeInt(out, END);
+            writeShort(out, 0);
+            writeShort(out, 0);
+            writeShort(out, (int) Math.min(count, 0xFFFF));
+            writeShort(out, (int) Math.min(count, 0xFFFF));
+            writeInt(out, (int) Math.min(size, 0xFFFFFFFFL));
+            writeInt(out, (int) Math.min(offset, 0xFFFFFFFFL));
+            writeShort(out, 0);
+        }
+
+        void close() throws IOException {
+            out.close();
+        }
+
+        private static void writeShort(OutputStream os, int v) throws IOException {
+            os.write(v & 0xff);
+            os.write((v >>> 8) & 0xff);
+        }
+
+        private static void writeInt(OutputStream os, int v) throws IOException {
+            writeShort(os, v & 0xffff);
+            writeShort(os, (v >>> 16) & 0xffff);
+        }
+
+        private static void writeLong(OutputStream os, long v) throws IOException {
+            writeInt(os, (int) v);
+            writeInt(os, (int) (v >>> 32));
+        }
+    }
+
+    class JarDocFile extends DocFile {
+        private final String name;
+
+        /** Create a JarDocFile for a given relative path. */
+        private JarDocFile(DocPath path) {
+            super(configuration, DocumentationTool.Location.DOCUMENTATION_OUTPUT, path);
+            this.name = path.getPath();
+        }
+
+        /** Open an input stream for an entry written before. */
+        public InputStream openInputStream() throws IOException {
+            Entry e = entries.get(name);
+            if (e == null) {
+                throw new FileNotFoundException(getPath());
+            }
+            return new InflaterInputStream(new ByteArrayInputStream(read(e)), new Inflater(true)) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    inf.end();
+                }
+            };
+        }
+
+        /**
+         * Open an output stream for the entry. The entry is added
+         * to the archive when the stream is closed.
+         */
+        public OutputStream openOutputStream() throws IOException, UnsupportedEncodingException {
+            return new EntryOutputStream(name, new ByteArrayOutputStream());
+        }
+
+        /**
+         * Replace the contents of the entry by the given bytes. The archive
+         * is always written as a whole, so the entry counts as changed.
+         */
+        @Override
+        public boolean write(byte[] bytes, int length) throws IOException {
+            OutputStream out = new EntryOutputStream(name, new ByteArrayOutputStream(length / 4 + 64));
+            try {
+                out.write(bytes, 0, length);
+            } finally {
+                out.close();
+            }
+            return true;
+        }
+
+        /**
+         * Open an writer for the entry, using the encoding (if any) given in the
+         * doclet configuration.
+         */
+        public Writer openWriter() throws IOException, UnsupportedEncodingException {
+            OutputStream out = openOutputStream();
+            if (configuration.docencoding == null) {
+                return new BufferedWriter(new OutputStreamWriter(out));
+            } else {
+                return new BufferedWriter(new OutputStreamWriter(out, configuration.docencoding));
+            }
+        }
+
+        /** Return true if the entry has been written. */
+        public boolean canRead() {
+            return exists();
+        }
+
+        /** Return true, entries can always be written. */
+        public boolean canWrite() {
+            return true;
+        }
+
+        /** Return true if the entry has been written. */
+        public boolean exists() {
+            return entries.containsKey(name);
+        }
+
+        /** Return the base name (last component) of the entry name. */
+        public String getName() {
+            return name.substring(name.lastIndexOf('/') + 1);
+        }
+
+        /** Return the path of the archive followed by the entry name. */
+        public String getPath() {
+            return jar + "!/" + name;
+        }
+
+        /** Return true, the entry name is relative to the root of the archive. */
+        public boolean isAbsolute() {
+            return true;
+        }
+
+        /** Return true if some entry has been written into this directory. */
+        public boolean isDirectory() {
+            String prefix = name.isEmpty() ? "" : name + "/";
+            String next = entries.ceilingKey(prefix);
+            return next != null && next.startsWith(prefix);
+        }
+
+        /** Return true if the entry has been written. */
+        public boolean isFile() {
+            return exists();
+        }
+
+        /** Return true if this file is the same as another. */
+        public boolean isSameFile(DocFile other) {
+            return other instanceof JarDocFile
+                    && name.equals(((JarDocFile) other).name);
+        }
+
+        /** If the file is a directory, list its contents. */
+        public Iterable<DocFile> list() {
+            String prefix = name.isEmpty() ? "" : name + "/";
+            Map<String, DocFile> files = new LinkedHashMap<String, DocFile>();
+            for (String n : entries.tailMap(prefix).keySet()) {
+                if (!n.startsWith(prefix)) {
+                    break;
+                }
+                int slash = n.indexOf('/', prefix.length());
+                String child = slash == -1 ? n.substring(prefix.length())
+                        : n.substring(prefix.length(), slash);
+                if (!files.containsKey(child)) {
+                    files.put(child, resolve(child));
+                }
+            }
+            return new ArrayList<DocFile>(files.values());
+        }
+
+        /** Return true, directories in the archive are implied by their entries. */
+        public boolean mkdirs() {
+            return true;
+        }
+
+        /**
+         * Derive a new file by resolving a relative path against this file.
+         */
+        public DocFile resolve(DocPath p) {
+            return resolve(p.getPath());
+        }
+
+        /**
+         * Derive a new file by resolving a relative path against this file.
+         */
+        public DocFile resolve(String p) {
+            return new JarDocFile(path.resolve(p));
+        }
+
+        /**
+         * Resolve a relative file against the given output location.
+         * @param locn Currently, only
+         * {@link DocumentationTool.Location#DOCUMENTATION_OUTPUT} is supported.
+         */
+        public DocFile resolveAgainst(Location locn) {
+            if (locn != DocumentationTool.Location.DOCUMENTATION_OUTPUT)
+                throw new IllegalArgumentException();
+            return this;
+        }
+
+        /** Return a string to identify the contents of this object,
+         * for debugging purposes.
+         */
+        @Override
+        public String toString() {
+            return "JarDocFile[path:" + name + ",jar:" + jar + "]";
+        }
+    }
+}
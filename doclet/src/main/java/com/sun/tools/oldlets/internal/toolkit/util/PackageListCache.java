@@ -0,0 +1,298 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Downloads the "package-list" or "element-list" files of {@code -link}
+ * and {@code -linkoffline} options. With a cache directory the downloaded
+ * lists are kept in it, keyed by the URL of the documentation. The next
+ * run asks the host only whether the list changed, using the ETag and
+ * Last-Modified headers of the previous response, and uses the kept copy
+ * when it did not or when the host cannot be reached. In offline mode a
+ * kept copy is used without asking the host at all.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public final class PackageListCache {
+    private static final String URL = "url";
+    private static final String FILE = "file";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+
+    /**
+     * How long to wait for a host to accept the connection and for each
+     * read of the list, in milliseconds.
+     */
+    public static final int DEFAULT_TIMEOUT = 30000;
+
+    private final File dir;
+    private final boolean offline;
+    private final int timeout;
+
+    /**
+     * Constructor.
+     *
+     * @param dir the directory to keep the lists in, or null to download
+     *     them every time
+     * @param offline true to use the kept lists without asking the hosts
+     */
+    public PackageListCache(File dir, boolean offline) {
+        this(dir, offline, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dir the directory to keep the lists in, or null to download
+     *     them every time
+     * @param offline true to use the kept lists without asking the hosts
+     * @param timeout how long to wait for a host to accept the connection
+     *     and for each read, in milliseconds. A host that does not answer
+     *     in time is treated as one that cannot be reached.
+     */
+    public PackageListCache(File dir, boolean offline, int timeout) {
+        this.dir = dir;
+        this.offline = offline;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Load the list of packages of the documentation at the given URL.
+     * The "package-list" file is read, the "element-list" file of newer
+     * JDKs when there is none.
+     *
+     * @param docurl the URL of the documentation, ending with a slash
+     * @return the content of the list
+     * @throws URISyntaxException if the URL is malformed
+     * @throws IOException if the list cannot be downloaded and there is no
+     *     kept copy of it
+     */
+    public byte[] load(URL docurl) throws URISyntaxException, IOException {
+        URL link = docurl.toURI().resolve(DocPaths.PACKAGE_LIST.getPath()).toURL();
+        URLConnection connection = link.openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        if (!(connection instanceof HttpURLConnection)) {
+            try (InputStream is = connection.getInputStream()) {
+                return readAll(is);
+            }
+        }
+        String key = docurl.toString();
+        Properties cached = readEntry(key);
+        if (cached != null && offline) {
+            return readData(key);
+        }
+        try {
+            HttpURLConnection http = open(link, cached);
+            if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                http.disconnect();
+                link = docurl.toURI().resolve(DocPaths.ELEMENT_LIST.getPath()).toURL();
+                http = open(link, cached);
+            }
+            if (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                http.disconnect();
+                return readData(key);
+            }
+            byte[] data;
+            try (InputStream is = http.getInputStream()) {
+                data = readAll(is);
+            }
+            writeEntry(key, link, http, data);
+            return data;
+        } catch (IOException ex) {
+            if (cached != null) {
+                return readData(key);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Open a connection to the list, asking only for a changed one when
+     * the same list is kept in the cache.
+     */
+    private HttpURLConnection open(URL link, Properties cached) throws IOException {
+        HttpURLConnection http = (HttpURLConnection) link.openConnection();
+        http.setConnectTimeout(timeout);
+        http.setReadTimeout(timeout);
+        http.setRequestMethod("GET");
+        if (cached != null && link.toString().equals(cached.getProperty(FILE))) {
+            String etag = cached.getProperty(ETAG);
+            if (etag != null) {
+                http.setRequestProperty("If-None-Match", etag);
+            }
+            String lastModified = cached.getProperty(LAST_MODIFIED);
+            if (lastModified != null) {
+                http.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+        http.connect();
+        return http;
+    }
+
+    private Properties readEntry(String key) {
+        if (dir == null) {
+            return null;
+        }
+        File info = new File(dir, name(key) + ".properties");
+        File data = new File(dir, name(key) + ".list");
+        if (!info.isFile() || !data.isFile()) {
+            return null;
+        }
+        Properties p = new Properties();
+        try (InputStream is = new FileInputStream(info)) {
+            p.load(is);
+        } catch (IOException ex) {
+            return null;
+        }
+        return key.equals(p.getProperty(URL)) ? p : null;
+    }
+
+    private byte[] readData(String key) throws IOException {
+        try (InputStream is = new FileInputStream(new File(dir, name(key) + ".list"))) {
+            return readAll(is);
+        }
+    }
+
+    /**
+     * Keep the downloaded list. The files are written under temporary
+     * names and then renamed, so other runs sharing the directory never
+     * see a half written list. A list that cannot be kept is just
+     * downloaded again next time.
+     */
+    private void writeEntry(String key, URL link, HttpURLConnection http, byte[] data) {
+        if (dir == null) {
+            return;
+        }
+        Properties p = new Properties();
+        p.setProperty(URL, key);
+        p.setProperty(FILE, link.toString());
+        String etag = http.getHeaderField("ETag");
+        if (etag != null) {
+            p.setProperty(ETAG, etag);
+        }
+        String lastModified = http.getHeaderField("Last-Modified");
+        if (lastModified != null) {
+            p.setProperty(LAST_MODIFIED, lastModified);
+        }
+        try {
+            dir.mkdirs();
+            File tmpData = File.createTempFile("list", ".tmp", dir);
+            File tmpInfo = File.createTempFile("info", ".tmp", dir);
+            try {
+                try (OutputStream os = new FileOutputStream(tmpData)) {
+                    os.write(data);
+                }
+                try (OutputStream os = new FileOutputStream(tmpInfo)) {
+                    p.store(os, null);
+                }
+                Files.move(tmpData.toPath(), new File(dir, name(key) + ".list").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmpInfo.toPath(), new File(dir, name(key) + ".properties").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                tmpData.delete();
+                tmpInfo.delete();
+            }
+        } catch (IOException ex) {
+            // not kept
+        }
+    }
+
+    /**
+     * The name of the files of a URL in the cache directory.
+     */
+    private static String name(String key) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                sb.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Read the whole stream.
+     *
+     * @param is the stream, it is not closed
+     * @return the read bytes
+     * @throws IOException if the stream cannot be read
+     */
+    public static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        for (;;) {
+            int len = is.read(buf);
+            if (len < 0) {
+                return os.toByteArray();
+            }
+            os.write(buf, 0, len);
+        }
+    }
+
+    /**
+     * Split the content of a list into the names it lists, one per line.
+     * The lists are written in UTF-8, empty lines are skipped.
+     *
+     * @param data the content of the list
+     * @return the names in the list
+     */
+    public static List<String> lines(byte[] data) {
+        String text = new String(data, StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<String>();
+        int from = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n' || text.charAt(i) == '\r') {
+                if (i > from) {
+                    lines.add(text.substring(from, i));
+                }
+                from = i + 1;
+            }
+        }
+        return lines;
+    }
+}
@@ -53,7 +53,8 @@ public class PackageListWriter extends PrintWriter {
      * @param configuration the current configuration of the doclet.
      */
     public PackageListWriter(Configuration configuration) throws IOException {
-        super(DocFile.createFileForOutput(configuration, DocPaths.PACKAGE_LIST).openWriter());
+        super(configuration.writeBehind.openWriter(
+                DocFile.createFileForOutput(configuration, DocPaths.PACKAGE_LIST)));
         this.configuration = configuration;
     }
 
@@ -159,6 +159,19 @@ class PathDocFileFactory extends DocFileFactory {
             return new BufferedOutputStream(out);
         }
 
+        /**
+         * Replace the contents of the file, writing it under a temporary
+         * name and renaming it once complete. With {@code -skipunchanged}
+         * a file with the same content is left untouched.
+         */
+        @Override
+        public boolean write(byte[] bytes, int length) throws IOException {
+            if (location != DocumentationTool.Location.DOCUMENTATION_OUTPUT)
+                throw new IllegalStateException();
+
+            return replace(file, bytes, length, configuration.skipunchanged);
+        }
+
         /**
          * Open an writer for the file, using the encoding (if any) given in the
          * doclet configuration.
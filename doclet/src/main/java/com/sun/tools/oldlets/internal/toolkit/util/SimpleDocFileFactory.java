@@ -132,6 +132,19 @@ class SimpleDocFileFactory extends DocFileFactory {
             return new BufferedOutputStream(new FileOutputStream(file));
         }
 
+        /**
+         * Replace the contents of the file, writing it under a temporary
+         * name and renaming it once complete. With {@code -skipunchanged}
+         * a file with the same content is left untouched.
+         */
+        @Override
+        public boolean write(byte[] bytes, int length) throws IOException {
+            if (location != DocumentationTool.Location.DOCUMENTATION_OUTPUT)
+                throw new IllegalStateException();
+
+            return replace(file.toPath(), bytes, length, configuration.skipunchanged);
+        }
+
         /**
          * Open an writer for the file, using the encoding (if any) given in the
          * doclet configuration.
@@ -264,7 +277,7 @@ class SimpleDocFileFactory extends DocFileFactory {
          */
         private void createDirectoryForFile(File file) {
             File dir = file.getParentFile();
-            if (dir == null || dir.exists() || dir.mkdirs())
+            if (dir == null || dir.exists() || dir.mkdirs() || dir.isDirectory())
                 return;
 
             configuration.message.error(
@@ -34,6 +34,7 @@ import com.sun.javadoc.MethodDoc;
 import com.sun.javadoc.FieldDoc;
 import com.sun.javadoc.AnnotationTypeDoc;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import com.sun.tools.oldlets.internal.toolkit.*;
@@ -107,12 +108,28 @@ public class VisibleMemberMap {
      */
     private final Configuration configuration;
 
-    private static final Map<ClassDoc, ProgramElementDoc[]> propertiesCache =
-            new HashMap<ClassDoc, ProgramElementDoc[]>();
-    private static final Map<ProgramElementDoc, ProgramElementDoc> classPropertiesMap =
-            new HashMap<ProgramElementDoc, ProgramElementDoc>();
-    private static final Map<ProgramElementDoc, GetterSetter> getterSetterMap =
-            new HashMap<ProgramElementDoc, GetterSetter>();
+    /**
+     * The maps and member lists computed in this run of the doclet.
+     */
+    private final Cache cache;
+
+    /**
+     * The visible member maps and the members of the individual classes
+     * computed in one run of the doclet. The members of a superclass are
+     * collected only once and shared by the maps of all its subclasses.
+     */
+    public static final class Cache {
+        private final Map<ClassDoc, VisibleMemberMap[]> maps =
+                new ConcurrentHashMap<ClassDoc, VisibleMemberMap[]>();
+        private final Map<ClassDoc, List<ProgramElementDoc>[][]> classMembers =
+                new ConcurrentHashMap<ClassDoc, List<ProgramElementDoc>[][]>();
+        private final Map<ClassDoc, ProgramElementDoc[]> propertiesCache =
+                new ConcurrentHashMap<ClassDoc, ProgramElementDoc[]>();
+        private final Map<ProgramElementDoc, ProgramElementDoc> classPropertiesMap =
+                new ConcurrentHashMap<ProgramElementDoc, ProgramElementDoc>();
+        private final Map<ProgramElementDoc, GetterSetter> getterSetterMap =
+                new ConcurrentHashMap<ProgramElementDoc, GetterSetter>();
+    }
 
     /**
      * Construct a VisibleMemberMap of the given type for the given
@@ -131,17 +148,48 @@ public class VisibleMemberMap {
         this.classdoc = classdoc;
         this.kind = kind;
         this.configuration = configuration;
+        this.cache = configuration.visibleMemberMaps;
         new ClassMembers(classdoc, STARTLEVEL).build();
     }
 
+    /**
+     * Return the VisibleMemberMap of the given type for the given class.
+     * The map is built only once per run, all the callers share it, so it
+     * must not be modified.
+     *
+     * @param classdoc the class whose members are being mapped.
+     * @param kind the kind of member that is being mapped.
+     * @param configuration the configuration of this run.
+     */
+    public static VisibleMemberMap getInstance(ClassDoc classdoc,
+                                               int kind,
+                                               Configuration configuration) {
+        Map<ClassDoc, VisibleMemberMap[]> maps = configuration.visibleMemberMaps.maps;
+        VisibleMemberMap[] byKind = maps.get(classdoc);
+        if (byKind == null) {
+            byKind = new VisibleMemberMap[NUM_MEMBER_TYPES];
+            VisibleMemberMap[] prev = maps.putIfAbsent(classdoc, byKind);
+            if (prev != null) {
+                byKind = prev;
+            }
+        }
+        synchronized (byKind) {
+            if (byKind[kind] == null) {
+                byKind[kind] = new VisibleMemberMap(classdoc, kind, configuration);
+            }
+            return byKind[kind];
+        }
+    }
+
     /**
      * Return the list of visible classes in this map.
      *
      * @return the list of visible classes in this map.
      */
     public List<ClassDoc> getVisibleClassesList() {
-        sort(visibleClasses);
-        return visibleClasses;
+        List<ClassDoc> list = new ArrayList<ClassDoc>(visibleClasses);
+        sort(list);
+        return list;
     }
 
     /**
@@ -150,7 +198,7 @@ public class VisibleMemberMap {
      * @return the property field documentation, null if there is none.
      */
     public ProgramElementDoc getPropertyMemberDoc(ProgramElementDoc ped) {
-        return classPropertiesMap.get(ped);
+        return cache.classPropertiesMap.get(ped);
     }
 
     /**
@@ -159,7 +207,7 @@ public class VisibleMemberMap {
      * @return the getter documentation, null if there is none.
      */
     public ProgramElementDoc getGetterForProperty(ProgramElementDoc propertyMethod) {
-        return getterSetterMap.get(propertyMethod).getGetter();
+        return cache.getterSetterMap.get(propertyMethod).getGetter();
     }
 
     /**
@@ -168,7 +216,7 @@ public class VisibleMemberMap {
      * @return the setter documentation, null if there is none.
      */
     public ProgramElementDoc getSetterForProperty(ProgramElementDoc propertyMethod) {
-        return getterSetterMap.get(propertyMethod).getSetter();
+        return cache.getterSetterMap.get(propertyMethod).getSetter();
     }
 
     /**
@@ -211,14 +259,14 @@ public class VisibleMemberMap {
      *
      * @param cd the class to retrieve the list of visible members for.
      *
-     * @return the list of members for the given class.
+     * @return a new list of members for the given class.
      */
     public List<ProgramElementDoc> getMembersFor(ClassDoc cd) {
         ClassMembers clmembers = classMap.get(cd);
         if (clmembers == null) {
             return new ArrayList<ProgramElementDoc>();
         }
-        return clmembers.getMembers();
+        return new ArrayList<ProgramElementDoc>(clmembers.getMembers());
     }
 
     /**
@@ -431,9 +479,32 @@ public class VisibleMemberMap {
         }
 
         /**
-         * Return all available class members.
+         * Return all available class members. The list is computed once per
+         * run for each class, kind and filter.
          */
         private List<ProgramElementDoc> getClassMembers(ClassDoc cd, boolean filter) {
+            List<ProgramElementDoc>[][] byKind = cache.classMembers.get(cd);
+            if (byKind == null) {
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                List<ProgramElementDoc>[][] empty = new List[NUM_MEMBER_TYPES][2];
+                byKind = empty;
+                List<ProgramElementDoc>[][] prev = cache.classMembers.putIfAbsent(cd, byKind);
+                if (prev != null) {
+                    byKind = prev;
+                }
+            }
+            int index = filter ? 1 : 0;
+            synchronized (byKind) {
+                List<ProgramElementDoc> members = byKind[kind][index];
+                if (members == null) {
+                    members = Collections.unmodifiableList(computeClassMembers(cd, filter));
+                    byKind[kind][index] = members;
+                }
+                return members;
+            }
+        }
+
+        private List<ProgramElementDoc> computeClassMembers(ClassDoc cd, boolean filter) {
             if (cd.isEnum() && kind == CONSTRUCTORS) {
                 //If any of these rules are hit, return empty array because
                 //we don't document these members ever.
@@ -544,8 +615,9 @@ public class VisibleMemberMap {
             final MethodDoc[] allMethods = cd.methods(filter);
             final FieldDoc[] allFields = cd.fields(false);
 
-            if (propertiesCache.containsKey(cd)) {
-                return propertiesCache.get(cd);
+            final ProgramElementDoc[] cached = cache.propertiesCache.get(cd);
+            if (cached != null) {
+                return cached;
             }
 
             final List<MethodDoc> result = new ArrayList<MethodDoc>();
@@ -561,13 +633,13 @@ public class VisibleMemberMap {
                 final FieldDoc field = fieldForProperty(allFields, propertyMethod);
 
                 addToPropertiesMap(setter, getter, propertyMethod, field);
-                getterSetterMap.put(propertyMethod, new GetterSetter(getter, setter));
+                cache.getterSetterMap.put(propertyMethod, new GetterSetter(getter, setter));
                 result.add(propertyMethod);
             }
             final ProgramElementDoc[] resultAray =
                     result.toArray(new ProgramElementDoc[result.size()]);
-            propertiesCache.put(cd, resultAray);
-            return resultAray;
+            final ProgramElementDoc[] prev = cache.propertiesCache.putIfAbsent(cd, resultAray);
+            return prev != null ? prev : resultAray;
         }
 
         private void addToPropertiesMap(MethodDoc setter,
@@ -600,7 +672,7 @@ public class VisibleMemberMap {
              */
             if ((null == methodRawCommentText || 0 == methodRawCommentText.length())
                     || propertyMethod.equals(commentSource)) {
-                classPropertiesMap.put(propertyMethod, commentSource);
+                cache.classPropertiesMap.put(propertyMethod, commentSource);
             }
         }
 
@@ -723,7 +795,7 @@ public class VisibleMemberMap {
         }
     }
 
-    private class GetterSetter {
+    private static class GetterSetter {
         private final ProgramElementDoc getter;
         private final ProgramElementDoc setter;
 
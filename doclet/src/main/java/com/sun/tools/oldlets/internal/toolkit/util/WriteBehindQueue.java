@@ -0,0 +1,242 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.tools.oldlets.internal.toolkit.Configuration;
+
+/**
+ * Writes generated pages in the background. A page is encoded into a
+ * pooled in-memory buffer and when its writer or stream is closed, the
+ * buffer is handed to a small pool of threads that store it with
+ * {@link DocFile#write(byte[], int)}. The number of pages waiting to be
+ * written is bounded, a writer that would exceed it blocks on close
+ * until some page is written. The first failure to write a page aborts
+ * the generation with {@link DocletAbortException}.
+ *
+ *  <p><b>This is NOT part of any supported API.
+ *  If you write code that depends on this, you do so at your own risk.
+ *  This code and its internal interfaces are subject to change or
+ *  deletion without notice.</b>
+ */
+public class WriteBehindQueue {
+    /** Number of threads writing the pages. */
+    private static final int THREADS = 2;
+    /** Number of pages waiting to be written. */
+    private static final int CAPACITY = 16;
+    /** Larger buffers are not returned to the pool. */
+    private static final int MAX_POOLED = 1 << 20;
+
+    private final Configuration configuration;
+    private final Semaphore pending = new Semaphore(CAPACITY);
+    private final ConcurrentLinkedQueue<PageBuffer> pool = new ConcurrentLinkedQueue<PageBuffer>();
+    private ExecutorService executor;
+    private volatile Throwable failure;
+    private volatile DocFile failedFile;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    public WriteBehindQueue(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Open a writer for the file, using the encoding (if any) given in the
+     * doclet configuration. The file is written after the writer is closed.
+     *
+     * @throws DocletAbortException if some page could not be written
+     */
+    public Writer openWriter(DocFile file) throws UnsupportedEncodingException {
+        return newWriter(openOutputStream(file));
+    }
+
+    /**
+     * Create a writer writing to the stream in the encoding (if any) given
+     * in the doclet configuration.
+     */
+    public Writer newWriter(OutputStream stream) throws UnsupportedEncodingException {
+        OutputStreamWriter out = configuration.docencoding == null
+                ? new OutputStreamWriter(stream)
+                : new OutputStreamWriter(stream, configuration.docencoding);
+        return new BufferedWriter(out);
+    }
+
+    /**
+     * Open an output stream for the file. The file is written after
+     * the stream is closed.
+     *
+     * @throws DocletAbortException if some page could not be written
+     */
+    public OutputStream openOutputStream(DocFile file) {
+        checkFailure();
+        PageBuffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new PageBuffer();
+        }
+        return new PageStream(file, buffer);
+    }
+
+    /**
+     * Wait until all pages are written. With {@code -skipunchanged} report
+     * how many files were written and how many were left untouched.
+     *
+     * @throws DocletAbortException if some page could not be written
+     */
+    public void finish() {
+        ExecutorService e;
+        synchronized (this) {
+            e = executor;
+            executor = null;
+        }
+        if (e != null) {
+            e.shutdown();
+            try {
+                while (!e.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                e.shutdownNow();
+                throw new DocletAbortException(ex);
+            }
+        }
+        pool.clear();
+        Throwable t = failure;
+        if (t != null) {
+            configuration.message.error("doclet.exception_encountered",
+                    t.toString(), failedFile.getPath());
+            throw new DocletAbortException(t);
+        }
+        if (configuration.skipunchanged) {
+            configuration.message.notice("doclet.Files_written_0_unchanged_1",
+                    String.valueOf(written.get()), String.valueOf(unchanged.get()));
+        }
+    }
+
+    private void checkFailure() {
+        Throwable t = failure;
+        if (t != null) {
+            throw new DocletAbortException(t);
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            final AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(THREADS, (r) -> {
+                Thread t = new Thread(r, "javadoc-writer-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    private void submit(final DocFile file, final PageBuffer buffer) throws IOException {
+        try {
+            pending.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+        executor().execute(() -> {
+            try {
+                if (failure == null) {
+                    if (file.write(buffer.bytes(), buffer.size())) {
+                        written.incrementAndGet();
+                    } else {
+                        unchanged.incrementAndGet();
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                synchronized (WriteBehindQueue.this) {
+                    if (failure == null) {
+                        failedFile = file;
+                        failure = ex;
+                    }
+                }
+            } finally {
+                pending.release();
+                if (buffer.bytes().length <= MAX_POOLED) {
+                    buffer.reset();
+                    pool.offer(buffer);
+                }
+            }
+        });
+    }
+
+    private static final class PageBuffer extends ByteArrayOutputStream {
+        PageBuffer() {
+            super(16 * 1024);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+
+    private final class PageStream extends OutputStream {
+        private final DocFile file;
+        private PageBuffer buffer;
+
+        PageStream(DocFile file, PageBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            buffer().write(b, off, len);
+        }
+
+        private PageBuffer buffer() throws IOException {
+            if (buffer == null) {
+                throw new IOException("Stream closed");
+            }
+            return buffer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            PageBuffer b = buffer;
+            buffer = null;
+            submit(file, b);
+        }
+    }
+}
@@ -102,6 +102,25 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
 
     private SerializedForm serializedForm;
 
+    /*
+     * The member arrays are computed on first use and never modified
+     * afterwards. They are shared by all the readers, the public methods
+     * hand out copies, as the callers are free to sort the result.
+     * The arrays are published through volatile fields, computing one
+     * twice in a race is harmless.
+     */
+    private volatile ClassDocImpl[] interfaces;
+    private volatile com.sun.javadoc.Type[] interfaceTypes;
+    private volatile FieldDocImpl[] fieldsFiltered;
+    private volatile FieldDocImpl[] fieldsAll;
+    private volatile FieldDocImpl[] enumConstants;
+    private volatile MethodDocImpl[] methodsFiltered;
+    private volatile MethodDocImpl[] methodsAll;
+    private volatile ConstructorDocImpl[] constructorsFiltered;
+    private volatile ConstructorDocImpl[] constructorsAll;
+    private volatile ClassDocImpl[] innerClassesFiltered;
+    private volatile ClassDocImpl[] innerClassesAll;
+
     /**
      * Constructor
      */
@@ -545,12 +564,19 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * Return an empty array if there are no interfaces.
      */
     public ClassDoc[] interfaces() {
-        ListBuffer<ClassDocImpl> ta = new ListBuffer<>();
-        for (Type t : env.types.interfaces(type)) {
-            ta.append(env.getClassDoc((ClassSymbol)t.tsym));
+        return getInterfaces().clone();
+    }
+
+    private ClassDocImpl[] getInterfaces() {
+        ClassDocImpl[] result = interfaces;
+        if (result == null) {
+            ListBuffer<ClassDocImpl> ta = new ListBuffer<>();
+            for (Type t : env.types.interfaces(type)) {
+                ta.append(env.getClassDoc((ClassSymbol)t.tsym));
+            }
+            interfaces = result = ta.toArray(new ClassDocImpl[ta.length()]);
         }
-        //### Cache ta here?
-        return ta.toArray(new ClassDocImpl[ta.length()]);
+        return result;
     }
 
     /**
@@ -560,8 +586,11 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * Return an empty array if there are no interfaces.
      */
     public com.sun.javadoc.Type[] interfaceTypes() {
-        //### Cache result here?
-        return TypeMaker.getTypes(env, env.types.interfaces(type));
+        com.sun.javadoc.Type[] result = interfaceTypes;
+        if (result == null) {
+            interfaceTypes = result = TypeMaker.getTypes(env, env.types.interfaces(type));
+        }
+        return result.clone();
     }
 
     /**
@@ -592,6 +621,22 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * @param enumConstants  if true, return the enum constants instead
      */
     private FieldDoc[] fields(boolean filter, boolean enumConstants) {
+        FieldDocImpl[] result = enumConstants ? this.enumConstants
+                : filter ? fieldsFiltered : fieldsAll;
+        if (result == null) {
+            result = computeFields(filter, enumConstants);
+            if (enumConstants) {
+                this.enumConstants = result;
+            } else if (filter) {
+                fieldsFiltered = result;
+            } else {
+                fieldsAll = result;
+            }
+        }
+        return result.clone();
+    }
+
+    private FieldDocImpl[] computeFields(boolean filter, boolean enumConstants) {
         List<FieldDocImpl> fields = List.nil();
         for (Symbol sym : SymbolKind.getSymbols(members(), false)) {
             if (sym != null && SymbolKind.VAR.same(sym)) {
@@ -616,6 +661,19 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * methods in this class.  Does not include constructors.
      */
     public MethodDoc[] methods(boolean filter) {
+        MethodDocImpl[] result = filter ? methodsFiltered : methodsAll;
+        if (result == null) {
+            result = computeMethods(filter);
+            if (filter) {
+                methodsFiltered = result;
+            } else {
+                methodsAll = result;
+            }
+        }
+        return result.clone();
+    }
+
+    private MethodDocImpl[] computeMethods(boolean filter) {
         Names names = tsym.name.table.names;
         List<MethodDocImpl> methods = List.nil();
         for (Symbol sym : SymbolKind.getSymbols(members(), true)) {
@@ -629,7 +687,6 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
                 }
             }
         }
-        //### Cache methods here?
         return methods.toArray(new MethodDocImpl[methods.length()]);
     }
 
@@ -651,6 +708,19 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * constructors in this class.
      */
     public ConstructorDoc[] constructors(boolean filter) {
+        ConstructorDocImpl[] result = filter ? constructorsFiltered : constructorsAll;
+        if (result == null) {
+            result = computeConstructors(filter);
+            if (filter) {
+                constructorsFiltered = result;
+            } else {
+                constructorsAll = result;
+            }
+        }
+        return result.clone();
+    }
+
+    private ConstructorDocImpl[] computeConstructors(boolean filter) {
         Names names = tsym.name.table.names;
         List<ConstructorDocImpl> constructors = List.nil();
         for (Symbol sym : SymbolKind.getSymbols(members(), true)) {
@@ -662,7 +732,6 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
                 }
             }
         }
-        //### Cache constructors here?
         return constructors.toArray(new ConstructorDocImpl[constructors.length()]);
     }
 
@@ -720,6 +789,23 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
      * are not included.
      */
     public ClassDoc[] innerClasses(boolean filter) {
+        return getInnerClasses(filter).clone();
+    }
+
+    private ClassDocImpl[] getInnerClasses(boolean filter) {
+        ClassDocImpl[] result = filter ? innerClassesFiltered : innerClassesAll;
+        if (result == null) {
+            result = computeInnerClasses(filter);
+            if (filter) {
+                innerClassesFiltered = result;
+            } else {
+                innerClassesAll = result;
+            }
+        }
+        return result;
+    }
+
+    private ClassDocImpl[] computeInnerClasses(boolean filter) {
         ListBuffer<ClassDocImpl> innerClasses = new ListBuffer<>();
         for (Symbol sym : SymbolKind.getSymbols(members(), false)) {
             if (sym != null && SymbolKind.TYP.same(sym)) {
@@ -730,7 +816,6 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
                 }
             }
         }
-        //### Cache classes here?
         return innerClasses.toArray(new ClassDocImpl[innerClasses.length()]);
     }
 
@@ -778,9 +863,7 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
         }
 
         // search inner classes
-        //### Add private entry point to avoid creating array?
-        //### Replicate code in innerClasses here to avoid consing?
-        for (ClassDoc icd : innerClasses()) {
+        for (ClassDocImpl icd : getInnerClasses(true)) {
             if (icd.name().equals(className) ||
                     //### This is from original javadoc but it looks suspicious to me...
                     //### I believe it is attempting to compensate for the confused
@@ -789,7 +872,7 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
                     icd.name().endsWith("." + className)) {
                 return icd;
             } else {
-                ClassDoc innercd = ((ClassDocImpl) icd).searchClass(className);
+                ClassDoc innercd = icd.searchClass(className);
                 if (innercd != null) {
                     return innercd;
                 }
@@ -972,8 +1055,8 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
         }
 
         // search interfaces
-        for (ClassDoc intf : interfaces()) {
-            cdi = (ClassDocImpl) intf;
+        for (ClassDocImpl intf : getInterfaces()) {
+            cdi = intf;
             mdi = cdi.searchMethod(methodName, paramTypes, searched);
             if (mdi != null) {
                 return mdi;
@@ -1080,8 +1163,8 @@ public class ClassDocImpl extends ProgramElementDocImpl implements ClassDoc {
         }
 
         // search interfaces
-        for (ClassDoc intf : interfaces()) {
-            cdi = (ClassDocImpl) intf;
+        for (ClassDocImpl intf : getInterfaces()) {
+            cdi = intf;
             FieldDocImpl fdi = cdi.searchField(fieldName, searched);
             if (fdi != null) {
                 return fdi;
@@ -28,6 +28,7 @@ package com.sun.tools.oldlets.javadoc.main;
 import com.sun.javadoc.SourcePosition;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.tools.JavaFileManager;
 
@@ -52,6 +53,8 @@ import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Name;
 import com.sun.tools.javac.util.Names;
+import org.apidesign.javadoc.codesnippet.impl.Events;
+import org.apidesign.javadoc.codesnippet.impl.TaskGraph;
 
 /**
  * Holds the environment for a run of javadoc.
@@ -553,7 +556,7 @@ public class DocEnv {
         messager.exit();
     }
 
-    protected Map<PackageSymbol, PackageDocImpl> packageMap = new HashMap<>();
+    protected Map<PackageSymbol, PackageDocImpl> packageMap = new ConcurrentHashMap<>();
     /**
      * Return the PackageDoc of this package symbol.
      */
@@ -561,8 +564,8 @@ public class DocEnv {
         PackageDocImpl result = packageMap.get(pack);
         if (result != null) return result;
         result = new PackageDocImpl(this, pack);
-        packageMap.put(pack, result);
-        return result;
+        PackageDocImpl prev = packageMap.putIfAbsent(pack, result);
+        return prev != null ? prev : result;
     }
 
     /**
@@ -579,7 +582,7 @@ public class DocEnv {
     }
 
 
-    protected Map<ClassSymbol, ClassDocImpl> classMap = new HashMap<>();
+    protected Map<ClassSymbol, ClassDocImpl> classMap = new ConcurrentHashMap<>();
     /**
      * Return the ClassDoc (or a subtype) of this class symbol.
      */
@@ -591,8 +594,8 @@ public class DocEnv {
         } else {
             result = new ClassDocImpl(this, clazz);
         }
-        classMap.put(clazz, result);
-        return result;
+        ClassDocImpl prev = classMap.putIfAbsent(clazz, result);
+        return prev != null ? prev : result;
     }
 
     /**
@@ -620,7 +623,7 @@ public class DocEnv {
         return (tree.mods.flags & Flags.ANNOTATION) != 0;
     }
 
-    protected Map<VarSymbol, FieldDocImpl> fieldMap = new HashMap<>();
+    protected Map<VarSymbol, FieldDocImpl> fieldMap = new ConcurrentHashMap<>();
     /**
      * Return the FieldDoc of this var symbol.
      */
@@ -628,8 +631,8 @@ public class DocEnv {
         FieldDocImpl result = fieldMap.get(var);
         if (result != null) return result;
         result = new FieldDocImpl(this, var);
-        fieldMap.put(var, result);
-        return result;
+        FieldDocImpl prev = fieldMap.putIfAbsent(var, result);
+        return prev != null ? prev : result;
     }
     /**
      * Create a FieldDoc for a var symbol.
@@ -644,7 +647,7 @@ public class DocEnv {
         }
     }
 
-    protected Map<MethodSymbol, ExecutableMemberDocImpl> methodMap = new HashMap<>();
+    protected Map<MethodSymbol, ExecutableMemberDocImpl> methodMap = new ConcurrentHashMap<>();
     /**
      * Create a MethodDoc for this MethodSymbol.
      * Should be called only on symbols representing methods.
@@ -668,8 +671,8 @@ public class DocEnv {
         MethodDocImpl result = (MethodDocImpl)methodMap.get(meth);
         if (result != null) return result;
         result = new MethodDocImpl(this, meth);
-        methodMap.put(meth, result);
-        return result;
+        ExecutableMemberDocImpl prev = methodMap.putIfAbsent(meth, result);
+        return prev != null ? (MethodDocImpl)prev : result;
     }
 
     /**
@@ -695,8 +698,8 @@ public class DocEnv {
         ConstructorDocImpl result = (ConstructorDocImpl)methodMap.get(meth);
         if (result != null) return result;
         result = new ConstructorDocImpl(this, meth);
-        methodMap.put(meth, result);
-        return result;
+        ExecutableMemberDocImpl prev = methodMap.putIfAbsent(meth, result);
+        return prev != null ? (ConstructorDocImpl)prev : result;
     }
 
     /**
@@ -726,8 +729,8 @@ public class DocEnv {
             (AnnotationTypeElementDocImpl)methodMap.get(meth);
         if (result != null) return result;
         result = new AnnotationTypeElementDocImpl(this, meth);
-        methodMap.put(meth, result);
-        return result;
+        ExecutableMemberDocImpl prev = methodMap.putIfAbsent(meth, result);
+        return prev != null ? (AnnotationTypeElementDocImpl)prev : result;
     }
 
 //  private Map<ClassType, ParameterizedTypeImpl> parameterizedTypeMap =
@@ -746,21 +749,21 @@ public class DocEnv {
 //      return result;
     }
 
-    TreePath getTreePath(JCCompilationUnit tree) {
+    synchronized TreePath getTreePath(JCCompilationUnit tree) {
         TreePath p = treePaths.get(tree);
         if (p == null)
             treePaths.put(tree, p = new TreePath(tree));
         return p;
     }
 
-    TreePath getTreePathForPkg(JCCompilationUnit toplevel, JCTree tree) {
+    synchronized TreePath getTreePathForPkg(JCCompilationUnit toplevel, JCTree tree) {
         TreePath p = treePaths.get(tree);
         if (p == null)
             treePaths.put(tree, p = new TreePath(getTreePath(toplevel), tree));
         return p;
     }
 
-    TreePath getTreePath(JCCompilationUnit toplevel, JCClassDecl tree) {
+    synchronized TreePath getTreePath(JCCompilationUnit toplevel, JCClassDecl tree) {
         TreePath p = treePaths.get(tree);
         if (p == null)
             treePaths.put(tree, p = new TreePath(getTreePath(toplevel), tree));
@@ -848,6 +851,55 @@ public class DocEnv {
         doclint.init(t, doclintOpts.toArray(new String[doclintOpts.size()]), false);
     }
 
+    /**
+     * Check the comments with doclint now, rather than one by one when
+     * they are first used. Each compilation unit is a task, the units are
+     * checked on up to the given number of threads, each thread with its
+     * own {@link DocLint#fork() fork} of doclint. The messages are printed
+     * in the order of the units and of the comments in them.
+     *
+     * @param docs the docs whose comments shall be checked
+     * @param threads the number of threads
+     */
+    void checkDocLint(Collection<? extends DocImpl> docs, int threads) {
+        if (doclint == null) {
+            return;
+        }
+        Map<CompilationUnitTree, List<DocImpl>> units = new LinkedHashMap<>();
+        for (DocImpl doc : docs) {
+            if (doc.takeDocLint()) {
+                units.computeIfAbsent(doc.treePath.getCompilationUnit(),
+                        (__) -> new ArrayList<>()).add(doc);
+            }
+        }
+        ThreadLocal<DocLint> forks = ThreadLocal.withInitial(doclint::fork);
+        TaskGraph graph = new TaskGraph();
+        for (List<DocImpl> unit : units.values()) {
+            unit.sort((d1, d2) -> Integer.compare(
+                    ((JCTree) d1.treePath.getLeaf()).getStartPosition(),
+                    ((JCTree) d2.treePath.getLeaf()).getStartPosition()));
+            graph.add(() -> {
+                DocLint lint = threads > 1 ? forks.get() : doclint;
+                for (DocImpl doc : unit) {
+                    Events event = Events.docLint(
+                            doc.treePath.getCompilationUnit().getSourceFile().getName(), doc.name());
+                    try {
+                        lint.scan(doc.treePath);
+                    } finally {
+                        event.bytes(doc.documentation.length()).end();
+                    }
+                }
+            });
+        }
+        try {
+            graph.run(threads);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
     JavaScriptScanner initJavaScriptScanner(boolean allowScriptInComments) {
         if (allowScriptInComments) {
             javaScriptScanner = null;
@@ -861,7 +913,14 @@ public class DocEnv {
         return (doclint == null);
     }
 
-    Map<CompilationUnitTree, Boolean> shouldCheck = new HashMap<>();
+    /**
+     * The resolved @see and @link references, so that a reference repeated
+     * in a class is looked up only once.
+     */
+    final Map<SeeTagImpl.Reference, SeeTagImpl.Resolution> seeTagReferences =
+            new ConcurrentHashMap<>();
+
+    Map<CompilationUnitTree, Boolean> shouldCheck = new ConcurrentHashMap<>();
 
     boolean shouldCheck(CompilationUnitTree unit) {
         return shouldCheck.computeIfAbsent(unit, (__) -> {
@@ -42,6 +42,7 @@ import com.sun.source.util.TreePath;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
 import com.sun.tools.javac.util.Position;
+import org.apidesign.javadoc.codesnippet.impl.Events;
 
 /**
  * abstract base class of all Doc classes.  Doc item's are representations
@@ -97,6 +98,11 @@ public abstract class DocImpl implements Doc, Comparable<Object> {
      */
     private Tag[] inlineTags;
 
+    /**
+     * True once the comment was given to doclint.
+     */
+    private boolean docLintTaken;
+
     /**
      * Constructor.
      */
@@ -139,17 +145,38 @@ public abstract class DocImpl implements Doc, Comparable<Object> {
                     }
                 });
             }
-            if (env.doclint != null
-                    && treePath != null
-                    && env.shouldCheck(treePath.getCompilationUnit())
-                    && d.equals(getCommentText(treePath))) {
-                env.doclint.scan(treePath);
+            if (takeDocLint()) {
+                Events event = Events.docLint(
+                        treePath.getCompilationUnit().getSourceFile().getName(), name());
+                try {
+                    env.doclint.scan(treePath);
+                } finally {
+                    event.bytes(d.length()).end();
+                }
             }
             comment = new Comment(this, d);
         }
         return comment;
     }
 
+    /**
+     * Decide whether the comment is to be checked by doclint. A comment is
+     * given to doclint only once, either when it is first used or by
+     * {@link DocEnv#checkDocLint}.
+     *
+     * @return true if the comment at {@link #treePath} shall be checked
+     */
+    boolean takeDocLint() {
+        if (docLintTaken) {
+            return false;
+        }
+        docLintTaken = true;
+        return env.doclint != null
+                && treePath != null
+                && env.shouldCheck(treePath.getCompilationUnit())
+                && documentation().equals(getCommentText(treePath));
+    }
+
     /**
      * Return the text of the comment for this doc item.
      * TagImpls have been removed.
@@ -37,6 +37,7 @@ import com.sun.tools.javac.util.JCDiagnostic;
 import com.sun.tools.javac.util.JCDiagnostic.DiagnosticType;
 import com.sun.tools.javac.util.JavacMessages;
 import com.sun.tools.javac.util.Log;
+import org.apidesign.javadoc.codesnippet.impl.OrderedMessages;
 
 /**
  * Utility for integrating with javadoc tools and for localization.
@@ -170,6 +171,9 @@ public class Messager extends Log implements DocErrorReporter {
      * @param msg message to print
      */
     public void printError(SourcePosition pos, String msg) {
+        if (OrderedMessages.defer(() -> printError(pos, msg))) {
+            return;
+        }
         if (diagListener != null) {
             report(DiagnosticType.ERROR, pos, msg);
             return;
@@ -203,6 +207,9 @@ public class Messager extends Log implements DocErrorReporter {
      * @param msg message to print
      */
     public void printWarning(SourcePosition pos, String msg) {
+        if (OrderedMessages.defer(() -> printWarning(pos, msg))) {
+            return;
+        }
         if (diagListener != null) {
             report(DiagnosticType.WARNING, pos, msg);
             return;
@@ -235,6 +242,9 @@ public class Messager extends Log implements DocErrorReporter {
      * @param msg message to print
      */
     public void printNotice(SourcePosition pos, String msg) {
+        if (OrderedMessages.defer(() -> printNotice(pos, msg))) {
+            return;
+        }
         if (diagListener != null) {
             report(DiagnosticType.NOTE, pos, msg);
             return;
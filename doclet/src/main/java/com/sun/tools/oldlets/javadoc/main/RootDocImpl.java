@@ -29,6 +29,8 @@ import com.sun.javadoc.SourcePosition;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.PackageDoc;
 import com.sun.javadoc.AnnotationDesc;
+import com.sun.javadoc.AnnotationTypeDoc;
+import com.sun.javadoc.Doc;
 import com.sun.javadoc.RootDoc;
 import com.sun.tools.javac.code.Source;
 import java.io.IOException;
@@ -387,6 +389,35 @@ public class RootDocImpl extends DocImpl implements RootDoc {
         env.initDoclint(opts, customTagNames, htmlVersion);
     }
 
+    /**
+     * Check the comments of the documented classes, their members and the
+     * specified packages with doclint on up to the given number of
+     * threads, before the doclet uses them.
+     *
+     * @param threads the number of threads
+     */
+    public void checkDocLint(int threads) {
+        java.util.List<DocImpl> docs = new java.util.ArrayList<>();
+        for (ClassDoc cd : classes()) {
+            docs.add((DocImpl) cd);
+            addDocs(docs, cd.fields());
+            addDocs(docs, cd.enumConstants());
+            addDocs(docs, cd.methods());
+            addDocs(docs, cd.constructors());
+            if (cd instanceof AnnotationTypeDoc) {
+                addDocs(docs, ((AnnotationTypeDoc) cd).elements());
+            }
+        }
+        addDocs(docs, specifiedPackages());
+        env.checkDocLint(docs, threads);
+    }
+
+    private static void addDocs(java.util.List<DocImpl> docs, Doc[] arr) {
+        for (Doc doc : arr) {
+            docs.add((DocImpl) doc);
+        }
+    }
+
     public JavaScriptScanner initJavaScriptScanner(boolean allowScriptInComments) {
         return env.initJavaScriptScanner(allowScriptInComments);
     }
@@ -33,6 +33,7 @@ import com.sun.javadoc.FieldDoc;
 import com.sun.javadoc.SeeTag;
 import java.io.File;
 import java.util.Locale;
+import java.util.Objects;
 
 import com.sun.tools.javac.code.Printer;
 import com.sun.tools.javac.code.Symbol;
@@ -320,6 +321,40 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
      * the tag. May be null, if, for example, it is a package comment.
      */
     private void findReferenced(ClassDocImpl containingClass) {
+        if (where.length() == 0 && containingClass == null) {
+            docenv().warning(holder,
+                             "tag.see.class_not_specified",
+                             name, text);
+            return;
+        }
+        Reference ref = new Reference(containingClass, where, what);
+        Resolution res = docenv().seeTagReferences.get(ref);
+        if (res == null) {
+            malformed = false;
+            resolve(containingClass);
+            res = new Resolution(referencedPackage, referencedClass,
+                                 referencedMember, where);
+            if (!malformed) {
+                docenv().seeTagReferences.putIfAbsent(ref, res);
+            }
+        } else {
+            referencedPackage = res.referencedPackage;
+            referencedClass = res.referencedClass;
+            referencedMember = res.referencedMember;
+            where = res.where;
+        }
+        if (referencedClass != null && what != null && referencedMember == null) {
+            docenv().warning(holder,
+                             "tag.see.can_not_find_member",
+                             name, what, where);
+        }
+    }
+
+    /**
+     * Resolve the reference, without reporting a member that cannot
+     * be found.
+     */
+    private void resolve(ClassDocImpl containingClass) {
         if (where.length() > 0) {
             if (containingClass != null) {
                 referencedClass = containingClass.findClass(where);
@@ -337,14 +372,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
                 return;
             }
         } else {
-            if (containingClass == null) {
-                docenv().warning(holder,
-                                 "tag.see.class_not_specified",
-                                 name, text);
-                return;
-            } else {
-                referencedClass = containingClass;
-            }
+            referencedClass = containingClass;
         }
         where = referencedClass.qualifiedName();
 
@@ -378,11 +406,65 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
                     referencedMember = fd;
                 }
             }
-            if (referencedMember == null) {
-                docenv().warning(holder,
-                                 "tag.see.can_not_find_member",
-                                 name, what, where);
+        }
+    }
+
+    /**
+     * Set when the parameter list of the reference is malformed. The
+     * warnings are reported for every occurrence, so such references
+     * are not cached.
+     */
+    private boolean malformed;
+
+    /**
+     * The text of a reference together with the class it is resolved in.
+     * The same reference text resolves the same way in the whole class,
+     * whichever member holds the comment.
+     */
+    static final class Reference {
+        private final ClassDocImpl scope;
+        private final String where;
+        private final String what;
+
+        Reference(ClassDocImpl scope, String where, String what) {
+            this.scope = scope;
+            this.where = where;
+            this.what = what;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Reference)) {
+                return false;
             }
+            Reference other = (Reference) obj;
+            return scope == other.scope && where.equals(other.where)
+                    && Objects.equals(what, other.what);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(scope) * 31 + where.hashCode()) * 31
+                    + Objects.hashCode(what);
+        }
+    }
+
+    /**
+     * What a {@link Reference} resolved to. All the fields are null if
+     * nothing was found, such negative results are cached as well.
+     */
+    static final class Resolution {
+        final PackageDoc referencedPackage;
+        final ClassDoc referencedClass;
+        final MemberDoc referencedMember;
+        final String where;
+
+        Resolution(PackageDoc referencedPackage, ClassDoc referencedClass,
+                   MemberDoc referencedMember, String where) {
+            this.referencedPackage = referencedPackage;
+            this.referencedClass = referencedClass;
+            this.referencedMember = referencedMember;
+            this.where = where;
         }
     }
 
@@ -470,6 +552,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
                     case TNSPACE:
                         if (Character.isJavaIdentifierStart(cp)) { // name
                             if (prevstate == ARRAYDECORATION) {
+                                malformed = true;
                                 docenv().warning(holder,
                                                  "tag.missing_comma_space",
                                                  name,
@@ -492,6 +575,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
                             typeId.append(']');
                             state = TNSPACE;
                         } else if (!Character.isWhitespace(cp)) {
+                            malformed = true;
                             docenv().warning(holder,
                                              "tag.illegal_char_in_arr_dim",
                                              name,
@@ -510,6 +594,7 @@ class SeeTagImpl extends TagImpl implements SeeTag, LayoutCharacters {
             }
             if (state == ARRAYDECORATION ||
                 (state == START && prevstate == TNSPACE)) {
+                malformed = true;
                 docenv().warning(holder,
                                  "tag.illegal_see_tag",
                                  "(" + parameters + ")");
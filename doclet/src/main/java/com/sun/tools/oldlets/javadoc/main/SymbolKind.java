@@ -104,6 +104,7 @@ public enum SymbolKind {
     static {
         Object rec, nonRec, getSym;
         try {
+            @SuppressWarnings("rawtypes")
             Class<? extends Enum> LookupKind = Class.forName("com.sun.tools.javac.code.Scope$LookupKind").asSubclass(Enum.class);
             rec = findKind(LookupKind, "RECURSIVE");
             nonRec = findKind(LookupKind, "NON_RECURSIVE");
@@ -142,7 +143,7 @@ public enum SymbolKind {
         NEXT = next;
     }
 
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private static <E extends Enum> E findKind(Class<E> enumType, String name) {
         Enum<?> value = Enum.valueOf(enumType, name);
         return enumType.cast(value);
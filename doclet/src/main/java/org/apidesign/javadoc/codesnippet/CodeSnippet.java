@@ -35,6 +35,7 @@ import java.util.Stack;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.apidesign.javadoc.codesnippet.impl.Events;
 
 final class CodeSnippet implements CharSequence {
     private StringBuilder sb = new StringBuilder();
@@ -328,91 +329,96 @@ final class CodeSnippet implements CharSequence {
 
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                String fullName = CodeSnippet.fullName(dir, file);
-                String javaName = CodeSnippet.javaName(file);
+                Events event = Events.scanFile(file);
                 Map<String, CharSequence> texts = new LinkedHashMap<>();
-                Map<String, String> imports = new TreeMap<>(topClasses);
-                Set<String> packages = new LinkedHashSet<>();
-                Charset charset = snip.getEncoding();
-                try (final BufferedReader r = Files.newBufferedReader(file, charset)) {
-                    for (;;) {
-                        String line = r.readLine();
-                        if (line == null) {
-                            break;
-                        }
-                        if (javaName != null) {
-                            Matcher m = snip.importMatcher(line);
-                            if (m.matches()) {
-                                final String fqn = m.group(1);
-                                if (fqn.endsWith(".*")) {
-                                    packages.add(fqn.substring(0, fqn.length() - 2));
-                                } else {
-                                    int lastDot = fqn.lastIndexOf('.');
-                                    imports.put(fqn.substring(lastDot + 1), fqn);
-                                }
-                            }
-                        }
-                        {
-                            Matcher m = snip.startMatcher(line);
-                            if (m.matches()) {
-                                CodeSnippet sb = new CodeSnippet(file, snip);
-                                CharSequence prev = texts.put(sectionName(m.group(2)), sb);
-                                if (prev != null) {
-                                    snip.printError(null, "Same pattern is there twice: " + m.group(1) + " in " + file);
-                                }
-                                continue;
+                try {
+                    String fullName = CodeSnippet.fullName(dir, file);
+                    String javaName = CodeSnippet.javaName(file);
+                    Map<String, String> imports = new TreeMap<>(topClasses);
+                    Set<String> packages = new LinkedHashSet<>();
+                    Charset charset = snip.getEncoding();
+                    try (final BufferedReader r = Files.newBufferedReader(file, charset)) {
+                        for (;;) {
+                            String line = r.readLine();
+                            if (line == null) {
+                                break;
                             }
-                        }
-                        {
-                            Matcher m = snip.endMatcher(line);
-                            if (m.matches()) {
-                                String sectionName = sectionName(m.group(2));
-                                if (sectionName.isEmpty()) {
-                                    // find last
-                                    Iterator<String> it = texts.keySet().iterator();
-                                    while (it.hasNext()) {
-                                        sectionName = it.next();
+                            if (javaName != null) {
+                                Matcher m = snip.importMatcher(line);
+                                if (m.matches()) {
+                                    final String fqn = m.group(1);
+                                    if (fqn.endsWith(".*")) {
+                                        packages.add(fqn.substring(0, fqn.length() - 2));
+                                    } else {
+                                        int lastDot = fqn.lastIndexOf('.');
+                                        imports.put(fqn.substring(lastDot + 1), fqn);
                                     }
                                 }
-                                final CharSequence s = texts.get(sectionName);
-                                if (s instanceof CodeSnippet) {
-                                    Boolean finish;
-                                    if (m.group(1).startsWith("FINISH")) {
-                                        finish = true;
-                                    } else if (m.group(1).startsWith("END")) {
-                                        finish = false;
-                                    } else {
-                                        finish = null;
+                            }
+                            {
+                                Matcher m = snip.startMatcher(line);
+                                if (m.matches()) {
+                                    CodeSnippet sb = new CodeSnippet(file, snip);
+                                    CharSequence prev = texts.put(sectionName(m.group(2)), sb);
+                                    if (prev != null) {
+                                        snip.printError(null, "Same pattern is there twice: " + m.group(1) + " in " + file);
                                     }
-                                    texts.put(sectionName, ((CodeSnippet) s).toString(finish, imports, packages));
                                     continue;
                                 }
-                                if (s == null) {
-                                    snip.printError(null, "Closing unknown section: " + m.group(2) + " in " + file);
+                            }
+                            {
+                                Matcher m = snip.endMatcher(line);
+                                if (m.matches()) {
+                                    String sectionName = sectionName(m.group(2));
+                                    if (sectionName.isEmpty()) {
+                                        // find last
+                                        Iterator<String> it = texts.keySet().iterator();
+                                        while (it.hasNext()) {
+                                            sectionName = it.next();
+                                        }
+                                    }
+                                    final CharSequence s = texts.get(sectionName);
+                                    if (s instanceof CodeSnippet) {
+                                        Boolean finish;
+                                        if (m.group(1).startsWith("FINISH")) {
+                                            finish = true;
+                                        } else if (m.group(1).startsWith("END")) {
+                                            finish = false;
+                                        } else {
+                                            finish = null;
+                                        }
+                                        texts.put(sectionName, ((CodeSnippet) s).toString(finish, imports, packages));
+                                        continue;
+                                    }
+                                    if (s == null) {
+                                        snip.printError(null, "Closing unknown section: " + m.group(2) + " in " + file);
+                                        continue;
+                                    }
+                                    snip.printError(null, "Closing not opened section: " + m.group(2) + " in " + file);
                                     continue;
                                 }
-                                snip.printError(null, "Closing not opened section: " + m.group(2) + " in " + file);
-                                continue;
                             }
-                        }
-                        for (CharSequence charSequence : texts.values()) {
-                            if (charSequence instanceof CodeSnippet) {
-                                CodeSnippet sb = (CodeSnippet) charSequence;
-                                sb.append(line);
+                            for (CharSequence charSequence : texts.values()) {
+                                if (charSequence instanceof CodeSnippet) {
+                                    CodeSnippet sb = (CodeSnippet) charSequence;
+                                    sb.append(line);
+                                }
                             }
                         }
+                    } catch (MalformedInputException ex) {
+                        snip.printNotice(null, "Skipping binary file " + file.toString());
+                    } catch (IOException ex) {
+                        snip.printError(null, "Cannot read " + file.toString() + " " + ex.getMessage());
                     }
-                } catch (MalformedInputException ex) {
-                    snip.printNotice(null, "Skipping binary file " + file.toString());
-                } catch (IOException ex) {
-                    snip.printError(null, "Cannot read " + file.toString() + " " + ex.getMessage());
-                }
-                for (Map.Entry<String, CharSequence> entry : texts.entrySet()) {
-                    CharSequence v = entry.getValue();
-                    if (v instanceof CodeSnippet) {
-                        snip.printError(null, "Not closed section " + entry.getKey() + " in " + file);
+                    for (Map.Entry<String, CharSequence> entry : texts.entrySet()) {
+                        CharSequence v = entry.getValue();
+                        if (v instanceof CodeSnippet) {
+                            snip.printError(null, "Not closed section " + entry.getKey() + " in " + file);
+                        }
+                        collect.registerSnippet(fullName, entry.getKey(), v.toString());
                     }
-                    collect.registerSnippet(fullName, entry.getKey(), v.toString());
+                } finally {
+                    event.bytes(attrs.size()).regions(texts.size()).end();
                 }
                 return FileVisitResult.CONTINUE;
             }
@@ -22,6 +22,7 @@ import com.sun.javadoc.AnnotationTypeDoc;
 import com.sun.javadoc.AnnotationTypeElementDoc;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.ConstructorDoc;
+import com.sun.javadoc.Doc;
 import com.sun.javadoc.DocErrorReporter;
 import com.sun.javadoc.FieldDoc;
 import com.sun.javadoc.LanguageVersion;
@@ -55,6 +56,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.tools.ForwardingJavaFileManager;
@@ -78,6 +80,11 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
     private Reporter reporter;
     private static List<String> allOptions = new ArrayList<>();
     private static DocErrorReporter docErrorReporter;
+    /**
+     * The javadoc model is not thread safe. All calls into it are made
+     * under this lock, so pages can be generated on more threads.
+     */
+    private static final Object MODEL_LOCK = new Object();
 
     public Doclet() {
         enableJavacAccess();
@@ -89,30 +96,42 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
         HtmlDoclet.sharedInstanceForOptions.processSpecificOptions(root.options());
         HtmlDoclet.sharedInstanceForOptions.initDocLint(root);
 
+        eachElement(root, (enclosing, element) -> snippets.replaceCodesnippets(element));
+        HtmlDoclet.sharedInstanceForOptions.checkDocLint(root);
+        eachElement(root, snippets::verifyCodesnippets);
+        if (HtmlDoclet.sharedInstanceForOptions.doclintonly) {
+            return true;
+        }
+
+        RootDoc rootProxy = hideElements(RootDoc.class, root);
+        return HtmlDoclet.start(rootProxy);
+    }
+
+    /**
+     * Visit the documented classes, their members and the specified
+     * packages, each with the element enclosing it.
+     */
+    private static void eachElement(RootDoc root, BiConsumer<Doc, Doc> visitor) {
         for (ClassDoc clazz : root.classes()) {
-            snippets.fixCodesnippets(root, clazz);
+            visitor.accept(root, clazz);
             for (MethodDoc method : clazz.methods()) {
-                snippets.fixCodesnippets(clazz, method);
+                visitor.accept(clazz, method);
             }
             for (FieldDoc field : clazz.fields()) {
-                snippets.fixCodesnippets(clazz, field);
+                visitor.accept(clazz, field);
             }
             for (ConstructorDoc con : clazz.constructors()) {
-                snippets.fixCodesnippets(clazz, con);
+                visitor.accept(clazz, con);
             }
             if (clazz instanceof AnnotationTypeDoc) {
                 for (AnnotationTypeElementDoc element : ((AnnotationTypeDoc) clazz).elements()) {
-                    snippets.fixCodesnippets(clazz, element);
+                    visitor.accept(clazz, element);
                 }
             }
         }
         for (PackageDoc pkg : root.specifiedPackages()) {
-            snippets.fixCodesnippets(root, pkg);
+            visitor.accept(root, pkg);
         }
-
-
-        RootDoc rootProxy = hideElements(RootDoc.class, root);
-        return HtmlDoclet.start(rootProxy);
     }
 
     enum SnippetOption implements jdk.javadoc.doclet.Doclet.Option {
@@ -127,6 +146,13 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
         VERIFYSINCE(1, "-verifysince"),
         VERIFYSINCEPRESENT(1, "-verifysincepresent"),
         ENCODING(2, "-encoding"),
+        THREADS(2, "-threads"),
+        SKIPUNCHANGED(1, "-skipunchanged"),
+        SEARCHINDEX(1, "-searchindex"),
+        DOCLINTONLY(1, "-doclintonly"),
+        INCREMENTAL(1, "-incremental"),
+        LINKCACHE(2, "-linkcache"),
+        LINKCACHEOFFLINE(1, "-linkcacheoffline"),
         SUPPRESSMISSINGLINKWARNINGS(1, "-suppressmissinglinkwarnings");
 
         final int length;
@@ -367,7 +393,7 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
             }
         }
         InvocationHandler h = new DocProxy<Object>(obj);
-        return clazz.cast(Proxy.newProxyInstance(obj.getClass().getClassLoader(), new Class[]{c}, h));
+        return clazz.cast(Proxy.newProxyInstance(obj.getClass().getClassLoader(), new Class<?>[]{c}, h));
     }
 
     private static boolean toBeHiddenInterface(final Class<?> type) {
@@ -467,7 +493,10 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
                 doSkip = false;
             }
 
-            Object ret = method.invoke(obj, args);
+            Object ret;
+            synchronized (MODEL_LOCK) {
+                ret = method.invoke(obj, args);
+            }
             final Class<?> requestedType = method.getReturnType();
             if (requestedType.isArray()) {
                 final Class<?> componentType = requestedType.getComponentType();
@@ -476,7 +505,11 @@ public final class Doclet implements jdk.javadoc.doclet.Doclet {
                     List<Object> copy = new ArrayList<>();
                     for (Object element : arr) {
                         boolean skip = false;
-                        for (String name : findAnnotationsNames(element)) {
+                        Iterable<String> names;
+                        synchronized (MODEL_LOCK) {
+                            names = findAnnotationsNames(element);
+                        }
+                        for (String name : names) {
                             if (snippets.isHiddingAnnotation(name)) {
                                 skip = doSkip;
                                 break;
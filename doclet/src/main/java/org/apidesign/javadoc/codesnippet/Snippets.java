@@ -68,29 +68,40 @@ final class Snippets {
         this.reporter = reporter;
     }
 
-    void fixCodesnippets(Doc enclosingElement, Doc element) {
-        try {
-            for (;;) {
-                final String txt = element.getRawCommentText();
-                final String[] code = { null };
-                final int[] end = { -1 };
-                Matcher match = null;
-                if (modeJep413) {
-                    match = matchSnippet(this::getSnippet, element, txt, code, end);
+    /**
+     * Replace the snippet tags in the raw comment text of the element by
+     * the code of the snippets.
+     */
+    void replaceCodesnippets(Doc element) {
+        for (;;) {
+            final String txt = element.getRawCommentText();
+            final String[] code = { null };
+            final int[] end = { -1 };
+            Matcher match = null;
+            if (modeJep413) {
+                match = matchSnippet(this::getSnippet, element, txt, code, end);
+            }
+            if (match == null) {
+                if (modeLegacy) {
+                    match = matchLegacyCodeSnippet(this::getSnippet, element, txt, code, end);
                 }
                 if (match == null) {
-                    if (modeLegacy) {
-                        match = matchLegacyCodeSnippet(this::getSnippet, element, txt, code, end);
-                    }
-                    if (match == null) {
-                        break;
-                    }
+                    break;
                 }
-                String newTxt = txt.substring(0, match.start(0)) +
-                    code[0] +
-                    txt.substring(end[0]);
-                element.setRawCommentText(newTxt);
             }
+            String newTxt = txt.substring(0, match.start(0)) +
+                code[0] +
+                txt.substring(end[0]);
+            element.setRawCommentText(newTxt);
+        }
+    }
+
+    /**
+     * Parse the comment of the element, once its snippets are replaced,
+     * and verify its since tag.
+     */
+    void verifyCodesnippets(Doc enclosingElement, Doc element) {
+        try {
             element.inlineTags();
             if (verifySince != null) {
                 verifySinceTag(element, enclosingElement, verifySince);
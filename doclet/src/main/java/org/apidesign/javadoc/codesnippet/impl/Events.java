@@ -0,0 +1,72 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet.impl;
+
+import java.nio.file.Path;
+
+/**
+ * Flight Recorder events emitted while generating the documentation.
+ * This is the JDK8 version which records nothing. On JDK11+ the class
+ * is replaced by a version from {@code META-INF/versions/11} that
+ * emits {@code jdk.jfr.Event}s, but only while a recording is active.
+ */
+public final class Events {
+    private static final Events NONE = new Events();
+
+    private Events() {
+    }
+
+    /** Scanning of one file for snippet regions. */
+    public static Events scanFile(Path file) {
+        return NONE;
+    }
+
+    /** Building of one class or annotation type page. */
+    public static Events buildClass(String className) {
+        return NONE;
+    }
+
+    /** Writing of one output file. */
+    public static Events writeFile(String file) {
+        return NONE;
+    }
+
+    /**
+     * Reading of one external package list for {@code -link}. The
+     * regions of this event count the packages found in the list.
+     */
+    public static Events linkPackageList(String url) {
+        return NONE;
+    }
+
+    /** Checking of one doc comment by doclint. */
+    public static Events docLint(String file, String className) {
+        return NONE;
+    }
+
+    public Events bytes(long bytes) {
+        return this;
+    }
+
+    public Events regions(int regions) {
+        return this;
+    }
+
+    public void end() {
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messages reported by a task running on a worker thread. Instead of
+ * being printed immediately they are recorded and printed later by
+ * {@link #replay()}, so the output of tasks running in parallel comes
+ * out in the same order as if the tasks were run one after another.
+ */
+public final class OrderedMessages {
+    private static final ThreadLocal<OrderedMessages> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> messages = new ArrayList<>();
+    private Throwable failure;
+
+    private OrderedMessages() {
+    }
+
+    /**
+     * Runs the task and records all messages it reports. Exceptions
+     * thrown by the task are recorded as well and rethrown by
+     * {@link #replay()}.
+     *
+     * @param task the task to run on the current thread
+     * @return recorded messages
+     */
+    public static OrderedMessages run(Runnable task) {
+        OrderedMessages recorded = new OrderedMessages();
+        OrderedMessages previous = CURRENT.get();
+        CURRENT.set(recorded);
+        try {
+            task.run();
+        } catch (RuntimeException | Error ex) {
+            recorded.failure = ex;
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Defers printing of a message when called from a task started by
+     * {@link #run(java.lang.Runnable)}.
+     *
+     * @param print the code that prints the message
+     * @return {@code true} if the message was recorded, {@code false}
+     *   if it shall be printed immediately
+     */
+    public static boolean defer(Runnable print) {
+        OrderedMessages recorded = CURRENT.get();
+        if (recorded == null) {
+            return false;
+        }
+        recorded.messages.add(print);
+        return true;
+    }
+
+    /**
+     * Prints the recorded messages on the current thread and rethrows
+     * the exception of the task, if any.
+     */
+    public void replay() {
+        for (Runnable print : messages) {
+            print.run();
+        }
+        messages.clear();
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+}
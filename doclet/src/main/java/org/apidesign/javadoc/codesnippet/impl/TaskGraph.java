@@ -0,0 +1,224 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tasks with explicit dependencies between them. A task may only depend
+ * on tasks added before it, so the order of {@link #add adding} is always
+ * a valid order to run them one after another. That is what happens when
+ * run with a single thread. With more threads a task starts as soon as
+ * the tasks it depends on are finished, but messages it reports are
+ * printed in the order of adding via {@link OrderedMessages}.
+ * <p>
+ * The value of a task is dropped as soon as all the tasks depending on
+ * it are finished, so large intermediate results don't stay in memory
+ * until the whole graph is done.
+ */
+public final class TaskGraph {
+    private final List<Task<?>> tasks = new ArrayList<>();
+
+    /** Work of a task that doesn't produce any value. */
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * Adds a task.
+     *
+     * @param step the work to do
+     * @param after tasks that need to finish before this one starts
+     * @return the added task
+     */
+    public Task<Void> add(Step step, Task<?>... after) {
+        return compute(() -> {
+            step.run();
+            return null;
+        }, after);
+    }
+
+    /**
+     * Adds a task that computes a value for tasks depending on it.
+     *
+     * @param <T> type of the value
+     * @param callable the work to do
+     * @param after tasks that need to finish before this one starts
+     * @return the added task
+     */
+    public <T> Task<T> compute(Callable<T> callable, Task<?>... after) {
+        for (Task<?> t : after) {
+            if (t.graph != this) {
+                throw new IllegalArgumentException("Not in this graph: " + t);
+            }
+        }
+        Task<T> task = new Task<>(this, tasks.size(), callable, after);
+        for (Task<?> t : after) {
+            t.dependents.incrementAndGet();
+        }
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Runs all the tasks. The first task, in the order of adding, that fails
+     * stops the whole run and its exception is thrown. Messages of tasks
+     * added before it are printed, those added after it are dropped.
+     *
+     * @param threads number of threads to use
+     * @throws Exception the exception of the failed task
+     */
+    public void run(int threads) throws Exception {
+        try {
+            if (Math.min(threads, tasks.size()) <= 1) {
+                for (Task<?> task : tasks) {
+                    task.compute();
+                    task.finished();
+                }
+                return;
+            }
+            runParallel(threads);
+        } catch (Failure ex) {
+            throw (Exception) ex.getCause();
+        } finally {
+            tasks.clear();
+        }
+    }
+
+    private void runParallel(int threads) throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, (r) -> {
+            Thread t = new Thread(r, "javadoc-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<OrderedMessages>> results = new ArrayList<>();
+            for (Task<?> task : tasks) {
+                CompletableFuture<?>[] deps = new CompletableFuture<?>[task.after.length];
+                for (int i = 0; i < deps.length; i++) {
+                    deps[i] = results.get(task.after[i].index);
+                }
+                CompletableFuture<OrderedMessages> result = CompletableFuture.allOf(deps).thenApplyAsync((v) -> {
+                    try {
+                        for (Task<?> dep : task.after) {
+                            if (!dep.done) {
+                                return OrderedMessages.run(() -> {});
+                            }
+                        }
+                        return OrderedMessages.run(task::compute);
+                    } finally {
+                        task.finished();
+                    }
+                }, executor);
+                results.add(result);
+            }
+            for (CompletableFuture<OrderedMessages> result : results) {
+                try {
+                    result.get().replay();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A task in the graph.
+     *
+     * @param <T> type of value computed by the task
+     */
+    public static final class Task<T> {
+        private final TaskGraph graph;
+        private final int index;
+        private final Task<?>[] after;
+        private final AtomicInteger dependents = new AtomicInteger();
+        private Callable<T> callable;
+        private volatile boolean done;
+        private volatile T value;
+
+        Task(TaskGraph graph, int index, Callable<T> callable, Task<?>[] after) {
+            this.graph = graph;
+            this.index = index;
+            this.callable = callable;
+            this.after = after.clone();
+        }
+
+        void compute() {
+            try {
+                value = callable.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new Failure(ex);
+            } finally {
+                callable = null;
+            }
+            done = true;
+        }
+
+        /**
+         * Called once this task is over. Releases values of the tasks
+         * this one depends on, unless other tasks still need them.
+         */
+        void finished() {
+            callable = null;
+            for (Task<?> dep : after) {
+                if (dep.dependents.decrementAndGet() == 0) {
+                    dep.value = null;
+                }
+            }
+        }
+
+        /**
+         * The computed value. Only to be called from tasks that depend
+         * on this one, the value is gone once they are all finished.
+         *
+         * @return the value
+         * @throws IllegalStateException if the task has not finished yet
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("Not finished yet: " + this);
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Task#" + index;
+        }
+    }
+
+    private static final class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Failure(Exception cause) {
+            super(cause);
+        }
+    }
+}
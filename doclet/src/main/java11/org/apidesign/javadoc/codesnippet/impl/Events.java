@@ -0,0 +1,89 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet.impl;
+
+import java.nio.file.Path;
+
+/**
+ * Flight Recorder events emitted while generating the documentation.
+ * The {@code jdk.jfr} module may not be part of the boot layer of
+ * the javadoc tool, hence all JFR types are kept in {@link FlightEvents}
+ * and touched only when the module is present.
+ */
+public final class Events {
+    private static final boolean JFR = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+    private static final Events NONE = new Events(null);
+
+    private final Object event;
+
+    private Events(Object event) {
+        this.event = event;
+    }
+
+    private static Events begin(Object event) {
+        return event == null ? NONE : new Events(event);
+    }
+
+    /** Scanning of one file for snippet regions. */
+    public static Events scanFile(Path file) {
+        return JFR ? begin(FlightEvents.scanFile(file.toString())) : NONE;
+    }
+
+    /** Building of one class or annotation type page. */
+    public static Events buildClass(String className) {
+        return JFR ? begin(FlightEvents.buildClass(className)) : NONE;
+    }
+
+    /** Writing of one output file. */
+    public static Events writeFile(String file) {
+        return JFR ? begin(FlightEvents.writeFile(file)) : NONE;
+    }
+
+    /**
+     * Reading of one external package list for {@code -link}. The
+     * regions of this event count the packages found in the list.
+     */
+    public static Events linkPackageList(String url) {
+        return JFR ? begin(FlightEvents.linkPackageList(url)) : NONE;
+    }
+
+    /** Checking of one doc comment by doclint. */
+    public static Events docLint(String file, String className) {
+        return JFR ? begin(FlightEvents.docLint(file, className)) : NONE;
+    }
+
+    public Events bytes(long bytes) {
+        if (event != null) {
+            FlightEvents.bytes(event, bytes);
+        }
+        return this;
+    }
+
+    public Events regions(int regions) {
+        if (event != null) {
+            FlightEvents.regions(event, regions);
+        }
+        return this;
+    }
+
+    public void end() {
+        if (event != null) {
+            FlightEvents.end(event);
+        }
+    }
+}
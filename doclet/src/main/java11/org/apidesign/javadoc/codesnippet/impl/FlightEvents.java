@@ -0,0 +1,146 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.codesnippet.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+final class FlightEvents {
+    private static final EventType SCAN_FILE = EventType.getEventType(ScanFile.class);
+    private static final EventType BUILD_CLASS = EventType.getEventType(BuildClass.class);
+    private static final EventType WRITE_FILE = EventType.getEventType(WriteFile.class);
+    private static final EventType LINK_PACKAGE_LIST = EventType.getEventType(LinkPackageList.class);
+    private static final EventType DOC_LINT = EventType.getEventType(DocLint.class);
+
+    private FlightEvents() {
+    }
+
+    static Object scanFile(String file) {
+        if (!SCAN_FILE.isEnabled()) {
+            return null;
+        }
+        DocletEvent ev = new ScanFile();
+        ev.file = file;
+        return begin(ev);
+    }
+
+    static Object buildClass(String className) {
+        if (!BUILD_CLASS.isEnabled()) {
+            return null;
+        }
+        DocletEvent ev = new BuildClass();
+        ev.className = className;
+        return begin(ev);
+    }
+
+    static Object writeFile(String file) {
+        if (!WRITE_FILE.isEnabled()) {
+            return null;
+        }
+        DocletEvent ev = new WriteFile();
+        ev.file = file;
+        return begin(ev);
+    }
+
+    static Object linkPackageList(String url) {
+        if (!LINK_PACKAGE_LIST.isEnabled()) {
+            return null;
+        }
+        DocletEvent ev = new LinkPackageList();
+        ev.file = url;
+        return begin(ev);
+    }
+
+    static Object docLint(String file, String className) {
+        if (!DOC_LINT.isEnabled()) {
+            return null;
+        }
+        DocletEvent ev = new DocLint();
+        ev.file = file;
+        ev.className = className;
+        return begin(ev);
+    }
+
+    static void bytes(Object event, long bytes) {
+        ((DocletEvent) event).bytes = bytes;
+    }
+
+    static void regions(Object event, int regions) {
+        ((DocletEvent) event).regions = regions;
+    }
+
+    static void end(Object event) {
+        DocletEvent ev = (DocletEvent) event;
+        ev.end();
+        ev.commit();
+    }
+
+    /**
+     * Start the event. Callers check whether its type is enabled first,
+     * so no event is allocated while nobody records.
+     */
+    private static DocletEvent begin(DocletEvent ev) {
+        ev.begin();
+        return ev;
+    }
+
+    @Category("Codesnippet Doclet")
+    abstract static class DocletEvent extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Class")
+        String className;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Regions")
+        int regions;
+    }
+
+    @Name("org.apidesign.javadoc.ScanFile")
+    @Label("Scan Snippet File")
+    static final class ScanFile extends DocletEvent {
+    }
+
+    @Name("org.apidesign.javadoc.BuildClass")
+    @Label("Build Class Page")
+    static final class BuildClass extends DocletEvent {
+    }
+
+    @Name("org.apidesign.javadoc.WriteFile")
+    @Label("Write Doc File")
+    static final class WriteFile extends DocletEvent {
+    }
+
+    @Name("org.apidesign.javadoc.LinkPackageList")
+    @Label("Read External Package List")
+    static final class LinkPackageList extends DocletEvent {
+    }
+
+    @Name("org.apidesign.javadoc.DocLint")
+    @Label("Doclint Check")
+    static final class DocLint extends DocletEvent {
+    }
+}
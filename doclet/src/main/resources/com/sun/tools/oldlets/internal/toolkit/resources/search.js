@@ -0,0 +1,181 @@
+var searchIndex = (function() {
+    var scripts = document.getElementsByTagName("script");
+    var root = scripts[scripts.length - 1].src.replace(/search\.js$/, "");
+    var prefixes = null;
+    var shards = {};
+    var input = null;
+    var results = null;
+
+    function fold(s) {
+        var folded = "";
+        for (var i = 0; i < s.length; i++) {
+            var c = s.charAt(i);
+            var upper = c.toUpperCase();
+            if (upper.length == 1) {
+                c = upper;
+            }
+            var lower = c.toLowerCase();
+            folded += lower.length == 1 ? lower : c;
+        }
+        return folded;
+    }
+
+    function fileName(prefix) {
+        var name = "";
+        for (var i = 0; i < prefix.length; i++) {
+            var c = prefix.charAt(i);
+            if (/[a-z0-9]/.test(c)) {
+                name += c;
+            } else {
+                name += "_" + ("000" + c.charCodeAt(0).toString(16)).slice(-4);
+            }
+        }
+        return name;
+    }
+
+    function load(file) {
+        var script = document.createElement("script");
+        script.src = root + "search-index/" + file + ".js";
+        document.getElementsByTagName("head")[0].appendChild(script);
+    }
+
+    function find(query) {
+        if (prefixes == null) {
+            prefixes = false;
+            load("prefixes");
+        }
+        if (!prefixes) {
+            return null;
+        }
+        var found = [];
+        var ready = true;
+        for (var i = 0; i < prefixes.length; i++) {
+            var prefix = prefixes[i];
+            if (query.indexOf(prefix) != 0 && prefix.indexOf(query) != 0) {
+                continue;
+            }
+            var shard = shards[prefix];
+            if (shard == null) {
+                if (shard === undefined) {
+                    shards[prefix] = null;
+                    load(fileName(prefix));
+                }
+                ready = false;
+                continue;
+            }
+            for (var j = 0; j < shard.length && found.length < 100; j++) {
+                if (shard[j].key.indexOf(query) == 0) {
+                    found.push(shard[j]);
+                }
+            }
+        }
+        return ready ? found : null;
+    }
+
+    function update() {
+        var query = fold(input.value.replace(/^\s+|\s+$/g, ""));
+        if (query.length == 0) {
+            results.style.display = "none";
+            return;
+        }
+        var found = find(query);
+        if (found == null) {
+            return;
+        }
+        results.innerHTML = "";
+        for (var i = 0; i < found.length; i++) {
+            var entry = found[i];
+            var link = document.createElement("a");
+            link.href = root + entry.page + (entry.anchor ? "#" + entry.anchor : "");
+            link.appendChild(document.createTextNode(entry.label));
+            var item = document.createElement("li");
+            item.style.listStyle = "none";
+            item.style.padding = "2px 5px";
+            item.appendChild(link);
+            if (entry.container) {
+                item.appendChild(document.createTextNode(" - " + entry.container));
+            }
+            results.appendChild(item);
+        }
+        results.style.display = found.length ? "block" : "none";
+    }
+
+    function init() {
+        var navs = document.getElementsByTagName("div");
+        for (var i = 0; i < navs.length; i++) {
+            if (navs[i].className == "topNav") {
+                break;
+            }
+        }
+        if (i == navs.length) {
+            return;
+        }
+        var box = document.createElement("div");
+        box.style.cssFloat = "right";
+        box.style.position = "relative";
+        box.style.padding = "5px";
+        input = document.createElement("input");
+        input.type = "text";
+        input.placeholder = "Search";
+        input.oninput = input.onkeyup = function(ev) {
+            if (ev && ev.keyCode == 13) {
+                var first = results.getElementsByTagName("a")[0];
+                if (first) {
+                    window.location.href = first.href;
+                }
+                return;
+            }
+            update();
+        };
+        results = document.createElement("ul");
+        results.style.display = "none";
+        results.style.position = "absolute";
+        results.style.right = "0";
+        results.style.zIndex = "10";
+        results.style.margin = "0";
+        results.style.padding = "5px";
+        results.style.maxHeight = "400px";
+        results.style.overflow = "auto";
+        results.style.whiteSpace = "nowrap";
+        results.style.background = "#ffffff";
+        results.style.border = "1px solid #4d7a97";
+        box.appendChild(input);
+        box.appendChild(results);
+        navs[i].insertBefore(box, navs[i].firstChild);
+    }
+
+    if (document.readyState == "loading") {
+        document.addEventListener("DOMContentLoaded", init);
+    } else {
+        init();
+    }
+
+    return {
+        prefixes: function(list) {
+            prefixes = list;
+            if (input) {
+                update();
+            }
+        },
+        add: function(prefix, table, data) {
+            var strings = table.split("\n");
+            var shard = [];
+            var name = 0;
+            for (var i = 0; i < data.length; i += 6) {
+                name += data[i + 1];
+                shard.push({
+                    kind: data[i],
+                    key: fold(strings[name]),
+                    label: strings[data[i + 2]],
+                    container: strings[data[i + 3]],
+                    page: strings[data[i + 4]],
+                    anchor: strings[data[i + 5]]
+                });
+            }
+            shards[prefix] = shard;
+            if (input) {
+                update();
+            }
+        }
+    };
+})();
@@ -0,0 +1,56 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.formats.html.markup;
+
+import com.sun.tools.oldlets.internal.toolkit.util.DocletAbortException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StringContentTest {
+
+    public StringContentTest() {
+    }
+
+    @Test
+    public void sharedContentCannotBeModified() {
+        StringContent text = new StringContent("a < b");
+        StringContent shared = text.share();
+        Assert.assertTrue(shared.isShared());
+        Assert.assertSame(shared.share(), shared);
+        Assert.assertEquals(shared.toString(), "a &lt; b");
+        try {
+            shared.addContent("c");
+            Assert.fail("Shared content was modified");
+        } catch (DocletAbortException ex) {
+            // OK
+        }
+        text.addContent(" & c");
+        Assert.assertEquals(text.toString(), "a &lt; b &amp; c");
+        Assert.assertEquals(shared.toString(), "a &lt; b");
+    }
+
+    @Test
+    public void textAfterSharedContentGoesToNewNode() {
+        ContentBuilder builder = new ContentBuilder();
+        builder.addContent(HtmlTree.EMPTY);
+        builder.addContent("more");
+
+        Assert.assertEquals(HtmlTree.EMPTY.toString(), "");
+        Assert.assertEquals(builder.toString(), "more");
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.MethodDoc;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ApiGraphTest {
+
+    public ApiGraphTest() {
+    }
+
+    @Test
+    public void wrappersOfAnElementShareItsId() {
+        ApiGraph.Relation<MethodDoc> returns = new ApiGraph.Relation<MethodDoc>(0, false, false);
+        ClassDoc cd = (ClassDoc) Proxy.newProxyInstance(ClassDoc.class.getClassLoader(),
+                new Class<?>[] { ClassDoc.class }, (proxy, method, args) -> {
+            return method.getName().equals("qualifiedName") ? "a.A" : null;
+        });
+        MethodDoc method = (MethodDoc) Proxy.newProxyInstance(MethodDoc.class.getClassLoader(),
+                new Class<?>[] { MethodDoc.class }, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "m()";
+                default: return null;
+            }
+        });
+
+        ApiGraph.Builder builder = new ApiGraph.Builder(returns);
+        builder.add(returns, cd, wrap(method));
+        builder.add(returns, cd, wrap(method));
+        List<MethodDoc> found = builder.build().get(returns, cd);
+
+        Assert.assertEquals(found.size(), 2);
+        Assert.assertSame(found.get(0), found.get(1), "One element for both wrappers");
+    }
+
+    /**
+     * Wrap an element of the model, like the doclet does on every call.
+     */
+    private static MethodDoc wrap(MethodDoc impl) {
+        return (MethodDoc) Proxy.newProxyInstance(MethodDoc.class.getClassLoader(),
+                new Class<?>[] { MethodDoc.class }, new Wrapper(impl));
+    }
+
+    private static final class Wrapper implements InvocationHandler {
+        private final MethodDoc impl;
+
+        Wrapper(MethodDoc impl) {
+            this.impl = impl;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i] != null && Proxy.isProxyClass(args[i].getClass())
+                            && Proxy.getInvocationHandler(args[i]) instanceof Wrapper) {
+                        args[i] = ((Wrapper) Proxy.getInvocationHandler(args[i])).impl;
+                    }
+                }
+            }
+            return method.invoke(impl, args);
+        }
+    }
+}
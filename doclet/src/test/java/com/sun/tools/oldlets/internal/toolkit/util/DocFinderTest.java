@@ -0,0 +1,109 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.Tag;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DocFinderTest {
+
+    public DocFinderTest() {
+    }
+
+    @Test
+    public void overridersShareTheSearchOfTheOverriddenMethod() {
+        AtomicInteger asked = new AtomicInteger();
+        Tag text = (Tag) Proxy.newProxyInstance(Tag.class.getClassLoader(),
+                new Class<?>[] { Tag.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "text": return "The text";
+                default: return null;
+            }
+        });
+        MethodDoc base = method(null, asked, text);
+        MethodDoc first = method(base, null);
+        MethodDoc second = method(base, null);
+
+        DocFinder.Cache cache = new DocFinder.Cache();
+        DocFinder.Output out1 = DocFinder.search(cache, new DocFinder.Input(first));
+        DocFinder.Output out2 = DocFinder.search(cache, new DocFinder.Input(second));
+
+        Assert.assertEquals(out1.inlineTags, new Tag[] { text });
+        Assert.assertEquals(out2.inlineTags, new Tag[] { text });
+        Assert.assertEquals(asked.get(), 1, "The comment of the overridden method is read once");
+        Assert.assertNotSame(out1, out2, "Each search gets its own output");
+    }
+
+    /**
+     * A method of the model. Like the doclet, every call returns a new
+     * wrapper of the overridden method, equal to the previous ones.
+     */
+    private static MethodDoc method(MethodDoc overridden, AtomicInteger asked, Tag... tags) {
+        InvocationHandler impl = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "inlineTags":
+                    if (asked != null) {
+                        asked.incrementAndGet();
+                    }
+                    return tags;
+                case "overriddenMethod": return overridden == null ? null : wrap(overridden);
+                case "toString": return "method";
+                default: return null;
+            }
+        };
+        return (MethodDoc) Proxy.newProxyInstance(MethodDoc.class.getClassLoader(),
+                new Class<?>[] { MethodDoc.class }, impl);
+    }
+
+    private static MethodDoc wrap(MethodDoc impl) {
+        return (MethodDoc) Proxy.newProxyInstance(MethodDoc.class.getClassLoader(),
+                new Class<?>[] { MethodDoc.class }, new Wrapper(impl));
+    }
+
+    /** Forwards to the method of the model, like the doclet's proxies. */
+    private static final class Wrapper implements InvocationHandler {
+        private final MethodDoc impl;
+
+        Wrapper(MethodDoc impl) {
+            this.impl = impl;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i] != null && Proxy.isProxyClass(args[i].getClass())
+                            && Proxy.getInvocationHandler(args[i]) instanceof Wrapper) {
+                        args[i] = ((Wrapper) Proxy.getInvocationHandler(args[i])).impl;
+                    }
+                }
+            }
+            return method.invoke(impl, args);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package com.sun.tools.oldlets.internal.toolkit.util;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PackageListCacheTest {
+    private HttpServer server;
+    private final Map<String, String> files = new HashMap<>();
+    private final List<String> requests = new ArrayList<>();
+    private volatile CountDownLatch stall;
+    private File dir;
+
+    public PackageListCacheTest() {
+    }
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        files.clear();
+        requests.clear();
+        stall = null;
+        dir = Files.createTempDirectory("linkcache").toFile();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", (exchange) -> {
+            String path = exchange.getRequestURI().getPath();
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            synchronized (requests) {
+                requests.add(path + (etag == null ? "" : " " + etag));
+            }
+            CountDownLatch wait = stall;
+            if (wait != null) {
+                try {
+                    wait.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    // answer now
+                }
+            }
+            String content = files.get(path);
+            if (content == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                String tag = "\"" + content.hashCode() + "\"";
+                exchange.getResponseHeaders().add("ETag", tag);
+                if (tag.equals(etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    byte[] data = content.getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, data.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(data);
+                    }
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterMethod
+    public void stopServer() {
+        if (stall != null) {
+            stall.countDown();
+        }
+        server.stop(0);
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    private List<String> load(PackageListCache cache, String path) throws Exception {
+        return PackageListCache.lines(cache.load(url(path)));
+    }
+
+    @Test
+    public void revalidatesKeptList() throws Exception {
+        files.put("/api/package-list", "org.example\norg.example.sub\n");
+        PackageListCache cache = new PackageListCache(dir, false);
+        Assert.assertEquals(load(cache, "/api/"), Arrays.asList("org.example", "org.example.sub"));
+        Assert.assertEquals(load(cache, "/api/"), Arrays.asList("org.example", "org.example.sub"));
+        String tag = "\"" + files.get("/api/package-list").hashCode() + "\"";
+        Assert.assertEquals(requests, Arrays.asList("/api/package-list", "/api/package-list " + tag));
+
+        files.put("/api/package-list", "org.example.other\n");
+        Assert.assertEquals(load(cache, "/api/"), Arrays.asList("org.example.other"));
+    }
+
+    @Test
+    public void fallsBackToElementList() throws Exception {
+        files.put("/jdk/element-list", "module:java.base\r\njava.lang\r\n\u010desk\u00fd");
+        PackageListCache cache = new PackageListCache(dir, false);
+        Assert.assertEquals(load(cache, "/jdk/"), Arrays.asList("module:java.base", "java.lang", "\u010desk\u00fd"));
+        Assert.assertEquals(load(cache, "/jdk/"), Arrays.asList("module:java.base", "java.lang", "\u010desk\u00fd"));
+        Assert.assertEquals(requests.size(), 4, requests.toString());
+        Assert.assertTrue(requests.get(3).startsWith("/jdk/element-list \""), requests.toString());
+    }
+
+    @Test
+    public void offlineUsesKeptList() throws Exception {
+        files.put("/api/package-list", "org.example\n");
+        Assert.assertEquals(load(new PackageListCache(dir, false), "/api/"), Arrays.asList("org.example"));
+        server.stop(0);
+        Assert.assertEquals(load(new PackageListCache(dir, true), "/api/"), Arrays.asList("org.example"));
+        Assert.assertEquals(load(new PackageListCache(dir, false), "/api/"), Arrays.asList("org.example"));
+        Assert.assertEquals(requests.size(), 1, requests.toString());
+    }
+
+    @Test
+    public void stallingHostUsesKeptList() throws Exception {
+        files.put("/api/package-list", "org.example\n");
+        Assert.assertEquals(load(new PackageListCache(dir, false, 500), "/api/"), Arrays.asList("org.example"));
+        files.put("/api/package-list", "org.example.other\n");
+        stall = new CountDownLatch(1);
+        long start = System.nanoTime();
+        Assert.assertEquals(load(new PackageListCache(dir, false, 500), "/api/"), Arrays.asList("org.example"));
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue(took < 10000, "Gave up waiting after " + took + " ms");
+        Assert.assertEquals(requests.size(), 2, requests.toString());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void stallingHostWithoutCache() throws Exception {
+        files.put("/api/package-list", "org.example\n");
+        stall = new CountDownLatch(1);
+        load(new PackageListCache(null, false, 500), "/api/");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void missingListWithoutCache() throws Exception {
+        load(new PackageListCache(null, false), "/none/");
+    }
+}
@@ -0,0 +1,437 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.testing;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import static org.apidesign.javadoc.testing.Javadoc.*;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the doclet on the sources of this module with various options and
+ * compares the outputs.
+ */
+public class DocletRunsTest {
+    @Test
+    public void threadsProduceIdenticalPages() throws Exception {
+        Path one = dir("threads1");
+        Path four = dir("threads4");
+
+        Result r1 = module(one.toString(), "-threads", "1");
+        assertEquals(r1.exit, 0, r1.toString());
+        Result r4 = module(four.toString(), "-threads", "4");
+        assertEquals(r4.exit, 0, r4.toString());
+
+        assertSameFiles(four, one);
+    }
+
+    @Test
+    public void threadsPrintSameMessages() throws Exception {
+        Path one = dir("messages1");
+        Path four = dir("messages4");
+
+        Result r1 = module(one.toString(), "-threads", "1");
+        Result r4 = module(four.toString(), "-threads", "4");
+
+        assertTrue(r1.output.contains("Generating " + one.resolve("index.html")), r1.toString());
+        assertEquals(r4.output.replace(four.toString(), "<dir>"), r1.output.replace(one.toString(), "<dir>"),
+            "Same messages in the same order");
+    }
+
+    @Test
+    public void writeFailureAbortsAndLeavesNoTemporaryFiles() throws Exception {
+        Path out = dir("writeFailure");
+        Path page = out.resolve("org/apidesign/javadoc/testing/SampleClass.html");
+        write(page.resolve("blocker.txt"), "The page is a directory");
+
+        Result r = module(out.toString(), "-threads", "4");
+
+        assertNotEquals(r.exit, 0, r.toString());
+        assertTrue(r.output.contains("while attempting to create file: " + page), r.toString());
+        assertEquals(temporaryFiles(out), Collections.emptyList(), "No temporary files left");
+    }
+
+    @Test
+    public void successfulRunLeavesNoTemporaryFiles() throws Exception {
+        Path out = dir("noTemporaryFiles");
+
+        Result r = module(out.toString(), "-threads", "4");
+
+        assertEquals(r.exit, 0, r.toString());
+        assertTrue(Files.exists(out.resolve("index.html")), r.toString());
+        assertEquals(temporaryFiles(out), Collections.emptyList(), "No temporary files left");
+    }
+
+    @Test
+    public void jarContainsTheDirectoryOutput() throws Exception {
+        Path dir = dir("jarAsDirectory");
+        Path jars = dir("jar");
+        Path jar = jars.resolve("javadoc.jar");
+
+        Result rd = module(dir.toString(), "-threads", "4");
+        assertEquals(rd.exit, 0, rd.toString());
+        Result rj = module("jar:" + jar, "-threads", "4");
+        assertEquals(rj.exit, 0, rj.toString());
+
+        assertEquals(files(jars).keySet(), Collections.singleton("javadoc.jar"), "Only the jar is written");
+        Map<String, byte[]> entries = new TreeMap<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(jar))) {
+            byte[] buf = new byte[8192];
+            for (ZipEntry e; (e = zip.getNextEntry()) != null;) {
+                if (e.isDirectory()) {
+                    continue;
+                }
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                for (int len; (len = zip.read(buf)) != -1;) {
+                    os.write(buf, 0, len);
+                }
+                assertNull(entries.put(e.getName(), os.toByteArray()), "Single entry " + e.getName());
+            }
+        }
+        assertSameFiles(entries, files(dir), jar + " and " + dir);
+    }
+
+    @Test
+    public void skipUnchangedKeepsTimeStamps() throws Exception {
+        Path out = dir("skipUnchanged");
+        Result first = module(out.toString(), "-threads", "4", "-skipunchanged");
+        assertEquals(first.exit, 0, first.toString());
+
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 3600_000L);
+        Map<String, byte[]> files = files(out);
+        for (String name : files.keySet()) {
+            Files.setLastModifiedTime(out.resolve(name), old);
+        }
+
+        Result second = module(out.toString(), "-threads", "4", "-skipunchanged");
+        assertEquals(second.exit, 0, second.toString());
+
+        Matcher m = Pattern.compile("Written ([0-9]+) files, ([0-9]+) files unchanged\\.").matcher(second.output);
+        assertTrue(m.find(), second.toString());
+        assertEquals(m.group(1), "0", "Nothing written: " + second);
+        // an existing stylesheet is kept without being compared
+        assertEquals(Integer.parseInt(m.group(2)), files.size() - 1, "All the rest unchanged: " + second);
+        for (String name : files.keySet()) {
+            assertEquals(Files.getLastModifiedTime(out.resolve(name)), old, "Time stamp of " + name + " kept");
+        }
+        assertSameFiles(files(out), files, "rerun of " + out);
+    }
+
+    @Test
+    public void searchShardsPointToExistingAnchors() throws Exception {
+        Path out = dir("searchIndex");
+        Result r = module(out.toString(), "-threads", "4", "-searchindex");
+        assertEquals(r.exit, 0, r.toString());
+        assertTrue(Files.exists(out.resolve("search.js")), r.toString());
+
+        Path index = out.resolve("search-index");
+        List<Object> prefixes = new Literals(read(index.resolve("prefixes.js"))).list();
+        assertFalse(prefixes.isEmpty(), "Some prefixes");
+        Set<String> found = new TreeSet<>();
+        int anchors = 0;
+        for (Object prefix : prefixes) {
+            StringBuilder file = new StringBuilder();
+            for (char c : ((String) prefix).toCharArray()) {
+                if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    file.append(c);
+                } else {
+                    file.append(String.format("_%04x", (int) c));
+                }
+            }
+            Path shard = index.resolve(file + ".js");
+            Literals js = new Literals(read(shard));
+            assertEquals(js.string(), prefix, "Prefix of " + shard);
+            String[] strings = js.string().split("\n", -1);
+            List<Object> numbers = js.list();
+            assertEquals(numbers.size() % 6, 0, "Six numbers per entry in " + shard);
+            int name = 0;
+            for (int i = 0; i < numbers.size(); i += 6) {
+                name += (Integer) numbers.get(i + 1);
+                String entry = strings[name];
+                String page = strings[(Integer) numbers.get(i + 4)];
+                String anchor = strings[(Integer) numbers.get(i + 5)];
+                assertTrue(entry.toLowerCase(Locale.ENGLISH).startsWith((String) prefix), entry + " in " + shard);
+                assertTrue(Files.isRegularFile(out.resolve(page)), "Page " + page + " of " + entry);
+                if (!anchor.isEmpty()) {
+                    assertTrue(read(out.resolve(page)).contains("name=\"" + anchor + "\""),
+                        "Anchor " + anchor + " of " + entry + " in " + page);
+                    anchors++;
+                }
+                found.add(numbers.get(i) + ":" + strings[(Integer) numbers.get(i + 3)] + ":" + entry);
+            }
+        }
+        assertTrue(found.contains("0::org.apidesign.javadoc.testing.spi"), "Package found: " + found);
+        assertTrue(found.contains("1:org.apidesign.javadoc.testing:SampleClass"), "Class found: " + found);
+        assertTrue(found.contains("2:org.apidesign.javadoc.testing.SampleClass:showUseOfAnnotation"), "Method found: " + found);
+        assertTrue(anchors > 0, "Some members checked: " + found);
+    }
+
+    @Test
+    public void runWithoutIncrementalInvalidatesFingerprints() throws Exception {
+        Path src = dir("staleFingerprints");
+        Path out = dir("staleFingerprintsOut");
+        Path fresh = dir("staleFingerprintsFresh");
+        api(src, "Computes the value.", "return 42;");
+
+        Result r1 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", out.toString(), "org.inc");
+        assertEquals(r1.exit, 0, r1.toString());
+
+        api(src, "Computes the edited value.", "return 42;");
+        Result r2 = run("-sourcepath", src.toString(), "-notimestamp", "-d", out.toString(), "org.inc");
+        assertEquals(r2.exit, 0, r2.toString());
+        assertTrue(read(out.resolve("org/inc/Api.html")).contains("edited value"), "Edit documented");
+
+        api(src, "Computes the value.", "return 42;");
+        Result r3 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", out.toString(), "org.inc");
+        assertEquals(r3.exit, 0, r3.toString());
+        assertTrue(r3.output.contains("regenerating all pages"), r3.toString());
+        assertFalse(read(out.resolve("org/inc/Api.html")).contains("edited value"), "Revert documented");
+
+        Result r4 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", fresh.toString(), "org.inc");
+        assertEquals(r4.exit, 0, r4.toString());
+        assertSamePages(out, fresh);
+    }
+
+    @Test
+    public void incrementalRegeneratesPagesOfEditedComments() throws Exception {
+        Path src = dir("incrementalEdits");
+        Path out = dir("incrementalEditsOut");
+        Path fresh = dir("incrementalEditsFresh");
+        api(src, "Computes the value.", "return 42;");
+
+        Result r1 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", out.toString(), "org.inc");
+        assertEquals(r1.exit, 0, r1.toString());
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 3600_000L);
+        String[] pages = { "org/inc/Api.html", "org/inc/Impl.html", "org/inc/Other.html" };
+        for (String page : pages) {
+            Files.setLastModifiedTime(out.resolve(page), old);
+        }
+
+        api(src, "Computes the value.", "return 43;");
+        Result r2 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", out.toString(), "org.inc");
+        assertEquals(r2.exit, 0, r2.toString());
+        assertFalse(r2.output.contains("regenerating all pages"), r2.toString());
+        for (String page : pages) {
+            assertEquals(Files.getLastModifiedTime(out.resolve(page)), old, "Code edit keeps " + page);
+        }
+
+        api(src, "Computes the edited value.", "return 43;");
+        Result r3 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", out.toString(), "org.inc");
+        assertEquals(r3.exit, 0, r3.toString());
+        assertFalse(r3.output.contains("regenerating all pages"), r3.toString());
+        assertNotEquals(Files.getLastModifiedTime(out.resolve("org/inc/Api.html")), old, "Api regenerated");
+        assertNotEquals(Files.getLastModifiedTime(out.resolve("org/inc/Impl.html")), old, "Impl inherits the comment");
+        assertEquals(Files.getLastModifiedTime(out.resolve("org/inc/Other.html")), old, "Other kept");
+        assertTrue(read(out.resolve("org/inc/Impl.html")).contains("edited value"), "Inherited edit documented");
+
+        Result r4 = run("-sourcepath", src.toString(), "-notimestamp", "-incremental", "-d", fresh.toString(), "org.inc");
+        assertEquals(r4.exit, 0, r4.toString());
+        assertSamePages(out, fresh);
+    }
+
+    @Test
+    public void doclintOnThreadsReportsBrokenThrows() throws Exception {
+        Path src = brokenThrows(dir("brokenThrows"));
+        Path one = dir("brokenThrows1");
+        Path four = dir("brokenThrows4");
+
+        Result r1 = run("-sourcepath", src.toString(), "-Xdoclint:all", "-threads", "1", "-d", one.toString(), "org.bad");
+        Result r4 = run("-sourcepath", src.toString(), "-Xdoclint:all", "-threads", "4", "-d", four.toString(), "org.bad");
+
+        assertNotEquals(r1.exit, 0, r1.toString());
+        assertEquals(r4.exit, r1.exit, r4.toString());
+        for (String msg : new String[] {
+            "error: reference not found",
+            "error: invalid use of @throws",
+            "error: exception not thrown: java.io.IOException",
+            "warning: no @throws for java.lang.InterruptedException",
+        }) {
+            assertTrue(r4.output.contains(msg), "Reported " + msg + " in " + r4);
+        }
+        assertEquals(r4.output.replace(four.toString(), "<dir>"), r1.output.replace(one.toString(), "<dir>"),
+            "Same messages in the same order");
+    }
+
+    @Test
+    public void doclintOnlyWritesNoPages() throws Exception {
+        Path src = brokenThrows(dir("doclintOnly"));
+        Path out = RUNS.resolve("doclintOnly").resolve("out");
+
+        Result r = run("-sourcepath", src.toString(), "-Xdoclint:all", "-threads", "4",
+            "-doclintonly", "-d", out.toString(), "org.bad");
+
+        assertNotEquals(r.exit, 0, r.toString());
+        assertTrue(r.output.contains("error: invalid use of @throws"), r.toString());
+        assertFalse(Files.exists(out.resolve("index.html")), "No pages written: " + r);
+        assertFalse(Files.exists(out.resolve("org/bad/Bad0.html")), "No pages written: " + r);
+    }
+
+    /**
+     * Reads the string literals and arrays of numbers in a search shard.
+     */
+    private static final class Literals {
+        private final String js;
+        private int pos;
+
+        Literals(String js) {
+            this.js = js;
+        }
+
+        String string() {
+            pos = js.indexOf('"', pos) + 1;
+            assertTrue(pos > 0, "A string in " + js);
+            StringBuilder sb = new StringBuilder();
+            for (;;) {
+                char c = js.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    c = js.charAt(pos++);
+                    if (c == 'n') {
+                        c = '\n';
+                    } else if (c == 'u') {
+                        c = (char) Integer.parseInt(js.substring(pos, pos + 4), 16);
+                        pos += 4;
+                    }
+                }
+                sb.append(c);
+            }
+        }
+
+        List<Object> list() {
+            pos = js.indexOf('[', pos) + 1;
+            assertTrue(pos > 0, "An array in " + js);
+            List<Object> list = new ArrayList<>();
+            for (;;) {
+                char c = js.charAt(pos);
+                if (c == ']') {
+                    return list;
+                } else if (c == '"') {
+                    list.add(string());
+                } else if (c == '-' || Character.isDigit(c)) {
+                    int end = pos + 1;
+                    while (Character.isDigit(js.charAt(end))) {
+                        end++;
+                    }
+                    list.add(Integer.valueOf(js.substring(pos, end)));
+                    pos = end;
+                } else {
+                    pos++;
+                }
+            }
+        }
+    }
+
+    private static List<String> temporaryFiles(Path dir) throws Exception {
+        List<String> tmp = new ArrayList<>();
+        for (String name : files(dir).keySet()) {
+            if (name.endsWith(".tmp")) {
+                tmp.add(name);
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * Writes a small API whose method has a fixed first sentence, followed
+     * by the given text of its comment, and the given body.
+     */
+    private static void api(Path src, String text, String body) throws Exception {
+        write(src.resolve("org/inc/Api.java"),
+            "package org.inc;\n"
+            + "/** The API. */\n"
+            + "public class Api {\n"
+            + "    /**\n"
+            + "     * The value. " + text + "\n"
+            + "     * @return the value\n"
+            + "     */\n"
+            + "    public int value() {\n"
+            + "        " + body + "\n"
+            + "    }\n"
+            + "}\n"
+        );
+        write(src.resolve("org/inc/Impl.java"),
+            "package org.inc;\n"
+            + "/** The implementation. */\n"
+            + "public class Impl extends Api {\n"
+            + "    @Override\n"
+            + "    public int value() {\n"
+            + "        return 0;\n"
+            + "    }\n"
+            + "}\n"
+        );
+        write(src.resolve("org/inc/Other.java"),
+            "package org.inc;\n"
+            + "/** Something else. */\n"
+            + "public class Other {\n"
+            + "}\n"
+        );
+    }
+
+    /**
+     * Compares the pages, but not the fingerprints, as they include
+     * the output directory.
+     */
+    private static void assertSamePages(Path actual, Path expected) throws Exception {
+        Map<String, byte[]> pages = files(actual);
+        Map<String, byte[]> expectedPages = files(expected);
+        assertNotNull(pages.remove(".fingerprints"), "Fingerprints in " + actual);
+        assertNotNull(expectedPages.remove(".fingerprints"), "Fingerprints in " + expected);
+        assertSameFiles(pages, expectedPages, actual + " and " + expected);
+    }
+
+    private static Path brokenThrows(Path src) throws Exception {
+        for (int i = 0; i < 8; i++) {
+            write(src.resolve("org/bad/Bad" + i + ".java"),
+                "package org.bad;\n"
+                + "/** Broken throws. */\n"
+                + "public class Bad" + i + " {\n"
+                + "    /**\n"
+                + "     * <b>Undocumented</b> {@link Object exception}.\n"
+                + "     * @throws NoSuchException not a class\n"
+                + "     * @throws java.io.IOException not declared\n"
+                + "     */\n"
+                + "    public void run() throws InterruptedException {\n"
+                + "    }\n"
+                + "    /**\n"
+                + "     * A field.\n"
+                + "     * @throws IllegalStateException\n"
+                + "     */\n"
+                + "    public int field;\n"
+                + "}\n"
+            );
+        }
+        return src;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Codesnippet Javadoc Doclet
+ * Copyright (C) 2015-2020 Jaroslav Tulach - jaroslav.tulach@apidesign.org
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.0 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. Look for COPYING file in the top folder.
+ * If not, see http://opensource.org/licenses/GPL-3.0.
+ */
+package org.apidesign.javadoc.testing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import static org.testng.Assert.*;
+
+/**
+ * Runs the javadoc tool with the codesnippet doclet in a separate process.
+ * The doclet keeps static state, so every run gets its own JVM.
+ */
+final class Javadoc {
+    /** Directory all the runs write into. */
+    static final Path RUNS = Paths.get("target", "runs");
+
+    private Javadoc() {
+    }
+
+    /** Exit code and console output of a run. */
+    static final class Result {
+        final int exit;
+        final String output;
+
+        Result(int exit, String output) {
+            this.exit = exit;
+            this.output = output;
+        }
+
+        @Override
+        public String toString() {
+            return "exit " + exit + ":\n" + output;
+        }
+    }
+
+    /**
+     * Document the sources of this module, the same way the build does.
+     *
+     * @param out the output, a directory or {@code jar:} followed by a file
+     * @param options additional options
+     */
+    static Result module(String out, String... options) throws Exception {
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "-sourcepath", "src/main/java", "-encoding", "UTF-8",
+            "-snippetpath", "src/test/java",
+            "-snippetclasses", ".*Snippet.*",
+            "-maxLineLength", "80",
+            "-hiddingannotation", "java.lang.Deprecated",
+            "-hiddingannotation", "org.apidesign.javadoc.testing.HiddenSnippets.Invisible",
+            "-header", "Header", "-bottom", "Bottom",
+            "-Xdoclint:none", "-notimestamp", "-use", "-splitindex",
+            "-d", out
+        ));
+        args.addAll(Arrays.asList(options));
+        args.add("org.apidesign.javadoc.testing");
+        args.add("org.apidesign.javadoc.testing.spi");
+        return run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Run javadoc with the doclet and the class path of the tests.
+     *
+     * @param args the options and packages
+     */
+    static Result run(String... args) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(tool().toString());
+        // snippets are read in the default encoding, the sources are UTF-8
+        cmd.add("-J-Dfile.encoding=UTF-8");
+        cmd.add("-doclet");
+        cmd.add("org.apidesign.javadoc.codesnippet.Doclet");
+        cmd.add("-docletpath");
+        cmd.add(docletPath().toString());
+        cmd.add("-classpath");
+        cmd.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+        cmd.addAll(Arrays.asList(args));
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        p.getOutputStream().close();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (InputStream is = p.getInputStream()) {
+            byte[] buf = new byte[8192];
+            for (;;) {
+                int len = is.read(buf);
+                if (len < 0) {
+                    break;
+                }
+                os.write(buf, 0, len);
+            }
+        }
+        assertTrue(p.waitFor(5, TimeUnit.MINUTES), "javadoc finished");
+        return new Result(p.exitValue(), new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static Path tool() {
+        Path home = Paths.get(System.getProperty("java.home"));
+        String name = File.separatorChar == '\\' ? "javadoc.exe" : "javadoc";
+        Path tool = home.resolve("bin").resolve(name);
+        if (!Files.exists(tool)) {
+            // JDK 8 runs tests from its jre directory
+            tool = home.getParent().resolve("bin").resolve(name);
+        }
+        return tool;
+    }
+
+    /** The jar or directory with the doclet, without loading its classes. */
+    private static Path docletPath() throws IOException, URISyntaxException {
+        String res = "org/apidesign/javadoc/codesnippet/Doclet.class";
+        URL url = Javadoc.class.getClassLoader().getResource(res);
+        assertNotNull(url, "Doclet is on the test class path");
+        String s = url.toString();
+        if (s.startsWith("jar:")) {
+            return Paths.get(new URL(s.substring(4, s.indexOf("!/"))).toURI());
+        }
+        Path classes = Paths.get(url.toURI());
+        for (int i = res.split("/").length; i > 0; i--) {
+            classes = classes.getParent();
+        }
+        return classes;
+    }
+
+    /**
+     * A fresh directory for a run.
+     *
+     * @param name the name of the directory in {@link #RUNS}
+     */
+    static Path dir(String name) throws IOException {
+        Path dir = RUNS.resolve(name);
+        delete(dir);
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    /**
+     * Write a file, creating its directories.
+     */
+    static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Read a file as UTF-8. */
+    static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * All files in the directory and their content.
+     */
+    static Map<String, byte[]> files(Path dir) throws IOException {
+        final Map<String, byte[]> files = new TreeMap<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                files.put(dir.relativize(file).toString().replace(File.separatorChar, '/'),
+                        Files.readAllBytes(file));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Assert both directories contain the same files with the same content.
+     */
+    static void assertSameFiles(Path actual, Path expected) throws IOException {
+        assertSameFiles(files(actual), files(expected), actual + " and " + expected);
+    }
+
+    static void assertSameFiles(Map<String, byte[]> actual, Map<String, byte[]> expected, String msg) {
+        assertEquals(actual.keySet(), expected.keySet(), "Same files in " + msg);
+        for (Map.Entry<String, byte[]> e : expected.entrySet()) {
+            assertTrue(Arrays.equals(actual.get(e.getKey()), e.getValue()),
+                    "Same content of " + e.getKey() + " in " + msg);
+        }
+    }
+
+    static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}